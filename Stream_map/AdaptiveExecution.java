@@ -0,0 +1,236 @@
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * ✅ ADAPTIVE EXECUTION - Sequential, parallel or chunked, chosen per call site
+ *
+ * performanceComparison maps 1M numbers sequentially; getEmployees() has 5.
+ * Adding .parallel() everywhere makes the small lists SLOWER (forking costs
+ * tens of µs) and helps the big ones only when the per-element work is worth it.
+ *
+ * A call site measures its own mapper and picks a mode from a static cost model:
+ *
+ *   total work = size × ns/element
+ *   total work < PARALLEL_MIN_WORK_NS             → SEQUENTIAL
+ *   ns/element ≤ CHEAP_ELEMENT_NS                 → CHUNKED   (few big chunks, tight loops)
+ *   otherwise                                     → PARALLEL  (fine-grained parallel stream,
+ *                                                              balances uneven element costs)
+ *   one available core                            → SEQUENTIAL, always
+ *
+ *   static final AdaptiveExecution.CallSite DTOS = AdaptiveExecution.site("employee DTOs");
+ *   List<EmployeeDTO> dtos = DTOS.map(employees, e -> new EmployeeDTO(e.getId(), e.getName()));
+ *
+ * The cost estimate comes from timing the first SAMPLE_SIZE elements of a
+ * call sequentially (their results are kept, not thrown away). Every call
+ * samples while a site warms up, keeping the LOWEST sample - early calls run
+ * interpreted and only ever overestimate. After warm-up every
+ * RESAMPLE_INTERVAL-th call samples again and feeds an exponential moving
+ * average, so the estimate follows real changes (bigger objects, slower
+ * backends). Sites live in a static registry, so what they learned lasts for
+ * the life of the JVM; report() prints it.
+ */
+public final class AdaptiveExecution {
+
+    static final long PARALLEL_MIN_WORK_NS = 200_000;   // below ~0.2 ms of work, forking does not pay
+    static final double CHEAP_ELEMENT_NS = 100;        // cheaper than this: per-element task overhead dominates
+    static final int SAMPLE_SIZE = 256;                // enough to average out timer granularity
+    static final int WARMUP_CALLS = 20;
+    static final int RESAMPLE_INTERVAL = 32;
+    static final double EWMA_WEIGHT = 0.2;             // weight of the newest sample
+
+    public enum Mode { SEQUENTIAL, PARALLEL, CHUNKED }
+
+    private static final Map<String, CallSite> SITES = new ConcurrentHashMap<>();
+
+    private AdaptiveExecution() {
+    }
+
+    /** The call site with this name, created on first use and kept for the JVM's lifetime */
+    public static CallSite site(String name) {
+        return SITES.computeIfAbsent(Objects.requireNonNull(name, "name"), CallSite::new);
+    }
+
+    /** The static cost model; package-private so the demo can show decisions for other core counts */
+    static Mode choose(long size, double nanosPerElement, int cores) {
+        if (cores <= 1 || size * nanosPerElement < PARALLEL_MIN_WORK_NS) {
+            return Mode.SEQUENTIAL;
+        }
+        return nanosPerElement <= CHEAP_ELEMENT_NS ? Mode.CHUNKED : Mode.PARALLEL;
+    }
+
+    /** One line per site: learned cost and how often each mode was picked */
+    public static String report() {
+        StringBuilder sb = new StringBuilder(String.format("  %-22s %12s %10s %10s %10s%n",
+                                                           "call site", "ns/element", "sequential", "parallel", "chunked"));
+        new TreeMap<>(SITES).values().forEach(site -> sb.append(site.format()));
+        return sb.toString();
+    }
+
+    // ========================================
+    // Call site
+    // ========================================
+
+    public static final class CallSite {
+        private final String name;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder[] modeCounts = new LongAdder[Mode.values().length];
+        // Racy read-modify-write is fine: a lost sample only slows learning down
+        private volatile double nanosPerElement = Double.NaN;
+
+        private CallSite(String name) {
+            this.name = name;
+            for (int i = 0; i < modeCounts.length; i++) {
+                modeCounts[i] = new LongAdder();
+            }
+        }
+
+        public String name() {
+            return name;
+        }
+
+        /** Learned cost, or NaN before the first sample */
+        public double nanosPerElement() {
+            return nanosPerElement;
+        }
+
+        public long timesChosen(Mode mode) {
+            return modeCounts[mode.ordinal()].sum();
+        }
+
+        /** Maps every element, in order; the returned list is unmodifiable */
+        @SuppressWarnings("unchecked")
+        public <T, R> List<R> map(List<? extends T> input, Function<? super T, ? extends R> mapper) {
+            List<? extends T> source = input instanceof RandomAccess ? input : new ArrayList<>(input);
+            int size = source.size();
+            Object[] out = new Object[size];
+
+            calls.increment();
+            long call = calls.sum();
+            int done = 0;
+            if (Double.isNaN(nanosPerElement) || call <= WARMUP_CALLS || call % RESAMPLE_INTERVAL == 0) {
+                done = Math.min(SAMPLE_SIZE, size);
+                long start = System.nanoTime();
+                for (int i = 0; i < done; i++) {
+                    out[i] = mapper.apply(source.get(i));
+                }
+                if (done > 0) {
+                    learn((System.nanoTime() - start) / (double) done, call <= WARMUP_CALLS);
+                }
+            }
+
+            Mode mode = choose(size - done, nanosPerElement, Runtime.getRuntime().availableProcessors());
+            modeCounts[mode.ordinal()].increment();
+            int from = done;
+            switch (mode) {
+                case SEQUENTIAL:
+                    for (int i = from; i < size; i++) {
+                        out[i] = mapper.apply(source.get(i));
+                    }
+                    break;
+                case PARALLEL:
+                    IntStream.range(from, size).parallel().forEach(i -> out[i] = mapper.apply(source.get(i)));
+                    break;
+                case CHUNKED:
+                    int chunks = 4 * Runtime.getRuntime().availableProcessors();
+                    int remaining = size - from;
+                    IntStream.range(0, chunks).parallel().forEach(c -> {
+                        // Bounds in long (CustomMap.chunkStart): c * chunkSize overflows int near 2^31 elements
+                        int end = from + CustomMap.chunkStart(c + 1, chunks, remaining);
+                        for (int i = from + CustomMap.chunkStart(c, chunks, remaining); i < end; i++) {
+                            out[i] = mapper.apply(source.get(i));
+                        }
+                    });
+                    break;
+            }
+            return Collections.unmodifiableList((List<R>) Arrays.asList(out));
+        }
+
+        private void learn(double sampleNanos, boolean warmingUp) {
+            double current = nanosPerElement;
+            if (Double.isNaN(current)) {
+                nanosPerElement = sampleNanos;
+            } else if (warmingUp) {
+                nanosPerElement = Math.min(current, sampleNanos);
+            } else {
+                nanosPerElement = current + EWMA_WEIGHT * (sampleNanos - current);
+            }
+        }
+
+        String format() {
+            return String.format("  %-22s %12.1f %10d %10d %10d%n", name, nanosPerElement,
+                                 timesChosen(Mode.SEQUENTIAL), timesChosen(Mode.PARALLEL), timesChosen(Mode.CHUNKED));
+        }
+    }
+
+    // ========================================
+    // Demo
+    // ========================================
+
+    private static final CallSite DTOS = site("employee DTOs");
+    private static final CallSite DOUBLING = site("double 1M numbers");
+    private static final CallSite HASHING = site("hash 20k numbers");
+
+    public static void main(String[] args) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("=== Example 1: transformToDTOWithStream, 5 employees ===\n");
+        List<Employee> employees = ObjectTransformationExample.getEmployees();
+        List<EmployeeDTO> dtos = DTOS.map(employees, e -> new EmployeeDTO(e.getId(), e.getName()));
+        System.out.println("DTOs: " + dtos);
+
+        System.out.println("\n=== Example 2: Three workloads ===\n");
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        List<Integer> numbers = IntStream.rangeClosed(1, size).boxed().collect(Collectors.toList());
+        List<Integer> some = numbers.subList(0, Math.min(size, 20_000));
+
+        System.out.println("workload              sequential   parallel stream   adaptive   (cores: " + cores + ")");
+        compare("5 employees → DTO", employees, e -> new EmployeeDTO(e.getId(), e.getName()), DTOS);
+        compare("1M numbers × 2", numbers, n -> n * 2, DOUBLING);
+        compare("20k numbers → hash", some, AdaptiveExecution::slowHash, HASHING);
+
+        System.out.println("\n=== Example 3: What each site learned ===\n");
+        System.out.print(report());
+
+        System.out.println("\nThe same estimates on other machines:");
+        for (int c : new int[] {1, 4, 16}) {
+            System.out.printf("  %2d cores: DTOs → %-10s  doubling → %-10s  hashing → %s%n", c,
+                              choose(5, DTOS.nanosPerElement(), c),
+                              choose(size, DOUBLING.nanosPerElement(), c),
+                              choose(some.size(), HASHING.nanosPerElement(), c));
+        }
+    }
+
+    static <T, R> void compare(String label, List<T> input, Function<T, R> mapper, CallSite site) {
+        long bestSeq = Long.MAX_VALUE, bestPar = Long.MAX_VALUE, bestAdaptive = Long.MAX_VALUE;
+        List<R> expected = null, actual = null;
+        for (int round = 0; round < 30; round++) {
+            long start = System.nanoTime();
+            expected = input.stream().map(mapper).collect(Collectors.toList());
+            bestSeq = Math.min(bestSeq, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            input.parallelStream().map(mapper).collect(Collectors.toList());
+            bestPar = Math.min(bestPar, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            actual = site.map(input, mapper);
+            bestAdaptive = Math.min(bestAdaptive, System.nanoTime() - start);
+        }
+        if (!expected.toString().equals(actual.toString())) {   // EmployeeDTO has no equals()
+            throw new AssertionError("adaptive result differs for " + label);
+        }
+        System.out.printf("%-20s %9.3f ms   %12.3f ms   %6.3f ms%n",
+                          label, bestSeq / 1e6, bestPar / 1e6, bestAdaptive / 1e6);
+    }
+
+    private static long slowHash(int n) {
+        long h = n;
+        for (int i = 0; i < 500; i++) {
+            h = h * 0x9E3779B97F4A7C15L + i;
+            h ^= h >>> 31;
+        }
+        return h;
+    }
+}
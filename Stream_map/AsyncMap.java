@@ -0,0 +1,266 @@
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * ✅ ASYNC MAP - map() for BLOCKING transformations, one cheap thread per element
+ *
+ * extractEmailsWithStream is instant because getEmail() is a field read. Make
+ * the mapper a 5 ms lookup (verify the address, fetch a profile) and:
+ * - stream().map()         → 5 ms × n, one element at a time
+ * - parallelStream().map() → ~cores elements at a time, each holding a
+ *                            ForkJoinPool worker asleep for 5 ms
+ *
+ * AsyncMap runs every element's mapper on its own thread, at most
+ * maxConcurrency at once (a Semaphore), and puts results back in INPUT order:
+ *
+ *   try (AsyncMap lookups = new AsyncMap(100)) {
+ *       List<String> verified = lookups.map(employees, e -> directory.verify(e.getEmail()));
+ *   }
+ *
+ * - Threads: virtual threads when the JVM has them (Java 21+), found via
+ *   reflection so this still compiles and runs on Java 8; otherwise a pool of
+ *   daemon platform threads, which the semaphore keeps at maxConcurrency
+ * - Failures: the first exception stops new submissions, interrupts in-flight
+ *   mappers, waits until they have stopped (no mapper of this call is left
+ *   running or holding a permit) and is rethrown with its original type
+ */
+public final class AsyncMap implements AutoCloseable {
+
+    private final int maxConcurrency;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    public AsyncMap(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1: " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : newPlatformThreadExecutor();
+    }
+
+    /** Executors.newVirtualThreadPerTaskExecutor() if this JVM has it, else null */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;   // Java < 21 (or preview not enabled on 19/20)
+        }
+    }
+
+    private static ExecutorService newPlatformThreadExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "async-map-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    // ========================================
+    // map()
+    // ========================================
+
+    /** Applies the mapper to every element concurrently; results in input order */
+    @SuppressWarnings("unchecked")
+    public <T, R> List<R> map(Collection<? extends T> input, Function<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        Object[] elements = input.toArray();
+        Object[] results = new Object[elements.length];
+        List<Future<?>> submitted = new ArrayList<>(elements.length);
+        Semaphore permits = new Semaphore(maxConcurrency);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        // 1 once a task has started, or once abort() has claimed it so it never will
+        AtomicIntegerArray claimed = new AtomicIntegerArray(elements.length);
+
+        try {
+            for (int i = 0; i < elements.length && failure.get() == null; i++) {
+                permits.acquire();
+                int index = i;
+                submitted.add(executor.submit(() -> {
+                    if (!claimed.compareAndSet(index, 0, 1)) {
+                        return;   // abandoned by abort() before it started; abort() released its permit
+                    }
+                    try {
+                        results[index] = mapper.apply((T) elements[index]);
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (Future<?> future : submitted) {
+                if (failure.get() != null) {
+                    break;
+                }
+                try {
+                    future.get();
+                } catch (ExecutionException | CancellationException e) {
+                    failure.compareAndSet(null, e.getCause() != null ? e.getCause() : e);
+                }
+            }
+        } catch (InterruptedException e) {
+            abort(submitted, claimed, permits);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while mapping");
+        }
+
+        Throwable cause = failure.get();
+        if (cause != null) {
+            abort(submitted, claimed, permits);
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CompletionException(cause);
+        }
+        return (List<R>) Arrays.asList(results);
+    }
+
+    /**
+     * Stops every task of one map() call and returns once none is running:
+     * tasks that have not started are claimed so they never will, running ones
+     * are interrupted, and all maxConcurrency permits coming back means the
+     * last running mapper has finished.
+     */
+    private void abort(List<Future<?>> submitted, AtomicIntegerArray claimed, Semaphore permits) {
+        for (int i = 0; i < submitted.size(); i++) {
+            if (claimed.compareAndSet(i, 0, 1)) {
+                permits.release();
+            }
+        }
+        submitted.forEach(f -> f.cancel(true));
+        permits.acquireUninterruptibly(maxConcurrency);
+    }
+
+    /** Stream-friendly form: stream.collect(...) then map(), for pipelines that end in a blocking step */
+    public <T, R> Collector<T, ?, List<R>> mapping(Function<? super T, ? extends R> mapper) {
+        return Collectors.collectingAndThen(Collectors.toList(), list -> map(list, mapper));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // ========================================
+    // Demo
+    // ========================================
+
+    static final long LOOKUP_MILLIS = 5;
+
+    /** Local stub for a blocking enrichment call: ~5 ms per lookup */
+    static String verifyEmail(String email) {
+        try {
+            Thread.sleep(LOOKUP_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("lookup interrupted: " + email);
+        }
+        if (!email.contains("@")) {
+            throw new IllegalArgumentException("not an email address: " + email);
+        }
+        return email + " ✓";
+    }
+
+    public static void main(String[] args) {
+        List<Employee> employees = ObjectTransformationExample.getEmployees();
+
+        System.out.println("=== Example 1: extractEmailsWithStream with a blocking lookup ===\n");
+        try (AsyncMap lookups = new AsyncMap(10)) {
+            System.out.println("Threads: " + (lookups.usesVirtualThreads() ? "virtual" : "platform (virtual threads need Java 21+)"));
+            List<String> verified = employees.stream()
+                                             .map(Employee::getEmail)
+                                             .collect(lookups.mapping(AsyncMap::verifyEmail));
+            System.out.println("Verified (input order kept): " + verified);
+
+            System.out.println("\n=== Example 2: A failing lookup ===\n");
+            List<String> emails = Arrays.asList("raj@company.com", "not-an-email", "neha@company.com");
+            try {
+                lookups.map(emails, AsyncMap::verifyEmail);
+            } catch (IllegalArgumentException e) {
+                System.out.println("Caught: " + e.getMessage());
+            }
+
+            // When map() throws, none of its mappers may still be running
+            AtomicInteger running = new AtomicInteger();
+            List<String> many = IntStream.range(0, 200)
+                                         .mapToObj(i -> i == 25 ? "broken-" + i : "user" + i + "@company.com")
+                                         .collect(Collectors.toList());
+            try {
+                lookups.map(many, email -> {
+                    running.incrementAndGet();
+                    try {
+                        return verifyEmail(email);
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                });
+                throw new AssertionError("the failing lookup must be rethrown");
+            } catch (IllegalArgumentException e) {
+                if (running.get() != 0) {
+                    throw new AssertionError(running.get() + " mapper(s) still running after map() threw");
+                }
+                System.out.println("Caught: " + e.getMessage() + " - no mapper left running");
+            }
+        }
+
+        System.out.println("\n=== Example 3: 5 ms blocking lookups ===\n");
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        performanceComparison(size);
+    }
+
+    static void performanceComparison(int size) {
+        List<String> emails = IntStream.range(0, size)
+                                       .mapToObj(i -> "user" + i + "@company.com")
+                                       .collect(Collectors.toList());
+        List<String> sample = emails.subList(0, Math.min(size, 100));
+
+        System.out.println(size + " emails, " + LOOKUP_MILLIS + " ms per lookup:\n");
+
+        // ❌ Sequential: timed on 100 emails and scaled, the full run would take seconds
+        long start = System.nanoTime();
+        List<String> expected = sample.stream().map(AsyncMap::verifyEmail).collect(Collectors.toList());
+        double sequentialMs = (System.nanoTime() - start) / 1e6 * size / sample.size();
+        System.out.printf("stream().map()               %9.0f ms  (extrapolated from %d)%n", sequentialMs, sample.size());
+
+        // ❌ Parallel stream: bounded by ForkJoinPool workers, each blocked while it sleeps
+        start = System.nanoTime();
+        List<String> parallel = emails.parallelStream().map(AsyncMap::verifyEmail).collect(Collectors.toList());
+        System.out.printf("parallelStream().map()       %9.0f ms  (common pool parallelism %d)%n",
+                          (System.nanoTime() - start) / 1e6, ForkJoinPool.getCommonPoolParallelism());
+
+        // ✅ AsyncMap with growing concurrency bounds
+        for (int concurrency : new int[] {16, 64, 256}) {
+            try (AsyncMap lookups = new AsyncMap(concurrency)) {
+                start = System.nanoTime();
+                List<String> verified = lookups.map(emails, AsyncMap::verifyEmail);
+                long elapsed = System.nanoTime() - start;
+                if (!verified.equals(parallel) || !verified.subList(0, sample.size()).equals(expected)) {
+                    throw new AssertionError("async results out of order");
+                }
+                System.out.printf("AsyncMap(%3d)                %9.0f ms  (ideal %d ms)%n", concurrency, elapsed / 1e6,
+                                  (size + concurrency - 1) / concurrency * LOOKUP_MILLIS);
+            }
+        }
+    }
+}
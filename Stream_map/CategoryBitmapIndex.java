@@ -0,0 +1,165 @@
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * ✅ CATEGORY BITMAP INDEX - One compressed bitmap of row ids per category
+ *
+ * electronicsUppercaseWithStream compares getCategory() to "Electronics" on
+ * every product. With a bitmap per category, the filter is a lookup, and
+ * combined predicates are bitmap algebra evaluated BEFORE touching any row:
+ *
+ *   Electronics AND price > 500   →  bitmap("Electronics") AND priceBitmap
+ *   Electronics OR Furniture      →  bitmap("Electronics") OR bitmap("Furniture")
+ *   everything but Electronics    →  all() ANDNOT bitmap("Electronics")
+ *
+ * Row ids are positions in insertion order, the same ids PriceIndex uses,
+ * so bitmaps from both indexes combine directly.
+ */
+public class CategoryBitmapIndex {
+
+    private final List<Product> rows = new ArrayList<>();
+    private final Map<String, RoaringBitmap> byCategory = new HashMap<>();
+
+    public CategoryBitmapIndex(Collection<? extends Product> products) {
+        products.forEach(this::add);
+        byCategory.values().forEach(RoaringBitmap::runOptimize);
+    }
+
+    /** Appends a product; row ids grow monotonically, so this is the bitmaps' fast path */
+    public int add(Product product) {
+        int rowId = rows.size();
+        rows.add(product);
+        byCategory.computeIfAbsent(product.getCategory(), c -> new RoaringBitmap()).add(rowId);
+        return rowId;
+    }
+
+    /** Rows in the category, as a copy the caller may modify - empty bitmap for unknown categories */
+    public RoaringBitmap bitmap(String category) {
+        RoaringBitmap bitmap = byCategory.get(category);
+        return bitmap != null ? bitmap.copy() : new RoaringBitmap();
+    }
+
+    /** Every row id - the universe for NOT-style queries */
+    public RoaringBitmap all() {
+        return RoaringBitmap.range(0, rows.size());
+    }
+
+    public Set<String> categories() {
+        return Collections.unmodifiableSet(byCategory.keySet());
+    }
+
+    /** Touches only the rows left after bitmap evaluation */
+    public Stream<Product> rows(RoaringBitmap rowIds) {
+        return Arrays.stream(rowIds.toArray()).mapToObj(rows::get);
+    }
+
+    /** Category → approximate bytes held by its bitmap */
+    public Map<String, Long> memoryReport() {
+        Map<String, Long> report = new TreeMap<>();
+        byCategory.forEach((category, bitmap) -> report.put(category, bitmap.sizeInBytes()));
+        return report;
+    }
+
+    // ========================================
+    // Demo
+    // ========================================
+
+    public static void main(String[] args) {
+        List<Product> products = MapWithFilterExample.getProducts();
+        CategoryBitmapIndex categories = new CategoryBitmapIndex(products);
+        PriceIndex prices = new PriceIndex(products);
+
+        System.out.println("=== Example 1: Electronics AND price > 500 ===\n");
+        RoaringBitmap electronics = categories.bitmap("Electronics");
+        RoaringBitmap expensive = RoaringBitmap.of(prices.greaterThan(500));
+        RoaringBitmap both = RoaringBitmap.and(electronics, expensive);
+
+        System.out.println("Electronics rows:     " + electronics);
+        System.out.println("price > 500 rows:     " + expensive);
+        System.out.println("AND:                  " + both);
+        System.out.println("Products:             " + categories.rows(both)
+                                                                .map(Product::getName)
+                                                                .collect(Collectors.toList()));
+
+        System.out.println("\n=== Example 2: OR / ANDNOT ===\n");
+        System.out.println("Electronics OR Furniture: "
+                           + RoaringBitmap.or(electronics, categories.bitmap("Furniture")).cardinality() + " rows");
+        System.out.println("Not Electronics:          "
+                           + categories.rows(RoaringBitmap.andNot(categories.all(), electronics))
+                                       .map(Product::getName)
+                                       .collect(Collectors.toList()));
+
+        System.out.println("\n=== Example 3: Memory and Performance ===\n");
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        performanceComparison(size);
+    }
+
+    static void performanceComparison(int size) {
+        Random random = new Random(5);
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String category;
+            if (i < size / 2) {
+                category = random.nextInt(100) < 30 ? "Electronics" : "Furniture";   // interleaved
+            } else if (i < size * 3 / 4) {
+                category = "Books";                                                // one long run
+            } else {
+                category = random.nextInt(100) < 2 ? "Toys" : "Garden";           // sparse Toys
+            }
+            products.add(new Product("P" + i, random.nextDouble() * 1000, category));
+        }
+
+        CategoryBitmapIndex categories = new CategoryBitmapIndex(products);
+        PriceIndex prices = new PriceIndex(products);
+
+        System.out.println("Memory per category index (" + size + " rows):");
+        for (Map.Entry<String, Long> entry : categories.memoryReport().entrySet()) {
+            RoaringBitmap bitmap = categories.bitmap(entry.getKey());
+            int[] counts = bitmap.containerCounts();
+            System.out.printf("  %-12s %8d rows  %9d bytes  (array=%d, bitmap=%d, run=%d chunks)%n",
+                              entry.getKey(), bitmap.cardinality(), entry.getValue(),
+                              counts[0], counts[1], counts[2]);
+        }
+        System.out.println("  (an int[] of row ids would be 4 bytes/row)\n");
+
+        RoaringBitmap expensive = RoaringBitmap.of(prices.greaterThan(500));
+        RoaringBitmap electronics = categories.bitmap("Electronics");
+        long bestStream = Long.MAX_VALUE, bestBitmap = Long.MAX_VALUE;
+        long streamCount = 0, bitmapCount = 0;
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            streamCount = products.stream()
+                                  .filter(p -> p.getCategory().equals("Electronics"))
+                                  .filter(p -> p.getPrice() > 500)
+                                  .count();
+            bestStream = Math.min(bestStream, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            bitmapCount = RoaringBitmap.and(electronics, expensive).cardinality();
+            bestBitmap = Math.min(bestBitmap, System.nanoTime() - start);
+        }
+
+        System.out.printf("Electronics AND price > 500: stream %.2f ms, bitmap AND %.2f ms (%d = %d rows)%n",
+                          bestStream / 1e6, bestBitmap / 1e6, streamCount, bitmapCount);
+        System.out.println("(the price bitmap is built once and reused, like the category bitmaps)");
+
+        // Out-of-order adds into run chunks: merged into the runs in place
+        RoaringBitmap runs = RoaringBitmap.of(IntStream.range(0, size).filter(id -> id % 1000 < 500).toArray());
+        int[] added = random.ints(100_000, 0, size).toArray();
+        long start = System.nanoTime();
+        for (int id : added) {
+            runs.add(id);
+        }
+        long addNanos = System.nanoTime() - start;
+        int[] expected = IntStream.concat(IntStream.range(0, size).filter(id -> id % 1000 < 500), IntStream.of(added))
+                                  .distinct()
+                                  .sorted()
+                                  .toArray();
+        if (!Arrays.equals(runs.toArray(), expected)) {
+            throw new AssertionError("random adds into run containers lost or invented ids");
+        }
+        int[] counts = runs.containerCounts();
+        System.out.printf("%nRandom adds into run chunks: %.0f ns/add (array=%d, bitmap=%d, run=%d chunks)%n",
+                          addNanos / 100_000.0, counts[0], counts[1], counts[2]);
+    }
+}
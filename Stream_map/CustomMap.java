@@ -0,0 +1,252 @@
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * ✅ CUSTOM MAP - map + filter in one loop, output sized up front
+ *
+ * MapPracticeExercises.customMap(list, mapper, filter) as a utility:
+ *
+ *   List<Integer> squares = CustomMap.map(numbers, n -> n * n, n -> n > 10);
+ *   int[] squares         = CustomMap.map(ints,    n -> n * n, n -> n > 10);   // no boxing at all
+ *
+ * Compared to list.stream().map(mapper).filter(filter).collect(toList()):
+ * - ONE indexed loop for RandomAccess lists - no Spliterator, no Sink chain
+ * - the output ArrayList is presized to the input size, so it never regrows
+ *   (a filter can only shrink; at most size × 4-8 bytes of slack)
+ * - above PARALLEL_THRESHOLD elements, and with more than one core, the input
+ *   is cut into contiguous chunks mapped in parallel, each into its own
+ *   presized list, then joined in input order
+ * - int[] / double[] overloads keep primitives primitive end to end
+ */
+public final class CustomMap {
+
+    static final int PARALLEL_THRESHOLD = 100_000;
+    static final int CHUNKS_PER_CORE = 4;
+
+    private CustomMap() {
+    }
+
+    // ========================================
+    // Objects
+    // ========================================
+
+    /** Maps every element, then keeps the results that pass the filter - in input order */
+    public static <T, R> List<R> map(List<? extends T> list,
+                                     Function<? super T, ? extends R> mapper,
+                                     Predicate<? super R> filter) {
+        Objects.requireNonNull(mapper, "mapper");
+        Objects.requireNonNull(filter, "filter");
+        if (!(list instanceof RandomAccess)) {
+            List<R> result = new ArrayList<>();
+            for (T element : list) {
+                R value = mapper.apply(element);
+                if (filter.test(value)) {
+                    result.add(value);
+                }
+            }
+            return result;
+        }
+        int size = list.size();
+        int chunks = chunkCount(size);
+        if (chunks == 1) {
+            return mapRange(list, 0, size, mapper, filter);
+        }
+        List<List<R>> parts = IntStream.range(0, chunks)
+                                       .parallel()
+                                       .mapToObj(c -> CustomMap.<T, R>mapRange(list, chunkStart(c, chunks, size),
+                                                               chunkStart(c + 1, chunks, size), mapper, filter))
+                                       .collect(Collectors.toList());
+        int total = 0;
+        for (List<R> part : parts) {
+            total += part.size();
+        }
+        List<R> result = new ArrayList<>(total);
+        parts.forEach(result::addAll);
+        return result;
+    }
+
+    public static <T, R> List<R> map(List<? extends T> list, Function<? super T, ? extends R> mapper) {
+        return map(list, mapper, value -> true);
+    }
+
+    private static <T, R> List<R> mapRange(List<? extends T> list, int from, int to,
+                                           Function<? super T, ? extends R> mapper, Predicate<? super R> filter) {
+        List<R> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            R value = mapper.apply(list.get(i));
+            if (filter.test(value)) {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
+    // ========================================
+    // Primitives
+    // ========================================
+
+    public static int[] map(int[] values, IntUnaryOperator mapper, IntPredicate filter) {
+        Objects.requireNonNull(mapper, "mapper");
+        Objects.requireNonNull(filter, "filter");
+        int chunks = chunkCount(values.length);
+        if (chunks == 1) {
+            return mapRange(values, 0, values.length, mapper, filter);
+        }
+        int[][] parts = new int[chunks][];
+        IntStream.range(0, chunks).parallel().forEach(c ->
+                parts[c] = mapRange(values, chunkStart(c, chunks, values.length),
+                                    chunkStart(c + 1, chunks, values.length), mapper, filter));
+        return concat(parts);
+    }
+
+    public static int[] map(int[] values, IntUnaryOperator mapper) {
+        return map(values, mapper, value -> true);
+    }
+
+    private static int[] mapRange(int[] values, int from, int to, IntUnaryOperator mapper, IntPredicate filter) {
+        int[] out = new int[Math.max(0, to - from)];
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            int value = mapper.applyAsInt(values[i]);
+            if (filter.test(value)) {
+                out[n++] = value;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    private static int[] concat(int[][] parts) {
+        int total = 0;
+        for (int[] part : parts) {
+            total += part.length;
+        }
+        int[] result = new int[total];
+        int at = 0;
+        for (int[] part : parts) {
+            System.arraycopy(part, 0, result, at, part.length);
+            at += part.length;
+        }
+        return result;
+    }
+
+    public static double[] map(double[] values, DoubleUnaryOperator mapper, DoublePredicate filter) {
+        Objects.requireNonNull(mapper, "mapper");
+        Objects.requireNonNull(filter, "filter");
+        int chunks = chunkCount(values.length);
+        if (chunks == 1) {
+            return mapRange(values, 0, values.length, mapper, filter);
+        }
+        double[][] parts = new double[chunks][];
+        IntStream.range(0, chunks).parallel().forEach(c ->
+                parts[c] = mapRange(values, chunkStart(c, chunks, values.length),
+                                    chunkStart(c + 1, chunks, values.length), mapper, filter));
+        return concat(parts);
+    }
+
+    public static double[] map(double[] values, DoubleUnaryOperator mapper) {
+        return map(values, mapper, value -> true);
+    }
+
+    private static double[] concat(double[][] parts) {
+        int total = 0;
+        for (double[] part : parts) {
+            total += part.length;
+        }
+        double[] result = new double[total];
+        int at = 0;
+        for (double[] part : parts) {
+            System.arraycopy(part, 0, result, at, part.length);
+            at += part.length;
+        }
+        return result;
+    }
+
+    private static double[] mapRange(double[] values, int from, int to,
+                                     DoubleUnaryOperator mapper, DoublePredicate filter) {
+        double[] out = new double[Math.max(0, to - from)];
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            double value = mapper.applyAsDouble(values[i]);
+            if (filter.test(value)) {
+                out[n++] = value;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    /** First index of chunk c (= end of chunk c - 1); in long, since size * c overflows int near Integer.MAX_VALUE */
+    static int chunkStart(int c, int chunks, int size) {
+        return (int) ((long) size * c / chunks);
+    }
+
+    /** 1 (sequential) below the threshold or on a single core */
+    private static int chunkCount(int size) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        if (size < PARALLEL_THRESHOLD || cores == 1) {
+            return 1;
+        }
+        return Math.min(cores * CHUNKS_PER_CORE, size / (PARALLEL_THRESHOLD / CHUNKS_PER_CORE));
+    }
+
+    // ========================================
+    // Demo
+    // ========================================
+
+    public static void main(String[] args) {
+        System.out.println("=== Example 1: exercise5_3 - square, keep > 10 ===\n");
+        List<Integer> numbers = Arrays.asList(2, 3, 4, 5, 6);
+        System.out.println("Input:   " + numbers);
+        System.out.println("List:    " + CustomMap.map(numbers, n -> n * n, n -> n > 10));
+        System.out.println("int[]:   " + Arrays.toString(CustomMap.map(new int[] {2, 3, 4, 5, 6}, n -> n * n, n -> n > 10)));
+        System.out.println("Linked:  " + CustomMap.map(new LinkedList<>(numbers), n -> n * n, n -> n > 10));
+
+        // Chunk bounds for an input of Integer.MAX_VALUE elements: contiguous, in range, ending at size
+        int huge = Integer.MAX_VALUE, chunks = 64;
+        for (int c = 0; c < chunks; c++) {
+            int from = chunkStart(c, chunks, huge), to = chunkStart(c + 1, chunks, huge);
+            if (from < 0 || to < from || (c == chunks - 1 && to != huge)) {
+                throw new AssertionError("chunk " + c + " of " + huge + ": [" + from + ", " + to + ")");
+            }
+        }
+
+        System.out.println("\n=== Example 2: Performance Comparison ===\n");
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        performanceComparison(size);
+    }
+
+    static void performanceComparison(int size) {
+        int[] raw = new Random(19).ints(size, 0, 10_000).toArray();
+        List<Integer> boxed = Arrays.stream(raw).boxed().collect(Collectors.toList());
+
+        long best1 = Long.MAX_VALUE, best2 = Long.MAX_VALUE, best3 = Long.MAX_VALUE, best4 = Long.MAX_VALUE;
+        int count1 = 0, count2 = 0, count3 = 0, count4 = 0;
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            count1 = boxed.stream().map(n -> n * 3 + 1).filter(n -> n % 2 == 0).collect(Collectors.toList()).size();
+            best1 = Math.min(best1, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            count2 = CustomMap.map(boxed, n -> n * 3 + 1, n -> n % 2 == 0).size();
+            best2 = Math.min(best2, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            count3 = Arrays.stream(raw).map(n -> n * 3 + 1).filter(n -> n % 2 == 0).toArray().length;
+            best3 = Math.min(best3, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            count4 = CustomMap.map(raw, n -> n * 3 + 1, n -> n % 2 == 0).length;
+            best4 = Math.min(best4, System.nanoTime() - start);
+        }
+        if (count1 != count2 || count1 != count3 || count1 != count4) {
+            throw new AssertionError("results differ: " + count1 + ", " + count2 + ", " + count3 + ", " + count4);
+        }
+        System.out.println(size + " values, map(n * 3 + 1).filter(even) → " + count1 + " results");
+        System.out.println("(" + Runtime.getRuntime().availableProcessors() + " core(s); chunked parallel above "
+                           + PARALLEL_THRESHOLD + " elements when there is more than one)\n");
+        System.out.printf("stream().map().filter().collect()   %7.2f ms%n", best1 / 1e6);
+        System.out.printf("CustomMap.map(List, ...)            %7.2f ms%n", best2 / 1e6);
+        System.out.printf("IntStream map().filter().toArray()  %7.2f ms%n", best3 / 1e6);
+        System.out.printf("CustomMap.map(int[], ...)           %7.2f ms%n", best4 / 1e6);
+    }
+}
@@ -0,0 +1,260 @@
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * ✅ DISTINCT COUNTER - Count distinct values without keeping them
+ *
+ * distinct().count() / Collectors.toSet().size() hold EVERY distinct key in a
+ * HashSet. When only the number is needed, a HyperLogLog sketch estimates it
+ * in a few KB, whatever the input size.
+ *
+ * Both modes have the same API (add / merge / count) and the same Collector
+ * shape, so switching between exact and approximate is a one-word change:
+ *
+ *   long n = stream.collect(DistinctCounter.approximate(0.01));
+ *   long n = stream.collect(DistinctCounter.exact());
+ *
+ * Sketches merge without losing accuracy, so parallel streams work out of the box.
+ */
+public abstract class DistinctCounter<T> {
+
+    /** Adds one value (null counts as a value, like in a HashSet) */
+    public abstract void add(T value);
+
+    /** Folds another counter of the same kind into this one and returns this */
+    public abstract DistinctCounter<T> merge(DistinctCounter<T> other);
+
+    /** Number of distinct values added (estimated in approximate mode) */
+    public abstract long count();
+
+    /** Approximate memory held by the counter */
+    public abstract long sizeInBytes();
+
+    // ========================================
+    // Collectors
+    // ========================================
+
+    /**
+     * HyperLogLog collector with a standard error of about {@code relativeError}
+     * (0.01 → ~16 KB of registers, 0.02 → ~4 KB).
+     */
+    public static <T> Collector<T, ?, Long> approximate(double relativeError) {
+        int precision = HyperLogLog.precisionFor(relativeError);
+        return collector(() -> new HyperLogLog<>(precision));
+    }
+
+    /** Exact counting with the same API - backed by a HashSet */
+    public static <T> Collector<T, ?, Long> exact() {
+        return collector(Exact::new);
+    }
+
+    private static <T> Collector<T, DistinctCounter<T>, Long> collector(Supplier<DistinctCounter<T>> supplier) {
+        return Collector.of(supplier,
+                            DistinctCounter::add,
+                            DistinctCounter::merge,
+                            DistinctCounter::count,
+                            Collector.Characteristics.UNORDERED);
+    }
+
+    // ========================================
+    // Exact mode
+    // ========================================
+
+    static final class Exact<T> extends DistinctCounter<T> {
+        private final Set<T> seen = new HashSet<>();
+
+        @Override
+        public void add(T value) {
+            seen.add(value);
+        }
+
+        @Override
+        public DistinctCounter<T> merge(DistinctCounter<T> other) {
+            seen.addAll(((Exact<T>) other).seen);
+            return this;
+        }
+
+        @Override
+        public long count() {
+            return seen.size();
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return seen.size() * 48L;   // rough HashMap.Node + table slot cost, keys not included
+        }
+    }
+
+    // ========================================
+    // Approximate mode - HyperLogLog
+    // ========================================
+
+    /**
+     * 2^precision one-byte registers. Each value hashes to 64 bits: the top
+     * {@code precision} bits pick a register, the rest record the longest run
+     * of leading zeros seen. With a 64-bit hash no large-range correction is
+     * needed; small cardinalities use linear counting.
+     */
+    static final class HyperLogLog<T> extends DistinctCounter<T> {
+        static final int MIN_PRECISION = 4;
+        static final int MAX_PRECISION = 18;
+
+        private final int precision;
+        private final byte[] registers;
+
+        HyperLogLog(int precision) {
+            if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+                throw new IllegalArgumentException(
+                    "precision must be in [" + MIN_PRECISION + ", " + MAX_PRECISION + "]: " + precision);
+            }
+            this.precision = precision;
+            this.registers = new byte[1 << precision];
+        }
+
+        /** Smallest precision whose standard error 1.04/sqrt(m) is within the bound */
+        static int precisionFor(double relativeError) {
+            if (!(relativeError > 0 && relativeError < 1)) {
+                throw new IllegalArgumentException("relativeError must be in (0, 1): " + relativeError);
+            }
+            double registersNeeded = Math.pow(1.04 / relativeError, 2);
+            int precision = (int) Math.ceil(Math.log(registersNeeded) / Math.log(2));
+            return Math.max(MIN_PRECISION, Math.min(MAX_PRECISION, precision));
+        }
+
+        @Override
+        public void add(T value) {
+            long hash = hash64(value);
+            int index = (int) (hash >>> (64 - precision));
+            // Sentinel bit keeps the rank bounded when the remaining bits are all zero
+            long rest = (hash << precision) | (1L << (precision - 1));
+            byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+            if (rank > registers[index]) {
+                registers[index] = rank;
+            }
+        }
+
+        @Override
+        public DistinctCounter<T> merge(DistinctCounter<T> other) {
+            HyperLogLog<T> that = (HyperLogLog<T>) other;
+            if (that.precision != precision) {
+                throw new IllegalArgumentException("Cannot merge precision " + that.precision + " into " + precision);
+            }
+            for (int i = 0; i < registers.length; i++) {
+                if (that.registers[i] > registers[i]) {
+                    registers[i] = that.registers[i];
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public long count() {
+            int m = registers.length;
+            double sum = 0;
+            int zeros = 0;
+            for (byte register : registers) {
+                sum += 1.0 / (1L << register);
+                if (register == 0) {
+                    zeros++;
+                }
+            }
+            double estimate = alpha(m) * m * m / sum;
+            if (estimate <= 2.5 * m && zeros > 0) {
+                estimate = m * Math.log((double) m / zeros);   // linear counting
+            }
+            return Math.round(estimate);
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return registers.length;
+        }
+
+        /** Expected standard error of count() */
+        double standardError() {
+            return 1.04 / Math.sqrt(registers.length);
+        }
+
+        private static double alpha(int m) {
+            switch (m) {
+                case 16: return 0.673;
+                case 32: return 0.697;
+                case 64: return 0.709;
+                default: return 0.7213 / (1 + 1.079 / m);
+            }
+        }
+    }
+
+    /**
+     * 64-bit hash. Strings are hashed over their chars (String.hashCode() is only
+     * 32 bits, too few for hundreds of millions of keys); other objects mix their
+     * hashCode().
+     */
+    static long hash64(Object value) {
+        long h;
+        if (value instanceof CharSequence) {
+            CharSequence s = (CharSequence) value;
+            h = 0xcbf29ce484222325L;
+            for (int i = 0; i < s.length(); i++) {
+                h ^= s.charAt(i);
+                h *= 0x100000001b3L;
+            }
+        } else {
+            h = value == null ? 0 : value.hashCode() * 0x9e3779b97f4a7c15L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // ========================================
+    // Demo
+    // ========================================
+
+    public static void main(String[] args) {
+        System.out.println("=== Example 1: Unique departments (question5 data) ===\n");
+        List<String> departments = Arrays.asList("IT", "HR", "IT", "Finance", "HR", "IT");
+
+        long exact = departments.stream().map(String::toUpperCase).collect(DistinctCounter.exact());
+        long approx = departments.stream().map(String::toUpperCase).collect(DistinctCounter.approximate(0.02));
+        System.out.println("Exact:       " + exact);
+        System.out.println("Approximate: " + approx);
+
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        System.out.println("\n=== Example 2: " + rows + " rows, parallel ===\n");
+        accuracyAndMemory(rows);
+    }
+
+    static void accuracyAndMemory(int rows) {
+        int distinct = rows / 5;
+
+        for (double error : new double[] {0.05, 0.02, 0.01}) {
+            long start = System.nanoTime();
+            long estimate = IntStream.range(0, rows)
+                                     .parallel()
+                                     .mapToObj(i -> "key-" + (i % distinct))
+                                     .collect(DistinctCounter.approximate(error));
+            long ms = (System.nanoTime() - start) / 1_000_000;
+
+            HyperLogLog<String> sketch = new HyperLogLog<>(HyperLogLog.precisionFor(error));
+            System.out.printf("HLL target ±%.0f%%: estimate=%d (actual %d, off by %.2f%%), %d bytes, %d ms%n",
+                              error * 100, estimate, distinct,
+                              100.0 * Math.abs(estimate - distinct) / distinct,
+                              sketch.sizeInBytes(), ms);
+        }
+
+        long start = System.nanoTime();
+        long exact = IntStream.range(0, rows)
+                              .parallel()
+                              .mapToObj(i -> "key-" + (i % distinct))
+                              .collect(DistinctCounter.exact());
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("%nExact:            %d, ~%d KB + the keys themselves, %d ms%n",
+                          exact, exact * 48 / 1024, ms);
+        System.out.println("\n✅ The sketch stays the same size however many distinct keys arrive");
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * Employee class representing company employee
+ */
+class Employee {
+    private int id;
+    private String name;
+    private String department;
+    private double salary;
+    private String email;
+    
+    public Employee(int id, String name, String department, double salary, String email) {
+        this.id = id;
+        this.name = name;
+        this.department = department;
+        this.salary = salary;
+        this.email = email;
+    }
+    
+    // Getters
+    public int getId() { return id; }
+    public String getName() { return name; }
+    public String getDepartment() { return department; }
+    public double getSalary() { return salary; }
+    public String getEmail() { return email; }
+    
+    @Override
+    public String toString() {
+        return String.format("Employee{id=%d, name='%s', dept='%s', salary=%.2f}", 
+                           id, name, department, salary);
+    }
+}
@@ -0,0 +1,17 @@
+/**
+ * EmployeeDTO (Data Transfer Object) - Simplified version
+ */
+class EmployeeDTO {
+    private int id;
+    private String name;
+    
+    public EmployeeDTO(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("EmployeeDTO{id=%d, name='%s'}", id, name);
+    }
+}
@@ -0,0 +1,470 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * ✅ EXTERNAL SORT - sorted() for data that does not fit in the heap
+ *
+ * exercise5_1's .sorted(...) buffers EVERY element before emitting one.
+ * ExternalSort keeps at most `runSize` records in memory:
+ *
+ *   1. read runSize records, sort them, write them to a temp file (a "run")
+ *   2. repeat until the input ends
+ *   3. merge all runs lazily: one buffered reader per run, a KWayMerge
+ *      tournament tree over their heads - memory is O(runs), not O(records)
+ *
+ *   ExternalSort<Employee> sorter = ExternalSort.builder(bySalaryDesc, EMPLOYEE_CODEC)
+ *                                               .runSize(100_000)
+ *                                               .maxTempBytes(2L << 30)
+ *                                               .build();
+ *   try (Stream<Employee> sorted = sorter.sort(employees.stream())) { ... }
+ *
+ * - records are written in a compact binary form by a Codec (DataOutput),
+ *   not Java serialization
+ * - if everything fits in one run, nothing touches the disk
+ * - more than maxFanIn runs are merged in passes, so open files stay bounded
+ * - stable, like sorted(): equal records keep input order
+ * - temp files are deleted when the stream is exhausted or closed; exceeding
+ *   maxTempBytes fails fast with an IllegalStateException
+ */
+public final class ExternalSort<T> {
+
+    /** Binary form of one record */
+    public interface Codec<T> {
+        void write(DataOutput out, T value) throws IOException;
+
+        T read(DataInput in) throws IOException;
+
+        static Codec<String> strings() {
+            return new Codec<String>() {
+                @Override
+                public void write(DataOutput out, String value) throws IOException {
+                    out.writeUTF(value);
+                }
+
+                @Override
+                public String read(DataInput in) throws IOException {
+                    return in.readUTF();
+                }
+            };
+        }
+    }
+
+    private final Comparator<? super T> comparator;
+    private final Codec<T> codec;
+    private final int runSize;
+    private final long maxTempBytes;
+    private final int maxFanIn;
+    private final Path tempDirectory;
+
+    private ExternalSort(Builder<T> builder) {
+        this.comparator = builder.comparator;
+        this.codec = builder.codec;
+        this.runSize = builder.runSize;
+        this.maxTempBytes = builder.maxTempBytes;
+        this.maxFanIn = builder.maxFanIn;
+        this.tempDirectory = builder.tempDirectory;
+    }
+
+    public static <T> Builder<T> builder(Comparator<? super T> comparator, Codec<T> codec) {
+        return new Builder<>(comparator, codec);
+    }
+
+    public static final class Builder<T> {
+        private final Comparator<? super T> comparator;
+        private final Codec<T> codec;
+        private int runSize = 100_000;
+        private long maxTempBytes = Long.MAX_VALUE;
+        private int maxFanIn = 64;
+        private Path tempDirectory = Paths.get(System.getProperty("java.io.tmpdir"));
+
+        private Builder(Comparator<? super T> comparator, Codec<T> codec) {
+            this.comparator = Objects.requireNonNull(comparator, "comparator");
+            this.codec = Objects.requireNonNull(codec, "codec");
+        }
+
+        /** Records held in memory at once - the memory limit */
+        public Builder<T> runSize(int records) {
+            if (records < 1) {
+                throw new IllegalArgumentException("runSize must be at least 1: " + records);
+            }
+            this.runSize = records;
+            return this;
+        }
+
+        /** Upper bound on temp file bytes alive at the same time */
+        public Builder<T> maxTempBytes(long bytes) {
+            if (bytes < 1) {
+                throw new IllegalArgumentException("maxTempBytes must be positive: " + bytes);
+            }
+            this.maxTempBytes = bytes;
+            return this;
+        }
+
+        /** Runs merged at once; more runs are merged in several passes */
+        public Builder<T> maxFanIn(int runs) {
+            if (runs < 2) {
+                throw new IllegalArgumentException("maxFanIn must be at least 2: " + runs);
+            }
+            this.maxFanIn = runs;
+            return this;
+        }
+
+        public Builder<T> tempDirectory(Path directory) {
+            this.tempDirectory = Objects.requireNonNull(directory, "directory");
+            return this;
+        }
+
+        public ExternalSort<T> build() {
+            return new ExternalSort<>(this);
+        }
+    }
+
+    // ========================================
+    // Sorting
+    // ========================================
+
+    /** Consumes the input now (writing runs); returns a lazy stream that merges them */
+    public Stream<T> sort(Stream<? extends T> input) {
+        try (Stream<? extends T> source = input) {
+            return sort(source.iterator());
+        }
+    }
+
+    public Stream<T> sort(Iterator<? extends T> input) {
+        Spill spill = new Spill();
+        List<T> buffer = new ArrayList<>(Math.min(runSize, 1 << 16));
+        try {
+            while (input.hasNext()) {
+                buffer.add(input.next());
+                if (buffer.size() == runSize) {
+                    buffer.sort(comparator);   // List.sort is a stable merge sort
+                    spill.runs.add(spill.write(buffer.iterator()));
+                    buffer.clear();
+                }
+            }
+            buffer.sort(comparator);
+            if (spill.runs.isEmpty()) {
+                return buffer.stream();   // fitted in memory: no disk at all
+            }
+            if (!buffer.isEmpty()) {
+                spill.runs.add(spill.write(buffer.iterator()));
+                buffer.clear();
+            }
+            while (spill.runs.size() > maxFanIn) {
+                spill.mergePass();
+            }
+            MergeIterator merged = spill.open(spill.runs);
+            Runnable cleanup = () -> {
+                merged.close();
+                spill.deleteAll();
+            };
+            Iterator<T> cleaning = new Iterator<T>() {
+                @Override
+                public boolean hasNext() {
+                    if (merged.hasNext()) {
+                        return true;
+                    }
+                    cleanup.run();   // exhausted: do not wait for close()
+                    return false;
+                }
+
+                @Override
+                public T next() {
+                    return merged.next();
+                }
+            };
+            Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(cleaning, Spliterator.ORDERED | Spliterator.NONNULL);
+            return StreamSupport.stream(spliterator, false).onClose(cleanup);
+        } catch (IOException e) {
+            spill.deleteAll();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException | Error e) {
+            spill.deleteAll();
+            throw e;
+        }
+    }
+
+    // ========================================
+    // Runs on disk
+    // ========================================
+
+    /** Sorted run file; runs are numbered in input order, which keeps the merge stable */
+    private static final class Run {
+        final Path file;
+        final long records;
+        final long bytes;
+
+        Run(Path file, long records, long bytes) {
+            this.file = file;
+            this.records = records;
+            this.bytes = bytes;
+        }
+    }
+
+    /** Temp files of one sort() call */
+    private final class Spill {
+        final List<Run> runs = new ArrayList<>();
+        final List<Path> allFiles = new ArrayList<>();
+        long liveBytes;
+
+        Run write(Iterator<? extends T> sorted) throws IOException {
+            Path file = Files.createTempFile(tempDirectory, "external-sort-", ".run");
+            allFiles.add(file);
+            long records = 0;
+            // Counted in a long: DataOutputStream.size() stops at Integer.MAX_VALUE
+            CountingOutputStream counter = new CountingOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+            try (DataOutputStream out = new DataOutputStream(counter)) {
+                while (sorted.hasNext()) {
+                    codec.write(out, sorted.next());
+                    records++;
+                    if (liveBytes + counter.count > maxTempBytes) {
+                        throw new IllegalStateException("External sort needs more than maxTempBytes="
+                                                        + maxTempBytes + " of temp space");
+                    }
+                }
+                liveBytes += counter.count;
+                return new Run(file, records, counter.count);
+            }
+        }
+
+        /** Merges groups of maxFanIn runs into one run each */
+        void mergePass() throws IOException {
+            List<Run> next = new ArrayList<>();
+            for (int from = 0; from < runs.size(); from += maxFanIn) {
+                List<Run> group = runs.subList(from, Math.min(runs.size(), from + maxFanIn));
+                if (group.size() == 1) {
+                    next.add(group.get(0));
+                    continue;
+                }
+                try (MergeIterator merged = open(group)) {
+                    next.add(write(merged));
+                }
+                for (Run run : group) {
+                    Files.deleteIfExists(run.file);
+                    liveBytes -= run.bytes;
+                }
+            }
+            runs.clear();
+            runs.addAll(next);
+        }
+
+        MergeIterator open(List<Run> group) throws IOException {
+            return new MergeIterator(group);
+        }
+
+        void deleteAll() {
+            for (Path file : allFiles) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ignored) {
+                    // best effort: the file is in the temp directory anyway
+                }
+            }
+            liveBytes = 0;
+        }
+    }
+
+    /** Byte count of everything written through it, past 2 GiB */
+    static final class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);   // FilterOutputStream would write byte by byte
+            count += len;
+        }
+    }
+
+    /** KWayMerge over one reader per run; ties go to the lower run number (earlier input) */
+    private final class MergeIterator implements Iterator<T>, Closeable {
+        private final DataInputStream[] inputs;
+        private final Iterator<T> merged;
+
+        MergeIterator(List<Run> group) throws IOException {
+            inputs = new DataInputStream[group.size()];
+            List<Iterator<T>> readers = new ArrayList<>(group.size());
+            try {
+                for (int i = 0; i < inputs.length; i++) {
+                    Run run = group.get(i);
+                    inputs[i] = new DataInputStream(new BufferedInputStream(Files.newInputStream(run.file), 1 << 16));
+                    readers.add(new RunReader(inputs[i], run.records));
+                }
+                merged = KWayMerge.iterator(readers, comparator);
+            } catch (IOException | UncheckedIOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return merged.hasNext();
+        }
+
+        @Override
+        public T next() {
+            return merged.next();
+        }
+
+        @Override
+        public void close() {
+            for (DataInputStream in : inputs) {
+                if (in != null) {
+                    try {
+                        in.close();
+                    } catch (IOException ignored) {
+                        // reading is finished; nothing to recover
+                    }
+                }
+            }
+        }
+    }
+
+    /** Decodes the records of one run file in order */
+    private final class RunReader implements Iterator<T> {
+        private final DataInput in;
+        private long remaining;
+
+        RunReader(DataInput in, long records) {
+            this.in = in;
+            this.remaining = records;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public T next() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+            try {
+                return codec.read(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // ========================================
+    // Demo
+    // ========================================
+
+    /** name (UTF), age (int), salary (double) - about 17 bytes per employee */
+    static final Codec<MapPracticeExercises.Employee> EMPLOYEE_CODEC = new Codec<MapPracticeExercises.Employee>() {
+        @Override
+        public void write(DataOutput out, MapPracticeExercises.Employee e) throws IOException {
+            out.writeUTF(e.name);
+            out.writeInt(e.age);
+            out.writeDouble(e.salary);
+        }
+
+        @Override
+        public MapPracticeExercises.Employee read(DataInput in) throws IOException {
+            return new MapPracticeExercises.Employee(in.readUTF(), in.readInt(), in.readDouble());
+        }
+    };
+
+    public static void main(String[] args) {
+        Comparator<MapPracticeExercises.Employee> bySalaryDesc =
+                Comparator.comparingDouble((MapPracticeExercises.Employee e) -> e.salary).reversed();
+
+        System.out.println("=== Example 1: exercise5_1's sort with 2 records in memory ===\n");
+        List<MapPracticeExercises.Employee> employees = Arrays.asList(
+            new MapPracticeExercises.Employee("Raj", 30, 57500),
+            new MapPracticeExercises.Employee("Aman", 25, 40000),
+            new MapPracticeExercises.Employee("Priya", 28, 51750),
+            new MapPracticeExercises.Employee("Kumar", 22, 35000)
+        );
+        ExternalSort<MapPracticeExercises.Employee> tiny = ExternalSort.builder(bySalaryDesc, EMPLOYEE_CODEC)
+                                                                      .runSize(2)
+                                                                      .build();
+        try (Stream<MapPracticeExercises.Employee> sorted = tiny.sort(employees.stream())) {
+            System.out.println("Sorted: " + sorted.map(e -> e.name.toUpperCase() + ": Rs. " + e.salary)
+                                                  .collect(Collectors.toList()));
+        }
+
+        System.out.println("\n=== Example 2: Temp-disk limit ===\n");
+        try {
+            ExternalSort.builder(bySalaryDesc, EMPLOYEE_CODEC).runSize(1).maxTempBytes(40).build()
+                        .sort(employees.stream())
+                        .close();
+        } catch (IllegalStateException e) {
+            System.out.println("Caught: " + e.getMessage());
+        }
+
+        // Runs past 2 GiB are still counted in full (DataOutputStream.size() would stop at 2^31 - 1)
+        CountingOutputStream counter = new CountingOutputStream(OutputStream.nullOutputStream());
+        try (DataOutputStream out = new DataOutputStream(counter)) {
+            byte[] block = new byte[1 << 20];
+            for (int i = 0; i < 3 << 10; i++) {
+                out.write(block);
+            }
+            if (counter.count != 3L << 30 || out.size() != Integer.MAX_VALUE) {
+                throw new AssertionError("temp bytes miscounted: " + counter.count);
+            }
+            System.out.println("3 GiB run counted as " + counter.count + " bytes (DataOutputStream.size(): "
+                               + out.size() + ")");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        System.out.println("\n=== Example 3: 1M employees, 100k in memory ===\n");
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        performanceComparison(size, bySalaryDesc);
+    }
+
+    static void performanceComparison(int size, Comparator<MapPracticeExercises.Employee> bySalaryDesc) {
+        Random random = new Random(31);
+        List<MapPracticeExercises.Employee> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            employees.add(new MapPracticeExercises.Employee("E" + i, 22 + random.nextInt(40), 100.0 * random.nextInt(5000)));
+        }
+
+        long start = System.nanoTime();
+        List<MapPracticeExercises.Employee> expected = employees.stream().sorted(bySalaryDesc).collect(Collectors.toList());
+        long inMemoryNanos = System.nanoTime() - start;
+
+        for (int fanIn : new int[] {64, 4}) {
+            ExternalSort<MapPracticeExercises.Employee> sorter = ExternalSort.builder(bySalaryDesc, EMPLOYEE_CODEC)
+                                                                            .runSize(Math.max(1, size / 10))
+                                                                            .maxFanIn(fanIn)
+                                                                            .build();
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < 3; round++) {
+                start = System.nanoTime();
+                int i = 0;
+                try (Stream<MapPracticeExercises.Employee> sorted = sorter.sort(employees.stream())) {
+                    for (Iterator<MapPracticeExercises.Employee> it = sorted.iterator(); it.hasNext(); i++) {
+                        if (!it.next().name.equals(expected.get(i).name)) {   // names are unique
+                            throw new AssertionError("external order differs at " + i);
+                        }
+                    }
+                }
+                if (i != size) {
+                    throw new AssertionError("external sort returned " + i + " of " + size + " records");
+                }
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            System.out.printf("External sort, 10 runs, fan-in %2d: %6.0f ms%n", fanIn, best / 1e6);
+        }
+        System.out.printf("In-memory sorted():                %6.0f ms%n", inMemoryNanos / 1e6);
+        System.out.println("\nSame order as sorted(), ties included; temp files removed after the stream closed");
+    }
+}
@@ -0,0 +1,632 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * ✅ FLOW OPERATORS - The map() workflow for data that keeps arriving
+ *
+ * CompleteMapWorkflow runs filter → map → map over a finished List. When a
+ * producer pushes records continuously, a Stream does not fit: there is no
+ * end to wait for, and nothing stops a fast producer from burying a slow
+ * consumer. java.util.concurrent.Flow (Java 9) adds the missing piece -
+ * the consumer says how much it can take with request(n):
+ *
+ *   producer ──► filter ──► map ──► batch(100) ──► consumer
+ *            ◄── request(n) ◄──── request(n) ◄──── request(1)
+ *
+ * Every processor here holds at most `capacity` items (buffered + requested
+ * but not yet arrived), and only asks upstream for what fits. Demand flows
+ * from the consumer back to the producer; when the consumer stalls, the
+ * buffers fill and the producer (e.g. SubmissionPublisher.submit) blocks.
+ *
+ *   SubmissionPublisher<String> source = new SubmissionPublisher<>();
+ *   Flow.Processor<String, String>  longWords = FlowOperators.filter(w -> w.length() > 3, 64);
+ *   Flow.Processor<String, Integer> lengths   = FlowOperators.map(String::length, 64);
+ *   source.subscribe(longWords);
+ *   longWords.subscribe(lengths);
+ *   lengths.subscribe(consumer);
+ *
+ * Capacity counts output items. batch counts INPUT items instead - the open
+ * batch plus every complete batch still waiting - so batch(100, 256) holds
+ * at most 256 orders, not 256 batches; it needs capacity ≥ batch size and is
+ * given at least that. flatMap may exceed its bound by the children of ONE
+ * input.
+ */
+public final class FlowOperators {
+
+    private FlowOperators() {
+    }
+
+    public static <T, R> BoundedProcessor<T, R> map(Function<? super T, ? extends R> mapper, int capacity) {
+        Objects.requireNonNull(mapper, "mapper");
+        return new BoundedProcessor<T, R>(capacity) {
+            @Override
+            void transform(T item, Consumer<R> out) {
+                out.accept(mapper.apply(item));
+            }
+        };
+    }
+
+    public static <T> BoundedProcessor<T, T> filter(Predicate<? super T> predicate, int capacity) {
+        Objects.requireNonNull(predicate, "predicate");
+        return new BoundedProcessor<T, T>(capacity) {
+            @Override
+            void transform(T item, Consumer<T> out) {
+                if (predicate.test(item)) {
+                    out.accept(item);
+                }
+            }
+        };
+    }
+
+    public static <T, R> BoundedProcessor<T, R> flatMap(Function<? super T, ? extends Iterable<? extends R>> mapper,
+                                                        int capacity) {
+        Objects.requireNonNull(mapper, "mapper");
+        return new BoundedProcessor<T, R>(capacity) {
+            @Override
+            void transform(T item, Consumer<R> out) {
+                for (R child : mapper.apply(item)) {
+                    out.accept(child);
+                }
+            }
+        };
+    }
+
+    /** Groups items into lists of batchSize; the last list may be shorter */
+    public static <T> BoundedProcessor<T, List<T>> batch(int batchSize, int capacity) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1: " + batchSize);
+        }
+        return new BoundedProcessor<T, List<T>>(Math.max(capacity, batchSize)) {
+            private List<T> current = new ArrayList<>(batchSize);   // only touched from onNext/onComplete
+
+            @Override
+            void transform(T item, Consumer<List<T>> out) {
+                current.add(item);
+                hold(1);   // the open batch counts against capacity too
+                if (current.size() == batchSize) {
+                    hold(-batchSize);   // now counted by weight() while queued
+                    out.accept(current);
+                    current = new ArrayList<>(batchSize);
+                }
+            }
+
+            @Override
+            void flush(Consumer<List<T>> out) {
+                if (!current.isEmpty()) {
+                    hold(-current.size());
+                    out.accept(current);
+                    current = new ArrayList<>(0);
+                }
+            }
+
+            @Override
+            int weight(List<T> item) {
+                return item.size();
+            }
+        };
+    }
+
+    // ========================================
+    // Bounded processor
+    // ========================================
+
+    /**
+     * Upstream calls onNext on its own thread; downstream calls request() on
+     * its own. Both end in drain(), which a work-in-progress counter keeps
+     * single-threaded: whoever gets in first delivers, the others only leave
+     * a note ("missed") that makes it loop once more.
+     */
+    public abstract static class BoundedProcessor<T, R> implements Flow.Processor<T, R>, Flow.Subscription {
+        private final int capacity;
+        private final int replenishAt;   // request more once this many slots are free
+
+        private final Queue<R> buffer = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger buffered = new AtomicInteger();
+        private final AtomicLong outstanding = new AtomicLong();   // requested upstream, not yet arrived
+        private final AtomicLong demand = new AtomicLong();        // requested by downstream, not yet sent
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicInteger peakBuffered = new AtomicInteger();
+        private final LongAdder emitted = new LongAdder();
+        private final Consumer<R> sink = this::enqueue;
+
+        private volatile Flow.Subscription upstream;
+        private volatile Flow.Subscriber<? super R> downstream;
+        private volatile boolean done;
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+        private volatile Throwable requestError;   // rule 3.9: sent ahead of anything still buffered
+        private boolean terminated;   // only read/written inside drain()
+
+        BoundedProcessor(int capacity) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("capacity must be at least 1: " + capacity);
+            }
+            this.capacity = capacity;
+            this.replenishAt = Math.max(1, capacity / 2);
+        }
+
+        /** Pushes 0..n outputs for one input */
+        abstract void transform(T item, Consumer<R> out);
+
+        /** Called once before completion - for operators holding partial state */
+        void flush(Consumer<R> out) {
+        }
+
+        /** How much of the capacity one queued output uses */
+        int weight(R item) {
+            return 1;
+        }
+
+        /** Counts items an operator holds outside the queue (e.g. a partial batch) */
+        final void hold(int items) {
+            int now = buffered.addAndGet(items);
+            if (now > peakBuffered.get()) {
+                peakBuffered.accumulateAndGet(now, Math::max);
+            }
+        }
+
+        /** Highest number of items this stage ever held at once (input items for batch) */
+        public int peakBuffered() {
+            return peakBuffered.get();
+        }
+
+        public long emitted() {
+            return emitted.sum();
+        }
+
+        private void enqueue(R item) {
+            buffer.offer(item);
+            hold(weight(item));
+        }
+
+        // ---- Subscriber side (from upstream) ----
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (upstream != null) {
+                subscription.cancel();   // rule 2.5: one upstream only
+                return;
+            }
+            upstream = subscription;
+            if (cancelled || requestError != null) {
+                subscription.cancel();   // downstream gave up before upstream arrived
+                return;
+            }
+            drain();
+        }
+
+        @Override
+        public void onNext(T item) {
+            outstanding.decrementAndGet();
+            if (cancelled || requestError != null) {
+                return;
+            }
+            try {
+                transform(item, sink);
+            } catch (Throwable t) {
+                upstream.cancel();
+                onError(t);
+                return;
+            }
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = Objects.requireNonNull(throwable, "throwable");
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                flush(sink);
+            } catch (Throwable t) {
+                error = t;
+            }
+            done = true;
+            drain();
+        }
+
+        // ---- Publisher side (to downstream) ----
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super R> subscriber) {
+            Objects.requireNonNull(subscriber, "subscriber");
+            if (downstream != null) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override public void request(long n) { }
+                    @Override public void cancel() { }
+                });
+                subscriber.onError(new IllegalStateException("This processor supports one subscriber"));
+                return;
+            }
+            downstream = subscriber;
+            subscriber.onSubscribe(this);
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // Rule 3.9: fail downstream - not a cancel, which would let the error go undelivered
+                if (requestError == null) {
+                    requestError = new IllegalArgumentException("request(n) needs n > 0, got " + n);
+                }
+                Flow.Subscription s = upstream;
+                if (s != null) {
+                    s.cancel();   // a late upstream is cancelled in onSubscribe
+                }
+            } else {
+                demand.accumulateAndGet(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            Flow.Subscription s = upstream;
+            if (s != null) {
+                s.cancel();
+            }
+            drain();   // nothing else may arrive to release the buffer
+        }
+
+        // ---- Delivery loop ----
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                Flow.Subscriber<? super R> subscriber = downstream;
+                if (cancelled) {
+                    buffer.clear();
+                    buffered.set(0);
+                } else if (subscriber != null && !terminated && requestError != null) {
+                    terminated = true;
+                    buffer.clear();
+                    buffered.set(0);
+                    subscriber.onError(requestError);
+                } else if (subscriber != null && !terminated) {
+                    long requested = demand.get();
+                    long sent = 0;
+                    while (sent != requested) {
+                        R item = buffer.poll();
+                        if (item == null) {
+                            break;
+                        }
+                        buffered.addAndGet(-weight(item));
+                        subscriber.onNext(item);
+                        sent++;
+                    }
+                    if (sent != 0) {
+                        emitted.add(sent);
+                        if (requested != Long.MAX_VALUE) {
+                            demand.addAndGet(-sent);
+                        }
+                    }
+                    if (done && buffer.isEmpty()) {
+                        terminated = true;
+                        Throwable failure = error;
+                        if (failure != null) {
+                            subscriber.onError(failure);
+                        } else {
+                            subscriber.onComplete();
+                        }
+                    }
+                }
+                requestUpstream();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /** Asks for as many inputs as there are free slots, in chunks of at least replenishAt */
+        private void requestUpstream() {
+            Flow.Subscription s = upstream;
+            if (s == null || done || cancelled || requestError != null) {
+                return;
+            }
+            long free = capacity - buffered.get() - outstanding.get();
+            if (free >= replenishAt || (free > 0 && outstanding.get() == 0)) {
+                outstanding.addAndGet(free);
+                s.request(free);
+            }
+        }
+    }
+
+    // ========================================
+    // Demo
+    // ========================================
+
+    /** Requests `prefetch` items at a time and spends `workNanos` on each */
+    static final class SlowConsumer<T> implements Flow.Subscriber<T> {
+        private final int prefetch;
+        private final long workNanos;
+        private final Consumer<? super T> action;
+        private final CompletableFuture<Long> finished = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+        private long received;
+        private int untilNextRequest;
+
+        SlowConsumer(int prefetch, long workNanos, Consumer<? super T> action) {
+            this.prefetch = prefetch;
+            this.workNanos = workNanos;
+            this.action = action;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            untilNextRequest = prefetch;
+            subscription.request(prefetch);
+        }
+
+        @Override
+        public void onNext(T item) {
+            action.accept(item);
+            received++;
+            if (workNanos > 0) {
+                LockSupport.parkNanos(workNanos);
+            }
+            if (--untilNextRequest == 0) {
+                untilNextRequest = prefetch;
+                subscription.request(prefetch);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            finished.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            finished.complete(received);
+        }
+
+        long await() {
+            return finished.join();
+        }
+    }
+
+    public static void main(String[] args) {
+        System.out.println("=== Example 1: demonstrateChaining as a Flow ===\n");
+        List<String> words = Arrays.asList("java", "stream", "api", "map", "filter");
+        List<Integer> lengths = new CopyOnWriteArrayList<>();
+        SlowConsumer<Integer> consumer = new SlowConsumer<>(2, 0, lengths::add);
+        try (SubmissionPublisher<String> source = new SubmissionPublisher<>()) {
+            BoundedProcessor<String, String> longWords = filter(w -> w.length() > 3, 4);
+            BoundedProcessor<String, String> upper = map(String::toUpperCase, 4);
+            BoundedProcessor<String, Integer> length = map(String::length, 4);
+
+            source.subscribe(longWords);
+            longWords.subscribe(upper);
+            upper.subscribe(length);
+            length.subscribe(consumer);
+            words.forEach(source::submit);
+        }   // close() sends onComplete down the chain
+        consumer.await();
+        System.out.println("Input:  " + words);
+        System.out.println("Result: " + lengths);
+
+        System.out.println("\n=== Example 2: flatMap + batch ===\n");
+        List<String> sentences = Arrays.asList("Java is powerful", "Stream API rocks", "Flow adds backpressure");
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        SlowConsumer<List<String>> batchConsumer = new SlowConsumer<>(1, 0, batches::add);
+        try (SubmissionPublisher<String> source = new SubmissionPublisher<>()) {
+            BoundedProcessor<String, String> split = flatMap(s -> Arrays.asList(s.split(" ")), 8);
+            BoundedProcessor<String, List<String>> batch = batch(4, 8);
+
+            source.subscribe(split);
+            split.subscribe(batch);
+            batch.subscribe(batchConsumer);
+            sentences.forEach(source::submit);
+        }
+        batchConsumer.await();
+        batches.forEach(b -> System.out.println("Batch: " + b));
+
+        System.out.println("\n=== Example 3: Protocol edge cases ===\n");
+        protocolChecks();
+
+        System.out.println("\n=== Example 4: Fast producer, slow consumer ===\n");
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        fastProducerSlowConsumer(size);
+    }
+
+    /** Upstream stand-in that only records what the processor asked of it */
+    static final class RecordingSubscription implements Flow.Subscription {
+        final AtomicLong requested = new AtomicLong();
+        volatile boolean cancelled;
+
+        @Override
+        public void request(long n) {
+            requested.addAndGet(n);
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    static void protocolChecks() {
+        // request(0) with items already buffered: onError first, upstream cancelled
+        BoundedProcessor<String, String> buffering = map(String::toUpperCase, 4);
+        RecordingSubscription upstream = new RecordingSubscription();
+        buffering.onSubscribe(upstream);
+        buffering.onNext("a");
+        buffering.onNext("b");
+        List<Object> signals = new CopyOnWriteArrayList<>();
+        buffering.subscribe(new Flow.Subscriber<String>() {
+            @Override public void onSubscribe(Flow.Subscription subscription) { subscription.request(0); }
+            @Override public void onNext(String item) { signals.add(item); }
+            @Override public void onError(Throwable throwable) { signals.add(throwable.getClass().getSimpleName()); }
+            @Override public void onComplete() { signals.add("complete"); }
+        });
+        if (!signals.equals(Collections.singletonList("IllegalArgumentException")) || !upstream.cancelled) {
+            throw new AssertionError("request(0) must fail downstream ahead of buffered items: " + signals);
+        }
+        System.out.println("request(0) with 2 items buffered -> " + signals + ", upstream cancelled");
+
+        // cancel() before the upstream arrives: the late upstream is cancelled, never requested
+        BoundedProcessor<String, String> early = map(String::toUpperCase, 4);
+        early.subscribe(new Flow.Subscriber<String>() {
+            @Override public void onSubscribe(Flow.Subscription subscription) { subscription.cancel(); }
+            @Override public void onNext(String item) { }
+            @Override public void onError(Throwable throwable) { }
+            @Override public void onComplete() { }
+        });
+        RecordingSubscription late = new RecordingSubscription();
+        early.onSubscribe(late);
+        if (!late.cancelled || late.requested.get() != 0) {
+            throw new AssertionError("an early cancel() must reach an upstream that subscribes later");
+        }
+        System.out.println("cancel() before onSubscribe     -> late upstream cancelled, nothing requested");
+
+        // A stalled consumer: batch(4, 10) holds 10 input items, not 10 batches
+        BoundedProcessor<Integer, List<Integer>> stalled = batch(4, 10);
+        RecordingSubscription source = new RecordingSubscription();
+        Flow.Subscription[] handle = new Flow.Subscription[1];
+        stalled.subscribe(new Flow.Subscriber<List<Integer>>() {
+            @Override public void onSubscribe(Flow.Subscription subscription) { handle[0] = subscription; }
+            @Override public void onNext(List<Integer> item) { }
+            @Override public void onError(Throwable throwable) { }
+            @Override public void onComplete() { }
+        });
+        stalled.onSubscribe(source);
+        for (int i = 0; i < source.requested.get(); i++) {
+            stalled.onNext(i);
+        }
+        if (source.requested.get() != 10 || stalled.peakBuffered() != 10) {
+            throw new AssertionError("batch must bound input items: requested " + source.requested.get()
+                                     + ", peak " + stalled.peakBuffered());
+        }
+        // cancel() with batches queued: upstream cancelled and the buffer released at once
+        handle[0].cancel();
+        if (!source.cancelled || !stalled.buffer.isEmpty() || stalled.buffered.get() != 0) {
+            throw new AssertionError("cancel() must release what the stage still holds");
+        }
+        System.out.println("batch(4, 10), consumer stalled  -> 10 items requested and held; cancel() empties it");
+    }
+
+    static String order(int i) {
+        return "order-" + i + (i % 7 == 0 ? ",late" : ",on time") + ",payload-" + "x".repeat(64);
+    }
+
+    static void fastProducerSlowConsumer(int size) {
+        int batchSize = 100;
+        long perBatchNanos = 200_000;   // consumer: 0.2 ms per batch of 100
+
+        // ❌ No backpressure: producer appends to an unbounded queue
+        ConcurrentLinkedQueue<String> queue = new ConcurrentLinkedQueue<>();
+        AtomicInteger queued = new AtomicInteger();
+        AtomicInteger peakQueued = new AtomicInteger();
+        AtomicBoolean produced = new AtomicBoolean();
+        HeapSampler heap = new HeapSampler();
+        long start = System.nanoTime();
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < size; i++) {
+                String o = order(i);
+                if (!o.contains(",late")) {
+                    queue.offer(o.toUpperCase());
+                    peakQueued.accumulateAndGet(queued.incrementAndGet(), Math::max);
+                }
+            }
+            produced.set(true);
+        });
+        producer.start();
+        long consumedUnbounded = 0;
+        List<String> batchBuffer = new ArrayList<>(batchSize);
+        while (!produced.get() || !queue.isEmpty()) {
+            String o = queue.poll();
+            if (o == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            queued.decrementAndGet();
+            batchBuffer.add(o);
+            if (batchBuffer.size() == batchSize) {
+                consumedUnbounded += batchBuffer.size();
+                batchBuffer.clear();
+                LockSupport.parkNanos(perBatchNanos);
+            }
+        }
+        consumedUnbounded += batchBuffer.size();
+        long unboundedNanos = System.nanoTime() - start;
+        long unboundedHeap = heap.stop();
+
+        // ✅ Flow: filter → map → batch, bounded buffers, demand from the consumer
+        heap = new HeapSampler();
+        BoundedProcessor<String, String> onTime = filter(o -> !o.contains(",late"), 256);
+        BoundedProcessor<String, String> upper = map(String::toUpperCase, 256);
+        BoundedProcessor<String, List<String>> batches = batch(batchSize, 256);
+        long[] consumedFlow = {0};
+        SlowConsumer<List<String>> consumer = new SlowConsumer<>(1, perBatchNanos, b -> consumedFlow[0] += b.size());
+        long blockedNanos = 0;
+        start = System.nanoTime();
+        try (SubmissionPublisher<String> source = new SubmissionPublisher<>(ForkJoinPool.commonPool(), 256)) {
+            source.subscribe(onTime);
+            onTime.subscribe(upper);
+            upper.subscribe(batches);
+            batches.subscribe(consumer);
+            for (int i = 0; i < size; i++) {
+                long before = System.nanoTime();
+                source.submit(order(i));   // blocks while the pipeline is full
+                blockedNanos += System.nanoTime() - before;
+            }
+        }
+        consumer.await();
+        long flowNanos = System.nanoTime() - start;
+        long flowHeap = heap.stop();
+
+        if (consumedUnbounded != consumedFlow[0]) {
+            throw new AssertionError("consumers saw different counts: " + consumedUnbounded + " vs " + consumedFlow[0]);
+        }
+        System.out.println(size + " orders; consumer needs 0.2 ms per batch of " + batchSize + "\n");
+        System.out.printf("Unbounded queue: %6.0f ms, %8.0f orders/s, peak queued %7d, peak heap %4d MB%n",
+                          unboundedNanos / 1e6, consumedUnbounded / (unboundedNanos / 1e9),
+                          peakQueued.get(), unboundedHeap >> 20);
+        System.out.printf("Flow pipeline:   %6.0f ms, %8.0f orders/s, peak queued ≤%6d, peak heap %4d MB%n",
+                          flowNanos / 1e6, consumedFlow[0] / (flowNanos / 1e9),
+                          256 + onTime.peakBuffered() + upper.peakBuffered() + batches.peakBuffered(),
+                          flowHeap >> 20);
+        System.out.printf("%nProducer spent %.0f ms blocked in submit() - that is the backpressure%n", blockedNanos / 1e6);
+        System.out.println("Peak per stage: filter " + onTime.peakBuffered() + ", map " + upper.peakBuffered()
+                           + ", batch " + batches.peakBuffered() + " orders, publisher buffer ≤ 256");
+        if (batches.peakBuffered() > 256) {
+            throw new AssertionError("batch stage held " + batches.peakBuffered() + " orders, capacity 256");
+        }
+    }
+
+    /** Samples used heap every few ms on a daemon thread; stop() returns the peak */
+    static final class HeapSampler {
+        private final AtomicLong peak = new AtomicLong();
+        private final Thread thread;
+
+        HeapSampler() {
+            System.gc();
+            Runtime rt = Runtime.getRuntime();
+            thread = new Thread(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    peak.accumulateAndGet(rt.totalMemory() - rt.freeMemory(), Math::max);
+                    LockSupport.parkNanos(2_000_000);
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        long stop() {
+            thread.interrupt();
+            return peak.get();
+        }
+    }
+}
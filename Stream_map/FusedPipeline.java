@@ -0,0 +1,339 @@
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * ✅ FUSED PIPELINE - Consecutive map / filter stages run as ONE stage
+ *
+ * demonstrateChaining writes .map(String::toUpperCase).map(String::length).
+ * Every Stream stage is its own Sink: ten small maps = ten Sink hops per element.
+ *
+ * FusedPipeline records the stages first, then compiles them before running:
+ * - the whole chain becomes one loop over a small stage array - stage
+ *   batching, not code fusion: each map / filter lambda is still one
+ *   interface call per element; what goes away is the Sink hop (and
+ *   begin / end / cancellationRequested plumbing) between stages
+ * - the stream sees a single Spliterator, so it is still lazy and still
+ *   short-circuits: findFirst() / limit() / anyMatch() stop pulling early
+ * - short chains (< FUSION_THRESHOLD stages) are left as normal stream stages:
+ *   measured, the fused loop only pays off once chains get long
+ *
+ *   Stream<Integer> lengths = FusedPipeline.<String>start()
+ *                                          .filter(w -> w.length() > 3)
+ *                                          .map(String::toUpperCase)
+ *                                          .map(String::length)
+ *                                          .apply(words.stream());
+ *
+ * A compiled pipeline is immutable and reusable - build once, apply many times.
+ */
+public final class FusedPipeline<T, R> {
+
+    // Below this many stages, apply() builds ordinary stream stages instead
+    static final int FUSION_THRESHOLD = 8;
+
+    // Marker for "this element was filtered out"
+    private static final Object REJECTED = new Object();
+
+    private final List<Stage> stages;   // in order
+
+    /** One map or filter, tagged when added - never inferred from the lambda's type */
+    private static final class Stage {
+        final Function<Object, Object> mapper;     // null for a filter
+        final Predicate<Object> predicate;         // null for a map
+
+        @SuppressWarnings("unchecked")
+        Stage(Function<?, ?> mapper, Predicate<?> predicate) {
+            this.mapper = (Function<Object, Object>) mapper;
+            this.predicate = (Predicate<Object>) predicate;
+        }
+
+        boolean isFilter() {
+            return predicate != null;
+        }
+    }
+
+    private FusedPipeline(List<Stage> stages) {
+        this.stages = stages;
+    }
+
+    public static <T> FusedPipeline<T, T> start() {
+        return new FusedPipeline<>(Collections.emptyList());
+    }
+
+    public <V> FusedPipeline<T, V> map(Function<? super R, ? extends V> mapper) {
+        return append(new Stage(Objects.requireNonNull(mapper, "mapper"), null));
+    }
+
+    public FusedPipeline<T, R> filter(Predicate<? super R> predicate) {
+        return append(new Stage(null, Objects.requireNonNull(predicate, "predicate")));
+    }
+
+    private <V> FusedPipeline<T, V> append(Stage stage) {
+        List<Stage> next = new ArrayList<>(stages);
+        next.add(stage);
+        return new FusedPipeline<>(next);
+    }
+
+    /** Number of Stream stages apply() will create: 1 once fused */
+    public int streamStageCount() {
+        return stages.size() < FUSION_THRESHOLD ? stages.size() : 1;
+    }
+
+    // ========================================
+    // Compilation
+    // ========================================
+
+    /**
+     * Stages in execution order. Consecutive maps stay separate entries here;
+     * they are batched into one loop, not nested as andThen() wrappers
+     * (which would add a call level per map).
+     */
+    Stage[] compile() {
+        return stages.toArray(new Stage[0]);
+    }
+
+    /** The batched chain as one function: returns the result, or REJECTED */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<Object, Object> fuse(Stage[] compiled) {
+        if (compiled.length == 0) {
+            return Function.identity();
+        }
+        if (compiled.length == 1 && !compiled[0].isFilter()) {
+            return compiled[0].mapper;
+        }
+        int n = compiled.length;
+        Function<Object, Object>[] maps = new Function[n];
+        Predicate<Object>[] filters = new Predicate[n];
+        for (int i = 0; i < n; i++) {
+            maps[i] = compiled[i].mapper;
+            filters[i] = compiled[i].predicate;
+        }
+        return element -> {
+            Object value = element;
+            for (int i = 0; i < n; i++) {
+                Predicate<Object> filter = filters[i];
+                if (filter != null) {
+                    if (!filter.test(value)) {
+                        return REJECTED;
+                    }
+                } else {
+                    value = maps[i].apply(value);
+                }
+            }
+            return value;
+        };
+    }
+
+    // ========================================
+    // Execution
+    // ========================================
+
+    /**
+     * Runs the pipeline lazily over a source stream, keeping its parallel flag.
+     * Chains shorter than FUSION_THRESHOLD are cheaper as ordinary stream stages
+     * (the JIT inlines a few Sinks well), so only longer chains are fused.
+     */
+    @SuppressWarnings("unchecked")
+    public Stream<R> apply(Stream<? extends T> source) {
+        if (stages.size() < FUSION_THRESHOLD) {
+            Stream<Object> stream = (Stream<Object>) source;
+            for (Stage stage : stages) {
+                stream = stage.isFilter() ? stream.filter(stage.predicate) : stream.map(stage.mapper);
+            }
+            return (Stream<R>) stream;
+        }
+        Function<Object, Object> fn = fuse(compile());
+        boolean hasFilter = stages.stream().anyMatch(Stage::isFilter);
+        Spliterator<R> spliterator = new FusedSpliterator<>(source.spliterator(), fn, hasFilter);
+        return StreamSupport.stream(spliterator, source.isParallel()).onClose(source::close);
+    }
+
+    public Stream<R> apply(Collection<? extends T> source) {
+        return apply(source.stream());
+    }
+
+    /** Pulls from the source until one element survives the fused chain */
+    static final class FusedSpliterator<T, R> implements Spliterator<R> {
+        private final Spliterator<? extends T> source;
+        private final Function<Object, Object> fn;
+        private final boolean hasFilter;
+        private Object current;
+
+        FusedSpliterator(Spliterator<? extends T> source, Function<Object, Object> fn, boolean hasFilter) {
+            this.source = source;
+            this.fn = fn;
+            this.hasFilter = hasFilter;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super R> action) {
+            while (source.tryAdvance(element -> current = fn.apply(element))) {
+                Object value = current;
+                current = null;
+                if (value != REJECTED) {
+                    action.accept((R) value);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super R> action) {
+            // Bulk path: one tight loop, no per-element tryAdvance
+            source.forEachRemaining(element -> {
+                Object value = fn.apply(element);
+                if (value != REJECTED) {
+                    action.accept((R) value);
+                }
+            });
+        }
+
+        @Override
+        public Spliterator<R> trySplit() {
+            Spliterator<? extends T> prefix = source.trySplit();
+            return prefix == null ? null : new FusedSpliterator<>(prefix, fn, hasFilter);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            // Mapping can change distinctness/sorting; filtering changes the size
+            int kept = source.characteristics() & (ORDERED | IMMUTABLE | CONCURRENT);
+            if (!hasFilter) {
+                kept |= source.characteristics() & (SIZED | SUBSIZED);
+            }
+            return kept;
+        }
+    }
+
+    // ========================================
+    // Demo
+    // ========================================
+
+    public static void main(String[] args) {
+        System.out.println("=== Example 1: demonstrateChaining, fused ===\n");
+        List<String> words = Arrays.asList("java", "stream", "api", "map", "filter");
+
+        FusedPipeline<String, Integer> lengths = FusedPipeline.<String>start()
+                                                              .filter(w -> w.length() > 3)
+                                                              .map(String::toUpperCase)
+                                                              .map(String::length);
+        System.out.println("Input:  " + words);
+        System.out.println("Result: " + lengths.apply(words).collect(Collectors.toList()));
+        System.out.println("Stream stages: " + lengths.streamStageCount() + " (below the fusion threshold)");
+
+        FusedPipeline<String, Integer> longChain = FusedPipeline.<String>start()
+                                                                .map(String::trim)
+                                                                .filter(w -> !w.isEmpty())
+                                                                .map(String::toLowerCase)
+                                                                .map(w -> w.replace('a', '4'))
+                                                                .map(w -> w.replace('e', '3'))
+                                                                .filter(w -> w.length() > 3)
+                                                                .map(String::toUpperCase)
+                                                                .map(String::length);
+        System.out.println("Long chain result: " + longChain.apply(words).collect(Collectors.toList())
+                           + ", stream stages: " + longChain.streamStageCount());
+
+        // A stage is what it was added as: a Function that is also a Predicate still maps
+        FusedPipeline<Integer, Integer> doubleOnce = FusedPipeline.<Integer>start().map(new Doubler());
+        FusedPipeline<Integer, Integer> doubleEight = doubleOnce;
+        for (int i = 1; i < FUSION_THRESHOLD; i++) {
+            doubleEight = doubleEight.map(new Doubler());
+        }
+        List<Integer> doubled = doubleOnce.apply(Stream.of(1, 2, 3)).collect(Collectors.toList());
+        List<Integer> fusedDoubled = doubleEight.apply(Stream.of(1, 2, 3)).collect(Collectors.toList());
+        if (!doubled.equals(Arrays.asList(2, 4, 6)) || !fusedDoubled.equals(Arrays.asList(256, 512, 768))) {
+            throw new AssertionError("map() of a Function that is also a Predicate must map: " + doubled + fusedDoubled);
+        }
+        System.out.println("map(Doubler), also a Predicate: " + doubled + ", x8 fused: " + fusedDoubled);
+
+        System.out.println("\n=== Example 2: Still lazy, still short-circuits ===\n");
+        int[] calls = {0};
+        FusedPipeline<Integer, Integer> firstOver = FusedPipeline.<Integer>start()
+                                                                 .map(n -> { calls[0]++; return n * 10; })
+                                                                 .map(n -> n + 1)
+                                                                 .map(n -> n - 1)
+                                                                 .filter(n -> n % 10 == 0)
+                                                                 .map(n -> n * 2)
+                                                                 .map(n -> n / 2)
+                                                                 .filter(n -> n > 20)
+                                                                 .map(n -> n);
+        Optional<Integer> first = firstOver.apply(Stream.iterate(1, n -> n + 1))   // infinite
+                                           .findFirst();
+        if (firstOver.streamStageCount() != 1 || first.get() != 30 || calls[0] != 3) {
+            throw new AssertionError("fused chain must stop pulling at the first match: " + calls[0] + " calls");
+        }
+        System.out.println("First > 20: " + first.get() + " after " + calls[0] + " map calls ("
+                           + firstOver.stages.size() + " stages, fused into " + firstOver.streamStageCount() + ")");
+
+        System.out.println("\n=== Example 3: Chain length 1 → 20 ===\n");
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        chainLengthComparison(size);
+    }
+
+    /** Both a map and a test - only the method it was added with may run */
+    static final class Doubler implements Function<Integer, Integer>, Predicate<Integer> {
+        @Override
+        public Integer apply(Integer n) {
+            return n * 2;
+        }
+
+        @Override
+        public boolean test(Integer n) {
+            return false;
+        }
+    }
+
+    // Distinct lambda classes, as in real pipelines - a benchmark reusing one
+    // lambda would let the JIT inline it everywhere and hide the per-stage cost
+    private static final List<Function<Integer, Integer>> STEPS = Arrays.asList(
+        x -> x + 1,
+        x -> x ^ 0x5A,
+        x -> (x * 3) & 0xFFFF,
+        x -> x - 7,
+        x -> Integer.rotateLeft(x, 1) & 0xFFFF
+    );
+
+    static void chainLengthComparison(int size) {
+        int[] source = new Random(13).ints(size, 0, 1000).toArray();
+        List<Integer> numbers = Arrays.stream(source).boxed().collect(Collectors.toList());
+
+        System.out.println(size + " elements, chains of small Integer maps:\n");
+        System.out.println("maps   Stream.map() chain   FusedPipeline");
+        for (int length : new int[] {1, 2, 5, 10, 15, 20}) {
+            long bestStream = Long.MAX_VALUE, bestFused = Long.MAX_VALUE;
+            long sum1 = 0, sum2 = 0;
+
+            FusedPipeline<Integer, Integer> fused = FusedPipeline.start();
+            for (int k = 0; k < length; k++) {
+                fused = fused.map(STEPS.get(k % STEPS.size()));
+            }
+
+            for (int round = 0; round < 5; round++) {
+                long start = System.nanoTime();
+                Stream<Integer> stream = numbers.stream();
+                for (int k = 0; k < length; k++) {
+                    stream = stream.map(STEPS.get(k % STEPS.size()));
+                }
+                sum1 = stream.mapToLong(Integer::longValue).sum();
+                bestStream = Math.min(bestStream, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                sum2 = fused.apply(numbers).mapToLong(Integer::longValue).sum();
+                bestFused = Math.min(bestFused, System.nanoTime() - start);
+            }
+            if (sum1 != sum2) {
+                throw new AssertionError("fused result differs: " + sum1 + " vs " + sum2);
+            }
+            System.out.printf("%4d   %15.2f ms   %10.2f ms%n", length, bestStream / 1e6, bestFused / 1e6);
+        }
+        System.out.println("\n(nanoTime best-of-5 harness; JMH is not available in this module)");
+    }
+}
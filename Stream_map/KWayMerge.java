@@ -0,0 +1,286 @@
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.*;
+
+/**
+ * ✅ K-WAY MERGE - One sorted stream from k already-sorted sources
+ *
+ * Employees live in per-department shards, each sorted by salary. The global
+ * ranking for exercise5_1 was built by concatenating the shards and calling
+ * sorted() again - O(n log n) work and all n elements buffered.
+ *
+ * The shards are already sorted, so only the HEADS need comparing:
+ *
+ *   Stream<Employee> ranking = KWayMerge.merge(
+ *           Arrays.asList(it.stream(), hr.stream(), sales.stream()), bySalaryDesc);
+ *
+ * A tournament (loser) tree keeps one head per source. Taking the winner
+ * and replaying its source's next element costs exactly ⌈log2 k⌉
+ * comparisons - O(n log k) total - and nothing is buffered beyond k heads.
+ * A binary heap needs about 2 × log2 k comparisons per sift-down.
+ *
+ * Equal elements come out in source order (source 0 first), which is what a
+ * stable sort of the concatenated sources gives.
+ */
+public final class KWayMerge {
+
+    private KWayMerge() {
+    }
+
+    /** Lazily merges sorted streams; closing the result closes them all */
+    public static <T> Stream<T> merge(List<? extends Stream<? extends T>> sources, Comparator<? super T> comparator) {
+        List<Spliterator<? extends T>> spliterators = new ArrayList<>(sources.size());
+        for (Stream<? extends T> source : sources) {
+            spliterators.add(source.spliterator());
+        }
+        return StreamSupport.stream(new LoserTree<T>(spliterators, comparator), false).onClose(() -> {
+            RuntimeException failure = null;
+            for (Stream<? extends T> source : sources) {
+                try {
+                    source.close();
+                } catch (RuntimeException e) {
+                    if (failure == null) failure = e; else failure.addSuppressed(e);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        });
+    }
+
+    /** Same, for spliterators (e.g. from sorted collections) */
+    public static <T> Stream<T> mergeSpliterators(List<? extends Spliterator<? extends T>> sources,
+                                                  Comparator<? super T> comparator) {
+        return StreamSupport.stream(new LoserTree<T>(sources, comparator), false);
+    }
+
+    /** Same, as a plain Iterator - used by ExternalSort to merge its runs */
+    public static <T> Iterator<T> iterator(List<? extends Iterator<? extends T>> sources,
+                                           Comparator<? super T> comparator) {
+        List<Spliterator<? extends T>> spliterators = new ArrayList<>(sources.size());
+        for (Iterator<? extends T> source : sources) {
+            spliterators.add(Spliterators.spliteratorUnknownSize(source, Spliterator.ORDERED));
+        }
+        return Spliterators.iterator(new LoserTree<T>(spliterators, comparator));
+    }
+
+    // ========================================
+    // Tournament tree
+    // ========================================
+
+    /**
+     * Implicit tree over k leaves: internal nodes 1..k-1, leaf of source s at
+     * k + s. Each internal node stores the LOSER of the match played there;
+     * tree[0] holds the overall winner.
+     */
+    static final class LoserTree<T> implements Spliterator<T> {
+        private final Spliterator<? extends T>[] sources;
+        private final Comparator<? super T> comparator;
+        private final Object[] heads;
+        private final boolean[] exhausted;
+        private final int[] tree;
+        private final int k;
+        private Object loaded;   // set by the tryAdvance callback in load()
+
+        @SuppressWarnings({"unchecked", "rawtypes"})   // generic array from a raw Spliterator[]
+        LoserTree(List<? extends Spliterator<? extends T>> sources, Comparator<? super T> comparator) {
+            this.sources = sources.toArray(new Spliterator[0]);
+            this.comparator = Objects.requireNonNull(comparator, "comparator");
+            this.k = this.sources.length;
+            this.heads = new Object[k];
+            this.exhausted = new boolean[k];
+            this.tree = new int[Math.max(1, k)];
+            for (int s = 0; s < k; s++) {
+                load(s);
+            }
+            if (k > 0) {
+                tree[0] = build(1);
+            }
+        }
+
+        /** Plays the matches below `node` bottom-up; returns the winner, stores losers */
+        private int build(int node) {
+            if (node >= k) {
+                return node - k;   // a leaf
+            }
+            int left = build(2 * node);
+            int right = build(2 * node + 1);
+            if (beats(left, right)) {
+                tree[node] = right;
+                return left;
+            }
+            tree[node] = left;
+            return right;
+        }
+
+        private void load(int s) {
+            if (sources[s].tryAdvance(value -> loaded = value)) {
+                heads[s] = loaded;
+                loaded = null;
+            } else {
+                heads[s] = null;
+                exhausted[s] = true;
+            }
+        }
+
+        /** True if source a's head comes before source b's; exhausted sources always lose */
+        @SuppressWarnings("unchecked")
+        private boolean beats(int a, int b) {
+            if (exhausted[a]) return false;
+            if (exhausted[b]) return true;
+            int c = comparator.compare((T) heads[a], (T) heads[b]);
+            return c < 0 || (c == 0 && a < b);
+        }
+
+        /** Hands out the current winner and replays its leaf-to-root path */
+        @SuppressWarnings("unchecked")
+        private T pop() {
+            int winner = tree[0];
+            T value = (T) heads[winner];
+            load(winner);
+            for (int node = (winner + k) >>> 1; node > 0; node >>>= 1) {
+                if (beats(tree[node], winner)) {
+                    int loser = winner;
+                    winner = tree[node];
+                    tree[node] = loser;
+                }
+            }
+            tree[0] = winner;
+            return value;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (k == 0 || exhausted[tree[0]]) {
+                return false;
+            }
+            action.accept(pop());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            while (k > 0 && !exhausted[tree[0]]) {
+                action.accept(pop());
+            }
+        }
+
+        /** Merging is inherently sequential */
+        @Override
+        public Spliterator<T> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            long total = 0;
+            for (Spliterator<? extends T> source : sources) {
+                long size = source.estimateSize();
+                if (size == Long.MAX_VALUE) {
+                    return Long.MAX_VALUE;
+                }
+                total += size;
+            }
+            for (boolean done : exhausted) {
+                total += done ? 0 : 1;   // the heads already pulled out of the sources
+            }
+            return total;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED;
+        }
+    }
+
+    // ========================================
+    // Demo
+    // ========================================
+
+    public static void main(String[] args) {
+        Comparator<MapPracticeExercises.Employee> bySalaryDesc =
+                Comparator.comparingDouble((MapPracticeExercises.Employee e) -> e.salary).reversed();
+
+        System.out.println("=== Example 1: Department shards → one ranking ===\n");
+        List<MapPracticeExercises.Employee> it = Arrays.asList(
+            new MapPracticeExercises.Employee("Raj", 30, 57500),
+            new MapPracticeExercises.Employee("Priya", 28, 51750));
+        List<MapPracticeExercises.Employee> hr = Arrays.asList(
+            new MapPracticeExercises.Employee("Aman", 25, 40000));
+        List<MapPracticeExercises.Employee> sales = Arrays.asList(
+            new MapPracticeExercises.Employee("Neha", 27, 52000),
+            new MapPracticeExercises.Employee("Kumar", 22, 35000));
+        System.out.println("IT:     " + it);
+        System.out.println("HR:     " + hr);
+        System.out.println("Sales:  " + sales);
+        try (Stream<MapPracticeExercises.Employee> ranking =
+                     merge(Arrays.asList(it.stream(), hr.stream(), sales.stream()), bySalaryDesc)) {
+            System.out.println("Merged: " + ranking.map(e -> e.name.toUpperCase() + ": Rs. " + e.salary)
+                                                   .collect(Collectors.toList()));
+        }
+
+        System.out.println("\n=== Example 2: Merge vs concatenate + re-sort ===\n");
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        performanceComparison(size, bySalaryDesc);
+    }
+
+    static void performanceComparison(int size, Comparator<MapPracticeExercises.Employee> bySalaryDesc) {
+        System.out.println(size + " employees in k sorted shards - full ranking, and the first 10 only:\n");
+        System.out.println("    k   concat + sorted()   k-way merge   sorted().limit(10)   merge.limit(10)   compares/elem (⌈log2 k⌉)");
+        for (int k : new int[] {2, 8, 64, 512}) {
+            Random random = new Random(37 + k);
+            List<List<MapPracticeExercises.Employee>> shards = new ArrayList<>();
+            for (int s = 0; s < k; s++) {
+                shards.add(new ArrayList<>());
+            }
+            for (int i = 0; i < size; i++) {
+                shards.get(random.nextInt(k)).add(
+                        new MapPracticeExercises.Employee("E" + i, 22 + random.nextInt(40), 100.0 * random.nextInt(5000)));
+            }
+            shards.forEach(shard -> shard.sort(bySalaryDesc));
+
+            long best1 = Long.MAX_VALUE, best2 = Long.MAX_VALUE, best3 = Long.MAX_VALUE, best4 = Long.MAX_VALUE;
+            List<MapPracticeExercises.Employee> expected = null, merged = null;
+            for (int round = 0; round < 3; round++) {
+                long start = System.nanoTime();
+                expected = shards.stream().flatMap(List::stream).sorted(bySalaryDesc).collect(Collectors.toList());
+                best1 = Math.min(best1, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                merged = merge(streams(shards), bySalaryDesc).collect(Collectors.toList());
+                best2 = Math.min(best2, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                shards.stream().flatMap(List::stream).sorted(bySalaryDesc).limit(10).collect(Collectors.toList());
+                best3 = Math.min(best3, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                merge(streams(shards), bySalaryDesc).limit(10).collect(Collectors.toList());
+                best4 = Math.min(best4, System.nanoTime() - start);
+            }
+            // Same objects in the same order: ties go to the lower shard, like a stable sort
+            for (int i = 0; i < size; i++) {
+                if (expected.get(i) != merged.get(i)) {
+                    throw new AssertionError("merge differs from stable re-sort at " + i);
+                }
+            }
+
+            // Counted in a separate, untimed pass
+            long[] comparisons = new long[1];
+            merge(streams(shards), (MapPracticeExercises.Employee a, MapPracticeExercises.Employee b) -> {
+                comparisons[0]++;
+                return bySalaryDesc.compare(a, b);
+            }).forEach(e -> { });
+            int log2k = 32 - Integer.numberOfLeadingZeros(k - 1);
+            System.out.printf("%5d   %14.1f ms   %8.1f ms   %15.1f ms   %12.3f ms   %6.2f (%d)%n",
+                              k, best1 / 1e6, best2 / 1e6, best3 / 1e6, best4 / 1e6,
+                              comparisons[0] / (double) size, log2k);
+        }
+        System.out.println("\nFull drains: TimSort spots the sorted shards as runs, so re-sorting is competitive;"
+                           + "\nthe merge wins when only a prefix is needed, and never holds more than k heads.");
+    }
+
+    private static <T> List<Stream<T>> streams(List<List<T>> shards) {
+        return shards.stream().map(List::stream).collect(Collectors.toList());
+    }
+}
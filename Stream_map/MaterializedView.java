@@ -0,0 +1,229 @@
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * ✅ MATERIALIZED VIEW - filter → map results kept up to date incrementally
+ *
+ * expensiveProductNamesWithStream recomputes
+ *   products.stream().filter(p -> p.getPrice() > 500).map(Product::getName)
+ * on EVERY call. When reads are constant and writes are rare, keep the result
+ * and patch it per change instead:
+ *
+ *   change                      before matched?  after matches?  → view action
+ *   insert                      -                yes             → put
+ *   update                      yes / no         yes             → put (re-map)
+ *   update                      yes              no              → remove
+ *   delete                      yes              -               → remove
+ *
+ * One change costs O(log n) - one filter test and at most one mapper call.
+ * Results live in a ConcurrentSkipListMap keyed by product id, so readers
+ * never lock and always see products in id (insertion) order. toList() also
+ * caches an immutable copy until the next change, so repeated reads between
+ * writes are a single volatile read.
+ *
+ * Create views with ProductStore.view(filter, mapper).
+ */
+public class MaterializedView<R> implements ProductStore.ChangeListener {
+
+    private final Predicate<? super Product> filter;
+    private final Function<? super Product, ? extends R> mapper;
+    private final ConcurrentSkipListMap<Long, R> results = new ConcurrentSkipListMap<>();
+    private final LongAdder appliedChanges = new LongAdder();
+
+    // Bumped after every applied change; a snapshot is valid for one version
+    private volatile long version;
+    private volatile Snapshot<R> snapshot = new Snapshot<>(-1, Collections.emptyList());
+
+    private static final class Snapshot<R> {
+        final long version;
+        final List<R> values;
+
+        Snapshot(long version, List<R> values) {
+            this.version = version;
+            this.values = values;
+        }
+    }
+
+    MaterializedView(Predicate<? super Product> filter, Function<? super Product, ? extends R> mapper) {
+        this.filter = Objects.requireNonNull(filter, "filter");
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+    }
+
+    @Override
+    public void onChange(long id, Product before, Product after) {
+        // Old result out first: if filter or mapper throws, the view drops the
+        // product rather than keep a value the store no longer has
+        boolean changed = before != null && results.remove(id) != null;
+        try {
+            if (after != null && filter.test(after)) {
+                results.put(id, mapper.apply(after));
+                changed = true;
+            }
+        } finally {
+            if (changed) {
+                appliedChanges.increment();
+                version++;   // single writer (ProductStore serializes changes)
+            }
+        }
+    }
+
+    // ========================================
+    // Lock-free reads
+    // ========================================
+
+    /**
+     * Immutable copy of the results in product id order. Rebuilt only when a
+     * change arrived since the last call. If a change lands while the copy is
+     * being built, the copy may already include it and is rebuilt next time.
+     *
+     * The rebuild is O(view size): cheap when many reads share one change,
+     * but a read after every write pays a full copy each time - use get(),
+     * size() or stream() for that pattern.
+     */
+    public List<R> toList() {
+        long current = version;
+        Snapshot<R> cached = snapshot;
+        if (cached.version == current) {
+            return cached.values;
+        }
+        List<R> values = Collections.unmodifiableList(new ArrayList<>(results.values()));
+        snapshot = new Snapshot<>(current, values);
+        return values;
+    }
+
+    /** Weakly consistent stream over the live results - never blocks writers */
+    public Stream<R> stream() {
+        return results.values().stream();
+    }
+
+    /** Result for one product id, or null if that product is not in the view */
+    public R get(long id) {
+        return results.get(id);
+    }
+
+    public int size() {
+        return results.size();
+    }
+
+    /** Number of changes that touched this view (not counting ignored ones) */
+    public long appliedChanges() {
+        return appliedChanges.sum();
+    }
+
+    // ========================================
+    // Demo
+    // ========================================
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== Example 1: Names of expensive products (>500), kept current ===\n");
+        ProductStore store = new ProductStore(MapWithFilterExample.getProducts());
+        MaterializedView<String> expensiveNames = store.view(p -> p.getPrice() > 500, Product::getName);
+
+        System.out.println("Initial:                 " + expensiveNames.toList());
+        long tablet = store.insert(new Product("Tablet", 550.00, "Electronics"));
+        System.out.println("Insert Tablet (550):     " + expensiveNames.toList());
+        store.update(tablet, new Product("Tablet", 450.00, "Electronics"));
+        System.out.println("Tablet price → 450:      " + expensiveNames.toList());
+        store.update(2, new Product("Mouse", 999.00, "Electronics"));
+        System.out.println("Mouse price → 999:       " + expensiveNames.toList());
+        store.delete(1);
+        System.out.println("Delete Laptop:           " + expensiveNames.toList());
+
+        // A failing view must not keep the views registered after it from seeing the change
+        MaterializedView<String> failingView = store.view(p -> true, p -> {
+            if (p.getName().isEmpty()) {
+                throw new IllegalArgumentException("unnamed product: " + p);
+            }
+            return p.getName();
+        });
+        MaterializedView<String> laterView = store.view(p -> p.getPrice() > 500, Product::getName);
+        try {
+            store.insert(new Product("", 800.00, "Electronics"));
+            throw new AssertionError("the view's exception must reach the writer");
+        } catch (IllegalArgumentException expected) {
+            if (laterView.size() != expensiveNames.size()) {
+                throw new AssertionError("views after a failing one must still be updated");
+            }
+            System.out.println("Insert unnamed (800):    first view threw, " + laterView.size() + " rows in a later view");
+        }
+        // ...and a failed update must not leave the old product's result behind
+        long keyboard = store.insert(new Product("Keyboard", 700.00, "Electronics"));
+        try {
+            store.update(keyboard, new Product("", 700.00, "Electronics"));
+            throw new AssertionError("the view's exception must reach the writer");
+        } catch (IllegalArgumentException expected) {
+            if (failingView.get(keyboard) != null || laterView.get(keyboard) == null) {
+                throw new AssertionError("a failed update must drop the stale result: " + failingView.get(keyboard));
+            }
+            System.out.println("Rename Keyboard to \"\":   first view threw and dropped it, later view has \""
+                               + laterView.get(keyboard) + "\"");
+        }
+
+        System.out.println("\n=== Example 2: Continuous reads, occasional writes ===\n");
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        readHeavyComparison(size);
+    }
+
+    static void readHeavyComparison(int size) throws InterruptedException {
+        Random random = new Random(9);
+        List<Product> initial = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            initial.add(new Product("P" + i, random.nextInt(1000), "Electronics"));
+        }
+        ProductStore store = new ProductStore(initial);
+        MaterializedView<String> view = store.view(p -> p.getPrice() > 500, Product::getName);
+
+        // Writer: one price change every millisecond while readers run
+        Thread writer = new Thread(() -> {
+            Random r = new Random(10);
+            while (!Thread.currentThread().isInterrupted()) {
+                long id = 1 + r.nextInt(size);
+                store.update(id, new Product("P" + (id - 1), r.nextInt(1000), "Electronics"));
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        writer.start();
+
+        int reads = 200;
+        // ❌ Recompute from scratch on every read
+        long start = System.nanoTime();
+        long total1 = 0;
+        for (int i = 0; i < reads; i++) {
+            total1 += LongStream.rangeClosed(1, size)
+                                .mapToObj(store::get)
+                                .filter(p -> p.getPrice() > 500)
+                                .map(Product::getName)
+                                .count();
+        }
+        long recomputeUs = (System.nanoTime() - start) / 1000 / reads;
+
+        // ✅ Read the maintained view
+        start = System.nanoTime();
+        long total2 = 0;
+        for (int i = 0; i < reads; i++) {
+            total2 += view.toList().size();
+        }
+        long viewUs = (System.nanoTime() - start) / 1000 / reads;
+
+        writer.interrupt();
+        writer.join();
+
+        System.out.println(size + " products, writer updating one price per ms\n");
+        System.out.println("Recompute per read:   " + recomputeUs + " µs  (avg " + total1 / reads + " rows)");
+        System.out.println("View read (toList):   " + viewUs + " µs  (avg " + total2 / reads + " rows)");
+        System.out.println("Changes applied incrementally: " + view.appliedChanges());
+
+        long expected = LongStream.rangeClosed(1, size)
+                                  .mapToObj(store::get)
+                                  .filter(p -> p.getPrice() > 500)
+                                  .count();
+        System.out.println("View matches a full recompute after writes: " + (view.size() == expected));
+    }
+}
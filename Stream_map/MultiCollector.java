@@ -0,0 +1,216 @@
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * ✅ MULTI COLLECTOR - One traversal, N results
+ *
+ * discountOnExpensiveWithStream filters the products twice; mapToDoubleExample
+ * walks the list four times for sum / average / max / min. A multi collector
+ * feeds every element to N downstream collectors in ONE pass - like
+ * Collectors.teeing (Java 12), but for any number of collectors and on Java 8.
+ *
+ *   MultiCollector.Builder<Product> builder = MultiCollector.builder();
+ *   Key<Double> total = builder.add(Collectors.summingDouble(Product::getPrice));
+ *   Key<Long> count   = builder.add(Collectors.counting());
+ *
+ *   MultiCollector.Results results = products.stream().collect(builder.build());
+ *   double t = results.get(total);      // typed - no casts at the call site
+ *
+ * Parallel streams work: each downstream collector's own combiner merges its
+ * partial results.
+ */
+public final class MultiCollector {
+
+    private MultiCollector() {
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /** Typed handle to one downstream result */
+    public static final class Key<R> {
+        final int index;
+
+        private Key(int index) {
+            this.index = index;
+        }
+    }
+
+    /** Results of one collection, read back with the keys from the builder */
+    public static final class Results {
+        private final Object[] values;
+
+        private Results(Object[] values) {
+            this.values = values;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <R> R get(Key<R> key) {
+            return (R) values[key.index];
+        }
+
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(values);
+        }
+    }
+
+    public static final class Builder<T> {
+        private final List<Collector<? super T, ?, ?>> downstreams = new ArrayList<>();
+
+        public <R> Key<R> add(Collector<? super T, ?, R> downstream) {
+            downstreams.add(Objects.requireNonNull(downstream, "downstream"));
+            return new Key<>(downstreams.size() - 1);
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public Collector<T, ?, Results> build() {
+            if (downstreams.isEmpty()) {
+                throw new IllegalStateException("Add at least one downstream collector");
+            }
+            Collector<T, Object, Object>[] parts = downstreams.toArray(new Collector[0]);
+            int n = parts.length;
+
+            Supplier<Object>[] suppliers = new Supplier[n];
+            BiConsumer<Object, T>[] accumulators = new BiConsumer[n];
+            BinaryOperator<Object>[] combiners = new BinaryOperator[n];
+            Function<Object, Object>[] finishers = new Function[n];
+            boolean unordered = true;
+            for (int i = 0; i < n; i++) {
+                suppliers[i] = parts[i].supplier();
+                accumulators[i] = parts[i].accumulator();
+                combiners[i] = parts[i].combiner();
+                finishers[i] = parts[i].finisher();
+                unordered &= parts[i].characteristics().contains(Collector.Characteristics.UNORDERED);
+            }
+
+            Supplier<Object[]> supplier = () -> {
+                Object[] containers = new Object[n];
+                for (int i = 0; i < n; i++) {
+                    containers[i] = suppliers[i].get();
+                }
+                return containers;
+            };
+            BiConsumer<Object[], T> accumulator = (containers, element) -> {
+                for (int i = 0; i < n; i++) {
+                    accumulators[i].accept(containers[i], element);
+                }
+            };
+            BinaryOperator<Object[]> combiner = (left, right) -> {
+                for (int i = 0; i < n; i++) {
+                    left[i] = combiners[i].apply(left[i], right[i]);
+                }
+                return left;
+            };
+            Function<Object[], Results> finisher = containers -> {
+                Object[] values = new Object[n];
+                for (int i = 0; i < n; i++) {
+                    values[i] = finishers[i].apply(containers[i]);
+                }
+                return new Results(values);
+            };
+
+            return unordered
+                    ? Collector.of(supplier, accumulator, combiner, finisher, Collector.Characteristics.UNORDERED)
+                    : Collector.of(supplier, accumulator, combiner, finisher);
+        }
+    }
+
+    /** Java 8 stand-in for Collectors.filtering (Java 9) */
+    public static <T, A, R> Collector<T, A, R> filtering(Predicate<? super T> predicate,
+                                                        Collector<? super T, A, R> downstream) {
+        BiConsumer<A, ? super T> accumulator = downstream.accumulator();
+        return Collector.of(downstream.supplier(),
+                            (container, element) -> {
+                                if (predicate.test(element)) {
+                                    accumulator.accept(container, element);
+                                }
+                            },
+                            downstream.combiner(),
+                            downstream.finisher(),
+                            downstream.characteristics().toArray(new Collector.Characteristics[0]));
+    }
+
+    // ========================================
+    // Demo
+    // ========================================
+
+    public static void main(String[] args) {
+        System.out.println("=== Example 1: Discounted prices + details in one pass ===\n");
+        List<Product> products = MapWithFilterExample.getProducts();
+
+        Builder<Product> builder = MultiCollector.builder();
+        Key<List<Double>> discounted = builder.add(filtering(p -> p.getPrice() > 500,
+                Collectors.mapping(p -> p.getPrice() * 0.80, Collectors.toList())));
+        Key<List<String>> details = builder.add(filtering(p -> p.getPrice() > 500,
+                Collectors.mapping(p -> String.format("%s: ₹%.2f → ₹%.2f", p.getName(), p.getPrice(), p.getPrice() * 0.80),
+                                   Collectors.toList())));
+        Key<Long> cheap = builder.add(filtering(p -> p.getPrice() <= 500, Collectors.counting()));
+
+        Results results = products.stream().collect(builder.build());
+        System.out.println("Discounted prices: " + results.get(discounted));
+        results.get(details).forEach(System.out::println);
+        System.out.println("Not discounted:    " + results.get(cheap) + " products");
+
+        System.out.println("\n=== Example 2: Performance Comparison ===\n");
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        performanceComparison(size);
+    }
+
+    static void performanceComparison(int size) {
+        Random random = new Random(11);
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            products.add(new Product("P" + i, random.nextDouble() * 1000, "Electronics"));
+        }
+
+        Builder<Product> builder = MultiCollector.builder();
+        Key<Double> sumKey = builder.add(Collectors.summingDouble(Product::getPrice));
+        Key<Double> avgKey = builder.add(Collectors.averagingDouble(Product::getPrice));
+        Key<Optional<Product>> maxKey = builder.add(Collectors.maxBy(Comparator.comparingDouble(Product::getPrice)));
+        Key<Optional<Product>> minKey = builder.add(Collectors.minBy(Comparator.comparingDouble(Product::getPrice)));
+        Collector<Product, ?, Results> allStats = builder.build();
+
+        long best1 = Long.MAX_VALUE, best2 = Long.MAX_VALUE, best3 = Long.MAX_VALUE;
+        double sum1 = 0, sum2 = 0, sum3 = 0;
+        for (int round = 0; round < 5; round++) {
+            // ❌ Four traversals (as in mapToDoubleExample)
+            long start = System.nanoTime();
+            sum1 = products.stream().mapToDouble(Product::getPrice).sum();
+            double avg1 = products.stream().mapToDouble(Product::getPrice).average().orElse(0);
+            double max1 = products.stream().mapToDouble(Product::getPrice).max().orElse(0);
+            double min1 = products.stream().mapToDouble(Product::getPrice).min().orElse(0);
+            best1 = Math.min(best1, System.nanoTime() - start);
+
+            // ✅ One traversal, four collectors
+            start = System.nanoTime();
+            Results r = products.stream().collect(allStats);
+            sum2 = r.get(sumKey);
+            best2 = Math.min(best2, System.nanoTime() - start);
+
+            // ✅ Same, parallel
+            start = System.nanoTime();
+            Results p = products.parallelStream().collect(allStats);
+            sum3 = p.get(sumKey);
+            best3 = Math.min(best3, System.nanoTime() - start);
+
+            boolean same = Math.abs(avg1 - r.get(avgKey)) < 1e-6
+                           && max1 == r.get(maxKey).get().getPrice()
+                           && min1 == p.get(minKey).get().getPrice();
+            if (!same) {
+                throw new AssertionError("single-pass results differ from separate traversals");
+            }
+        }
+
+        System.out.println(size + " products, sum/average/max/min:\n");
+        System.out.printf("4 traversals:          %6.2f ms (sum %.0f)%n", best1 / 1e6, sum1);
+        System.out.printf("1 traversal:           %6.2f ms (sum %.0f)%n", best2 / 1e6, sum2);
+        System.out.printf("1 traversal, parallel: %6.2f ms (sum %.0f)%n", best3 / 1e6, sum3);
+    }
+}
@@ -1,56 +1,6 @@
 import java.util.*;
 import java.util.stream.*;
 
-/**
- * Employee class representing company employee
- */
-class Employee {
-    private int id;
-    private String name;
-    private String department;
-    private double salary;
-    private String email;
-    
-    public Employee(int id, String name, String department, double salary, String email) {
-        this.id = id;
-        this.name = name;
-        this.department = department;
-        this.salary = salary;
-        this.email = email;
-    }
-    
-    // Getters
-    public int getId() { return id; }
-    public String getName() { return name; }
-    public String getDepartment() { return department; }
-    public double getSalary() { return salary; }
-    public String getEmail() { return email; }
-    
-    @Override
-    public String toString() {
-        return String.format("Employee{id=%d, name='%s', dept='%s', salary=%.2f}", 
-                           id, name, department, salary);
-    }
-}
-
-/**
- * EmployeeDTO (Data Transfer Object) - Simplified version
- */
-class EmployeeDTO {
-    private int id;
-    private String name;
-    
-    public EmployeeDTO(int id, String name) {
-        this.id = id;
-        this.name = name;
-    }
-    
-    @Override
-    public String toString() {
-        return String.format("EmployeeDTO{id=%d, name='%s'}", id, name);
-    }
-}
-
 /**
  * ✅ OBJECT TRANSFORMATIONS - Traditional vs Stream API
  * 
@@ -0,0 +1,276 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * ✅ PIPELINE EXECUTOR - Parallel streams on a named, bounded ForkJoinPool
+ *
+ * products.parallelStream() always runs on ForkJoinPool.commonPool(), which
+ * every parallel stream in the JVM shares. One heavy transformation can keep
+ * all its workers busy, and every other parallel pipeline queues behind it.
+ *
+ * A parallel stream whose terminal operation runs INSIDE a ForkJoinPool task
+ * forks its subtasks into that pool instead. PipelineExecutor packages that:
+ *
+ *   try (PipelineExecutor reports = new PipelineExecutor("reports", 2)) {
+ *       List<EmployeeDTO> dtos = reports.run(() -> employees.parallelStream()
+ *                                                           .map(e -> new EmployeeDTO(e.getId(), e.getName()))
+ *                                                           .collect(Collectors.toList()));
+ *       System.out.println(reports.metrics());   // queued tasks, steals, ...
+ *   }
+ *
+ * - parallelism is fixed per executor: "reports" never uses more than 2 cores
+ * - worker threads are named "<name>-worker-N" (visible in thread dumps)
+ * - exceptions thrown by the pipeline reach the caller with their original type
+ *
+ * Caveat: running inside a pool task is how the JDK's stream implementation
+ * behaves (Java 8 - 21), not a documented guarantee of the Stream API.
+ */
+public final class PipelineExecutor implements AutoCloseable {
+
+    private final String name;
+    private final ForkJoinPool pool;
+    private final LongAdder pipelinesRun = new LongAdder();
+    private final LongAdder pipelinesFailed = new LongAdder();
+
+    public PipelineExecutor(String name, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+        }
+        this.name = Objects.requireNonNull(name, "name");
+        AtomicInteger workerCount = new AtomicInteger();
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = p -> {
+            ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            worker.setName(name + "-worker-" + workerCount.incrementAndGet());
+            worker.setDaemon(true);
+            return worker;
+        };
+        this.pool = new ForkJoinPool(parallelism, factory, null, false);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    // ========================================
+    // Running pipelines
+    // ========================================
+
+    /** Runs the pipeline's terminal operation on this executor's pool and waits for the result */
+    public <R> R run(Supplier<R> pipeline) {
+        Objects.requireNonNull(pipeline, "pipeline");
+        pipelinesRun.increment();
+        try {
+            return pool.submit(pipeline::get).get();
+        } catch (ExecutionException e) {
+            pipelinesFailed.increment();
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Pipeline failed on executor " + name, cause);
+        } catch (InterruptedException e) {
+            pipelinesFailed.increment();
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted waiting for pipeline on executor " + name);
+        }
+    }
+
+    public void run(Runnable pipeline) {
+        Objects.requireNonNull(pipeline, "pipeline");
+        run(() -> {
+            pipeline.run();
+            return null;
+        });
+    }
+
+    /** Submits without waiting - for callers that fan out several pipelines */
+    public <R> CompletableFuture<R> submit(Supplier<R> pipeline) {
+        Objects.requireNonNull(pipeline, "pipeline");
+        pipelinesRun.increment();
+        return CompletableFuture.supplyAsync(pipeline, pool)
+                                .whenComplete((result, failure) -> {
+                                    if (failure != null) {
+                                        pipelinesFailed.increment();
+                                    }
+                                });
+    }
+
+    // ========================================
+    // Metrics
+    // ========================================
+
+    /** Point-in-time view of the pool - cheap enough to poll while pipelines run */
+    public Metrics metrics() {
+        return new Metrics(name, pool.getParallelism(), pool.getPoolSize(), pool.getActiveThreadCount(),
+                           pool.getQueuedTaskCount(), pool.getQueuedSubmissionCount(), pool.getStealCount(),
+                           pipelinesRun.sum(), pipelinesFailed.sum());
+    }
+
+    public static final class Metrics {
+        public final String name;
+        public final int parallelism;
+        public final int poolSize;              // worker threads started so far
+        public final int activeThreads;         // workers stealing or running tasks
+        public final long queuedTasks;          // forked subtasks waiting in worker queues
+        public final int queuedSubmissions;     // pipelines waiting for a worker
+        public final long stealCount;           // tasks taken from another worker's queue (cumulative)
+        public final long pipelinesRun;
+        public final long pipelinesFailed;
+
+        Metrics(String name, int parallelism, int poolSize, int activeThreads, long queuedTasks,
+                int queuedSubmissions, long stealCount, long pipelinesRun, long pipelinesFailed) {
+            this.name = name;
+            this.parallelism = parallelism;
+            this.poolSize = poolSize;
+            this.activeThreads = activeThreads;
+            this.queuedTasks = queuedTasks;
+            this.queuedSubmissions = queuedSubmissions;
+            this.stealCount = stealCount;
+            this.pipelinesRun = pipelinesRun;
+            this.pipelinesFailed = pipelinesFailed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s[parallelism=%d, threads=%d, active=%d, queued=%d, submissions=%d, "
+                                 + "steals=%d, pipelines=%d, failed=%d]",
+                                 name, parallelism, poolSize, activeThreads, queuedTasks, queuedSubmissions,
+                                 stealCount, pipelinesRun, pipelinesFailed);
+        }
+    }
+
+    /** Stops accepting pipelines and waits briefly for running ones to finish */
+    @Override
+    public void close() {
+        pool.shutdown();
+        try {
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ========================================
+    // Demo
+    // ========================================
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== Example 1: transformToDTOWithStream on a 2-thread pool ===\n");
+        List<Employee> employees = ObjectTransformationExample.getEmployees();
+        try (PipelineExecutor dto = new PipelineExecutor("dto", 2)) {
+            Set<String> threads = ConcurrentHashMap.newKeySet();
+            List<EmployeeDTO> dtos = dto.run(() -> employees.parallelStream()
+                                                           .peek(e -> threads.add(Thread.currentThread().getName()))
+                                                           .map(e -> new EmployeeDTO(e.getId(), e.getName()))
+                                                           .collect(Collectors.toList()));
+            System.out.println("DTOs:    " + dtos);
+            System.out.println("Threads: " + new TreeSet<>(threads));
+            System.out.println("Metrics: " + dto.metrics());
+        }
+
+        System.out.println("\n=== Example 2: Failures reach the caller ===\n");
+        try (PipelineExecutor strict = new PipelineExecutor("strict", 2)) {
+            strict.run(() -> employees.parallelStream()
+                                      .map(e -> {
+                                          if (e.getSalary() > 85000) {
+                                              throw new IllegalStateException("over the salary cap: " + e.getName());
+                                          }
+                                          return e.getName();
+                                      })
+                                      .collect(Collectors.toList()));
+        } catch (IllegalStateException e) {
+            System.out.println("Caught: " + e.getMessage());
+        }
+
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        System.out.println("\n=== Example 3: performanceComparison's mapToInt sum, by parallelism ===\n");
+        parallelismComparison(size);
+
+        System.out.println("\n=== Example 4: A heavy pipeline next to a light one ===\n");
+        isolationComparison(size);
+    }
+
+    static void parallelismComparison(int size) {
+        List<Integer> numbers = IntStream.rangeClosed(1, size).boxed().collect(Collectors.toList());
+        Supplier<Long> pipeline = () -> numbers.parallelStream().mapToLong(n -> n * 2L).sum();
+
+        System.out.println("parallelism   best of 5     steals   result");
+        for (int parallelism : new int[] {1, 2, 4}) {
+            try (PipelineExecutor executor = new PipelineExecutor("sum-" + parallelism, parallelism)) {
+                long best = Long.MAX_VALUE;
+                long sum = 0;
+                for (int round = 0; round < 5; round++) {
+                    long start = System.nanoTime();
+                    sum = executor.run(pipeline);
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+                System.out.printf("%11d   %6.2f ms   %8d   %d%n",
+                                  parallelism, best / 1e6, executor.metrics().stealCount, sum);
+            }
+        }
+        System.out.println("(available processors: " + Runtime.getRuntime().availableProcessors() + ")");
+    }
+
+    /**
+     * Latency of a small pipeline submitted while CPU-heavy pipelines occupy the
+     * pool. On the common pool it queues behind them; on its own pool it starts
+     * at once (the OS still time-slices the cores, but nothing waits in a queue).
+     */
+    static void isolationComparison(int size) throws Exception {
+        List<Integer> numbers = IntStream.range(0, size).boxed().collect(Collectors.toList());
+        Supplier<Long> heavy = () -> numbers.parallelStream().mapToLong(PipelineExecutor::slowHash).sum();
+        Supplier<Integer> light = () -> ObjectTransformationExample.getEmployees().parallelStream()
+                                                                   .mapToInt(e -> e.getName().length())
+                                                                   .sum();
+        int heavyPipelines = ForkJoinPool.getCommonPoolParallelism();
+
+        // ❌ Both on the common pool
+        ForkJoinPool common = ForkJoinPool.commonPool();
+        List<ForkJoinTask<Long>> heavyRuns = new ArrayList<>();
+        for (int i = 0; i < heavyPipelines; i++) {
+            heavyRuns.add(common.submit(heavy::get));
+        }
+        Thread.sleep(20);
+        long start = System.nanoTime();
+        common.submit(light::get).get();
+        long shared = System.nanoTime() - start;
+        heavyRuns.forEach(ForkJoinTask::join);
+
+        // ✅ Heavy pipelines confined to their own pool; light pipeline on another
+        try (PipelineExecutor heavyPool = new PipelineExecutor("heavy", heavyPipelines);
+             PipelineExecutor lightPool = new PipelineExecutor("light", 1)) {
+            List<CompletableFuture<Long>> confined = new ArrayList<>();
+            for (int i = 0; i < heavyPipelines; i++) {
+                confined.add(heavyPool.submit(heavy));
+            }
+            Thread.sleep(20);
+            Metrics busy = heavyPool.metrics();
+            start = System.nanoTime();
+            lightPool.run(light);
+            long isolated = System.nanoTime() - start;
+            confined.forEach(CompletableFuture::join);
+
+            System.out.println(heavyPipelines + " heavy pipeline(s) running, then one 5-element pipeline:\n");
+            System.out.printf("Light pipeline latency, common pool shared with heavy: %8.2f ms%n", shared / 1e6);
+            System.out.printf("Light pipeline latency, own pool:                      %8.2f ms%n", isolated / 1e6);
+            System.out.println("\nHeavy pool while busy: " + busy);
+            System.out.println("Heavy pool afterwards: " + heavyPool.metrics());
+        }
+    }
+
+    private static long slowHash(int n) {
+        long h = n;
+        for (int i = 0; i < 200; i++) {
+            h = h * 0x9E3779B97F4A7C15L + i;
+            h ^= h >>> 29;
+        }
+        return h;
+    }
+}
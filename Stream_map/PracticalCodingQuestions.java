@@ -252,6 +252,13 @@ public class PracticalCodingQuestions {
                                            .collect(Collectors.toSet());
         System.out.println("Unique Departments: " + deptsStream2);
         
+        // ✅ DICTIONARY-ENCODED (Method 3) - toUpperCase() once per distinct value
+        System.out.println("\nDictionary Approach (Method 3):");
+        StringDictionary departments = new StringDictionary();
+        int[] deptCodes = departments.encodeAll(employees, Employee::getDepartment);
+        List<String> deptsDictionary = departments.distinctUpper(deptCodes);
+        System.out.println("Unique Departments: " + deptsDictionary);
+        
         System.out.println("\n" + "=".repeat(70) + "\n");
     }
     
@@ -294,7 +301,15 @@ public class PracticalCodingQuestions {
                                                  .flatMap(s -> Arrays.stream(s.split(",")))
                                                  .map(s -> Integer.parseInt(s.trim()))
                                                  .collect(Collectors.toList());
-        
+
+        // ✅ PUSH-STYLE (Method 3) - no String[] or child Stream per CSV string,
+        // same verdict as split(",") above (a trailing comma is dropped, "1,,2" throws)
+        System.out.println("\nPush-Style Approach (Method 3):");
+        List<Integer> numbersPushed = MapMulti.applyToInt(csvStrings.stream(), MapMulti.parsingInts(','))
+                                              .boxed()
+                                              .collect(Collectors.toList());
+        System.out.println("Output: " + numbersPushed);
+
         System.out.println("\n⚠️  NOTE: This question uses flatMap() because:");
         System.out.println("   - map() = One → One transformation");
         System.out.println("   - flatMap() = One → Many transformation");
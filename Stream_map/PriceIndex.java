@@ -0,0 +1,310 @@
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * ✅ PRICE INDEX - Range queries without scanning every product
+ *
+ * expensiveProductNamesWithStream / discountOnExpensiveWithStream evaluate
+ * price > 500 on EVERY product. A sorted index finds the first matching
+ * price with a binary search and reads only the matches: O(log n + k).
+ *
+ * Layout: two parallel primitive arrays kept sorted by price
+ *
+ *   prices: [250.0, 350.0, 450.0, 600.0, 700.0, 800.0, 1200.0]
+ *   rowIds: [  1,     5,     2,     4,     6,     3,      0  ]
+ *
+ * A row id is the product's position in insertion order. Products with equal
+ * prices stay in row-id order, so results are stable.
+ *
+ * Inserts go into a small sorted DELTA run (about sqrt(n) entries) that is
+ * merged into the main arrays when full, so one insert costs O(sqrt n)
+ * amortized instead of shifting the whole main array.
+ */
+public class PriceIndex {
+
+    private static final int MIN_DELTA_CAPACITY = 256;
+
+    private final List<Product> rows = new ArrayList<>();
+
+    // Main run
+    private double[] prices;
+    private int[] rowIds;
+    private int size;
+
+    // Delta run - recent inserts, also sorted by price
+    private double[] deltaPrices;
+    private int[] deltaRowIds;
+    private int deltaSize;
+
+    public PriceIndex() {
+        this(Collections.emptyList());
+    }
+
+    /** Bulk build: one O(n log n) sort instead of n inserts */
+    public PriceIndex(Collection<? extends Product> products) {
+        rows.addAll(products);
+        size = rows.size();
+        prices = new double[size];
+        rowIds = new int[size];
+        for (int i = 0; i < size; i++) {
+            prices[i] = rows.get(i).getPrice();
+            rowIds[i] = i;
+        }
+        mergeSort(prices, rowIds, size);
+        resetDelta();
+    }
+
+    /**
+     * Appends a product and indexes it.
+     *
+     * @return the new product's row id
+     */
+    public int add(Product product) {
+        int rowId = rows.size();
+        rows.add(product);
+
+        double price = product.getPrice();
+        int at = upperBound(deltaPrices, deltaSize, price);   // after equal prices - keeps row-id order
+        System.arraycopy(deltaPrices, at, deltaPrices, at + 1, deltaSize - at);
+        System.arraycopy(deltaRowIds, at, deltaRowIds, at + 1, deltaSize - at);
+        deltaPrices[at] = price;
+        deltaRowIds[at] = rowId;
+        if (++deltaSize == deltaPrices.length) {
+            mergeDelta();
+        }
+        return rowId;
+    }
+
+    // ========================================
+    // Range queries - results are row ids in price order
+    // ========================================
+
+    /** price > x */
+    public int[] greaterThan(double x) {
+        return slice(upperBound(prices, size, x), size,
+                     upperBound(deltaPrices, deltaSize, x), deltaSize);
+    }
+
+    /** price >= x */
+    public int[] atLeast(double x) {
+        return slice(lowerBound(prices, size, x), size,
+                     lowerBound(deltaPrices, deltaSize, x), deltaSize);
+    }
+
+    /** price < x */
+    public int[] lessThan(double x) {
+        return slice(0, lowerBound(prices, size, x),
+                     0, lowerBound(deltaPrices, deltaSize, x));
+    }
+
+    /** price <= x */
+    public int[] atMost(double x) {
+        return slice(0, upperBound(prices, size, x),
+                     0, upperBound(deltaPrices, deltaSize, x));
+    }
+
+    /** min <= price <= max */
+    public int[] between(double min, double max) {
+        if (min > max) {
+            return new int[0];
+        }
+        return slice(lowerBound(prices, size, min), upperBound(prices, size, max),
+                     lowerBound(deltaPrices, deltaSize, min), upperBound(deltaPrices, deltaSize, max));
+    }
+
+    /** Number of products with min <= price <= max - O(log n), nothing copied */
+    public int countBetween(double min, double max) {
+        if (min > max) {
+            return 0;
+        }
+        return upperBound(prices, size, max) - lowerBound(prices, size, min)
+               + upperBound(deltaPrices, deltaSize, max) - lowerBound(deltaPrices, deltaSize, min);
+    }
+
+    public Product row(int rowId) {
+        return rows.get(rowId);
+    }
+
+    /** Resolves row ids to products, keeping the order of the ids */
+    public List<Product> products(int[] rowIds) {
+        List<Product> result = new ArrayList<>(rowIds.length);
+        for (int rowId : rowIds) {
+            result.add(rows.get(rowId));
+        }
+        return result;
+    }
+
+    public Stream<Product> stream(int[] rowIds) {
+        return Arrays.stream(rowIds).mapToObj(rows::get);
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    /** Merges main[from, to) and delta[deltaFrom, deltaTo) in price order */
+    private int[] slice(int from, int to, int deltaFrom, int deltaTo) {
+        int mainCount = Math.max(0, to - from);
+        int deltaCount = Math.max(0, deltaTo - deltaFrom);
+        if (deltaCount == 0) {
+            return mainCount == 0 ? new int[0] : Arrays.copyOfRange(rowIds, from, to);
+        }
+
+        int[] result = new int[mainCount + deltaCount];
+        int i = from, j = deltaFrom, k = 0;
+        while (i < to && j < deltaTo) {
+            // Delta rows are newer, so on equal prices the main row comes first
+            result[k++] = deltaPrices[j] < prices[i] ? deltaRowIds[j++] : rowIds[i++];
+        }
+        while (i < to) result[k++] = rowIds[i++];
+        while (j < deltaTo) result[k++] = deltaRowIds[j++];
+        return result;
+    }
+
+    private void mergeDelta() {
+        double[] mergedPrices = new double[size + deltaSize];
+        int[] mergedRowIds = new int[size + deltaSize];
+        int i = 0, j = 0, k = 0;
+        while (i < size && j < deltaSize) {
+            if (deltaPrices[j] < prices[i]) {
+                mergedPrices[k] = deltaPrices[j]; mergedRowIds[k++] = deltaRowIds[j++];
+            } else {
+                mergedPrices[k] = prices[i]; mergedRowIds[k++] = rowIds[i++];
+            }
+        }
+        while (i < size) { mergedPrices[k] = prices[i]; mergedRowIds[k++] = rowIds[i++]; }
+        while (j < deltaSize) { mergedPrices[k] = deltaPrices[j]; mergedRowIds[k++] = deltaRowIds[j++]; }
+
+        prices = mergedPrices;
+        rowIds = mergedRowIds;
+        size = k;
+        resetDelta();
+    }
+
+    private void resetDelta() {
+        int capacity = Math.max(MIN_DELTA_CAPACITY, (int) Math.sqrt(size));
+        deltaPrices = new double[capacity];
+        deltaRowIds = new int[capacity];
+        deltaSize = 0;
+    }
+
+    /** First position in keys[0, n) with key >= x */
+    private static int lowerBound(double[] keys, int n, double x) {
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < x) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    /** First position in keys[0, n) with key > x */
+    private static int upperBound(double[] keys, int n, double x) {
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] <= x) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Stable bottom-up merge sort of both arrays by price */
+    private static void mergeSort(double[] keys, int[] values, int n) {
+        double[] keyBuffer = new double[n];
+        int[] valueBuffer = new int[n];
+        double[] srcKeys = keys, dstKeys = keyBuffer;
+        int[] srcValues = values, dstValues = valueBuffer;
+
+        for (int width = 1; width < n; width *= 2) {
+            for (int lo = 0; lo < n; lo += 2 * width) {
+                int mid = Math.min(lo + width, n), hi = Math.min(lo + 2 * width, n);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) {
+                    if (srcKeys[j] < srcKeys[i]) {
+                        dstKeys[k] = srcKeys[j]; dstValues[k++] = srcValues[j++];
+                    } else {
+                        dstKeys[k] = srcKeys[i]; dstValues[k++] = srcValues[i++];
+                    }
+                }
+                while (i < mid) { dstKeys[k] = srcKeys[i]; dstValues[k++] = srcValues[i++]; }
+                while (j < hi)  { dstKeys[k] = srcKeys[j]; dstValues[k++] = srcValues[j++]; }
+            }
+            double[] tk = srcKeys; srcKeys = dstKeys; dstKeys = tk;
+            int[] tv = srcValues; srcValues = dstValues; dstValues = tv;
+        }
+        if (srcKeys != keys) {
+            System.arraycopy(srcKeys, 0, keys, 0, n);
+            System.arraycopy(srcValues, 0, values, 0, n);
+        }
+    }
+
+    // ========================================
+    // Demo
+    // ========================================
+
+    public static void main(String[] args) {
+        System.out.println("=== Example 1: Expensive products (>500) via the index ===\n");
+        PriceIndex index = new PriceIndex(MapWithFilterExample.getProducts());
+
+        List<String> names = index.stream(index.greaterThan(500))
+                                  .map(Product::getName)
+                                  .collect(Collectors.toList());
+        System.out.println("Expensive product names: " + names + "  (price order)");
+
+        index.add(new Product("Tablet", 550.00, "Electronics"));
+        List<Double> discounted = index.stream(index.greaterThan(500))
+                                       .map(p -> p.getPrice() * 0.80)
+                                       .collect(Collectors.toList());
+        System.out.println("After adding Tablet, discounted: " + discounted);
+        System.out.println("Between 300 and 600: " + index.countBetween(300, 600) + " products");
+
+        System.out.println("\n=== Example 2: Performance Comparison ===\n");
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        performanceComparison(size);
+    }
+
+    static void performanceComparison(int size) {
+        Random random = new Random(3);
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            products.add(new Product("P" + i, random.nextDouble() * 1000, "Electronics"));
+        }
+
+        long buildStart = System.nanoTime();
+        PriceIndex index = new PriceIndex(products);
+        System.out.println(size + " products, index built in "
+                           + (System.nanoTime() - buildStart) / 1_000_000 + " ms\n");
+
+        for (double selectivity : new double[] {0.01, 0.10, 0.50}) {
+            double threshold = 1000 * (1 - selectivity);   // prices are uniform in [0, 1000)
+            long bestScan = Long.MAX_VALUE, bestIndex = Long.MAX_VALUE;
+            int scanned = 0, indexed = 0;
+
+            for (int round = 0; round < 5; round++) {
+                long start = System.nanoTime();
+                scanned = products.stream()
+                                  .filter(p -> p.getPrice() > threshold)
+                                  .collect(Collectors.toList())
+                                  .size();
+                bestScan = Math.min(bestScan, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                indexed = index.products(index.greaterThan(threshold)).size();
+                bestIndex = Math.min(bestIndex, System.nanoTime() - start);
+            }
+
+            System.out.printf("Selectivity %4.0f%%: stream scan %6.2f ms, index %6.2f ms (%d = %d rows)%n",
+                              selectivity * 100, bestScan / 1e6, bestIndex / 1e6, scanned, indexed);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 100_000; i++) {
+            Product product = new Product("New" + i, random.nextDouble() * 1000, "Electronics");
+            index.add(product);
+            products.add(product);
+        }
+        System.out.println("\n100000 inserts into the index: " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        long expected = products.stream().filter(p -> p.getPrice() > 900).count();
+        System.out.println("Index and full scan agree after inserts: " + (index.greaterThan(900).length == expected));
+    }
+}
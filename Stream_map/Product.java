@@ -0,0 +1,24 @@
+/**
+ * Product class for demonstration
+ */
+class Product {
+    private String name;
+    private double price;
+    private String category;
+    
+    public Product(String name, double price, String category) {
+        this.name = name;
+        this.price = price;
+        this.category = category;
+    }
+    
+    public String getName() { return name; }
+    public double getPrice() { return price; }
+    public String getCategory() { return category; }
+    
+    @Override
+    public String toString() {
+        return String.format("Product{name='%s', price=%.2f, category='%s'}", 
+                           name, price, category);
+    }
+}
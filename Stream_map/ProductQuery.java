@@ -0,0 +1,328 @@
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * ✅ PRODUCT QUERY - filter → map pipelines compiled into one fused loop
+ *
+ * MapWithFilterExample writes each query by hand:
+ *   products.stream().filter(p -> p.getPrice() > 500).map(Product::getName).collect(...)
+ *
+ * Each stream stage is a separate Sink with its own virtual call per element.
+ * ProductQuery describes the same query as data, then compiles it to one loop:
+ *
+ *   List<String> names = ProductQuery.select(Product::getName)
+ *                                    .priceGreaterThan(500)
+ *                                    .category("Electronics")
+ *                                    .limit(10)
+ *                                    .execute(products);
+ *
+ * Compiling:
+ * - all price predicates fold into ONE inclusive range check (lo <= price <= hi)
+ * - the loop is picked by query SHAPE (which predicates exist), not by values:
+ *   one hand-fused loop per shape, so "price > 500" and "price > 900" run
+ *   the same plan
+ */
+public class ProductQuery<R> {
+
+    // Query shape bits
+    static final int PRICE = 1;
+    static final int CATEGORY = 2;
+    static final int CUSTOM = 4;
+
+    // Indexed by shape; the loops are stateless, so one instance each is enough
+    private static final Plan[] PLANS = new Plan[CUSTOM << 1];
+
+    static {
+        for (int shape = 0; shape < PLANS.length; shape++) {
+            PLANS[shape] = compile(shape);
+        }
+    }
+
+    private final Function<? super Product, ? extends R> projection;
+    // Inclusive bounds; NaN means "nothing matches" (every comparison with NaN is false)
+    private double minPrice = Double.NEGATIVE_INFINITY;
+    private double maxPrice = Double.POSITIVE_INFINITY;
+    private String category;
+    private Predicate<? super Product> custom;
+    private int limit = Integer.MAX_VALUE;
+
+    private ProductQuery(Function<? super Product, ? extends R> projection) {
+        this.projection = Objects.requireNonNull(projection, "projection");
+    }
+
+    public static <R> ProductQuery<R> select(Function<? super Product, ? extends R> projection) {
+        return new ProductQuery<>(projection);
+    }
+
+    // ========================================
+    // Predicates
+    // ========================================
+
+    public ProductQuery<R> priceGreaterThan(double price) {
+        // > x  ==  >= nextUp(x), except that nextUp(+Inf) is +Inf: nothing is > +Inf
+        minPrice = Math.max(minPrice, price == Double.POSITIVE_INFINITY ? Double.NaN : Math.nextUp(price));
+        return this;
+    }
+
+    public ProductQuery<R> priceAtLeast(double price) {
+        minPrice = Math.max(minPrice, price);
+        return this;
+    }
+
+    public ProductQuery<R> priceLessThan(double price) {
+        maxPrice = Math.min(maxPrice, price == Double.NEGATIVE_INFINITY ? Double.NaN : Math.nextDown(price));
+        return this;
+    }
+
+    public ProductQuery<R> priceAtMost(double price) {
+        maxPrice = Math.min(maxPrice, price);
+        return this;
+    }
+
+    public ProductQuery<R> priceBetween(double min, double max) {
+        return priceAtLeast(min).priceAtMost(max);
+    }
+
+    public ProductQuery<R> category(String category) {
+        if (this.category != null && !this.category.equals(category)) {
+            throw new IllegalStateException("Category already set to " + this.category);
+        }
+        this.category = Objects.requireNonNull(category, "category");
+        return this;
+    }
+
+    /** Escape hatch for conditions the query API does not model */
+    public ProductQuery<R> where(Predicate<? super Product> predicate) {
+        Objects.requireNonNull(predicate, "predicate");
+        if (custom == null) {
+            custom = predicate;
+        } else {
+            Predicate<? super Product> previous = custom;
+            custom = p -> previous.test(p) && predicate.test(p);
+        }
+        return this;
+    }
+
+    public ProductQuery<R> limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must be >= 0: " + limit);
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    // ========================================
+    // Execution
+    // ========================================
+
+    /** Runs the query with the fused loop for its shape */
+    public List<R> execute(List<? extends Product> products) {
+        if (!(products instanceof RandomAccess)) {
+            products = new ArrayList<>(products);   // plans use indexed loops
+        }
+        List<R> out = new ArrayList<>();
+        if (limit > 0) {
+            PLANS[shape()].run(products, this, out);
+        }
+        return out;
+    }
+
+    int shape() {
+        int shape = 0;
+        if (minPrice != Double.NEGATIVE_INFINITY || maxPrice != Double.POSITIVE_INFINITY) {
+            shape |= PRICE;
+        }
+        if (category != null) {
+            shape |= CATEGORY;
+        }
+        if (custom != null) {
+            shape |= CUSTOM;
+        }
+        return shape;
+    }
+
+    /** One fused loop per query shape */
+    interface Plan {
+        <R> void run(List<? extends Product> products, ProductQuery<R> query, List<R> out);
+    }
+
+    static Plan compile(int shape) {
+        switch (shape) {
+            case 0:
+                return new Plan() {
+                    public <R> void run(List<? extends Product> products, ProductQuery<R> q, List<R> out) {
+                        Function<? super Product, ? extends R> projection = q.projection;
+                        int limit = q.limit;
+                        int n = 0;
+                        for (int i = 0, size = products.size(); i < size; i++) {
+                            Product p = products.get(i);
+                            out.add(projection.apply(p));
+                            if (++n == limit) return;
+                        }
+                    }
+                };
+            case PRICE:
+                return new Plan() {
+                    public <R> void run(List<? extends Product> products, ProductQuery<R> q, List<R> out) {
+                        Function<? super Product, ? extends R> projection = q.projection;
+                        double lo = q.minPrice, hi = q.maxPrice;
+                        int limit = q.limit;
+                        int n = 0;
+                        for (int i = 0, size = products.size(); i < size; i++) {
+                            Product p = products.get(i);
+                            double price = p.getPrice();
+                            if (price >= lo && price <= hi) {
+                                out.add(projection.apply(p));
+                                if (++n == limit) return;
+                            }
+                        }
+                    }
+                };
+            case CATEGORY:
+                return new Plan() {
+                    public <R> void run(List<? extends Product> products, ProductQuery<R> q, List<R> out) {
+                        Function<? super Product, ? extends R> projection = q.projection;
+                        String category = q.category;
+                        int limit = q.limit;
+                        int n = 0;
+                        for (int i = 0, size = products.size(); i < size; i++) {
+                            Product p = products.get(i);
+                            if (category.equals(p.getCategory())) {
+                                out.add(projection.apply(p));
+                                if (++n == limit) return;
+                            }
+                        }
+                    }
+                };
+            case PRICE | CATEGORY:
+                return new Plan() {
+                    public <R> void run(List<? extends Product> products, ProductQuery<R> q, List<R> out) {
+                        Function<? super Product, ? extends R> projection = q.projection;
+                        double lo = q.minPrice, hi = q.maxPrice;
+                        String category = q.category;
+                        int limit = q.limit;
+                        int n = 0;
+                        for (int i = 0, size = products.size(); i < size; i++) {
+                            Product p = products.get(i);
+                            double price = p.getPrice();   // cheap numeric check first
+                            if (price >= lo && price <= hi && category.equals(p.getCategory())) {
+                                out.add(projection.apply(p));
+                                if (++n == limit) return;
+                            }
+                        }
+                    }
+                };
+            default:
+                // Any shape with a custom predicate: still one loop, built-ins checked first.
+                // No price predicate means no range check - NaN prices fail even (-Inf, +Inf)
+                boolean priced = (shape & PRICE) != 0;
+                return new Plan() {
+                    public <R> void run(List<? extends Product> products, ProductQuery<R> q, List<R> out) {
+                        Function<? super Product, ? extends R> projection = q.projection;
+                        double lo = q.minPrice, hi = q.maxPrice;
+                        String category = q.category;
+                        Predicate<? super Product> custom = q.custom;
+                        int limit = q.limit;
+                        int n = 0;
+                        for (int i = 0, size = products.size(); i < size; i++) {
+                            Product p = products.get(i);
+                            if ((!priced || p.getPrice() >= lo && p.getPrice() <= hi)
+                                    && (category == null || category.equals(p.getCategory()))
+                                    && custom.test(p)) {
+                                out.add(projection.apply(p));
+                                if (++n == limit) return;
+                            }
+                        }
+                    }
+                };
+        }
+    }
+
+    // ========================================
+    // Demo
+    // ========================================
+
+    public static void main(String[] args) {
+        List<Product> products = MapWithFilterExample.getProducts();
+
+        System.out.println("=== Example 1: Names of expensive products (>500) ===\n");
+        System.out.println(ProductQuery.select(Product::getName)
+                                       .priceGreaterThan(500)
+                                       .execute(products));
+
+        System.out.println("\n=== Example 2: Discounted Electronics over 500, top 2 ===\n");
+        System.out.println(ProductQuery.select(p -> p.getPrice() * 0.80)
+                                       .priceGreaterThan(500)
+                                       .category("Electronics")
+                                       .limit(2)
+                                       .execute(products));
+
+        List<Product> extremes = Arrays.asList(new Product("Free", 0, "Misc"),
+                                               new Product("Priceless", Double.POSITIVE_INFINITY, "Misc"),
+                                               new Product("Refund", Double.NEGATIVE_INFINITY, "Misc"),
+                                               new Product("Unpriced", Double.NaN, "Misc"));
+        if (!ProductQuery.select(Product::getName).priceGreaterThan(Double.POSITIVE_INFINITY).execute(extremes).isEmpty()
+                || !ProductQuery.select(Product::getName).priceLessThan(Double.NEGATIVE_INFINITY).execute(extremes).isEmpty()
+                || ProductQuery.select(Product::getName).priceGreaterThan(0).execute(extremes).size() != 1) {
+            throw new AssertionError("strict bounds must match the stream's > and <, infinities included");
+        }
+        // Without a price predicate every plan keeps NaN prices, like the plain stream
+        if (ProductQuery.select(Product::getName).execute(extremes).size() != 4
+                || ProductQuery.select(Product::getName).category("Misc").execute(extremes).size() != 4
+                || ProductQuery.select(Product::getName).where(p -> true).execute(extremes).size() != 4
+                || ProductQuery.select(Product::getName).category("Misc").where(p -> true).execute(extremes).size() != 4) {
+            throw new AssertionError("queries without a price predicate must not drop NaN prices");
+        }
+
+        System.out.println("\n=== Example 3: Performance Comparison ===\n");
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        performanceComparison(size);
+    }
+
+    static void performanceComparison(int size) {
+        String[] categories = {"Electronics", "Furniture", "Books", "Toys", "Garden"};
+        Random random = new Random(1);
+        List<Product> catalog = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            catalog.add(new Product("P" + i, random.nextInt(1000), categories[random.nextInt(categories.length)]));
+        }
+        System.out.println("Catalog: " + size + " products, 200 queries with varying thresholds\n");
+
+        long best1 = Long.MAX_VALUE, best2 = Long.MAX_VALUE;
+        long found1 = 0, found2 = 0;
+        for (int round = 0; round < 5; round++) {   // best of 5 - early rounds warm up the JIT
+            found1 = 0;
+            found2 = 0;
+            long start1 = System.nanoTime();
+            for (int q = 0; q < 200; q++) {
+                double threshold = 500 + q;
+                found1 += catalog.stream()
+                                 .filter(p -> p.getPrice() > threshold)
+                                 .filter(p -> p.getCategory().equals("Electronics"))
+                                 .map(Product::getName)
+                                 .collect(Collectors.toList())
+                                 .size();
+            }
+            long end1 = System.nanoTime();
+
+            long start2 = System.nanoTime();
+            for (int q = 0; q < 200; q++) {
+                found2 += ProductQuery.select(Product::getName)
+                                      .priceGreaterThan(500 + q)
+                                      .category("Electronics")
+                                      .execute(catalog)
+                                      .size();
+            }
+            long end2 = System.nanoTime();
+
+            best1 = Math.min(best1, end1 - start1);
+            best2 = Math.min(best2, end2 - start2);
+        }
+
+        System.out.println("Stream filter→filter→map: " + best1 / 200_000 + " µs/query (" + found1 + " rows)");
+        System.out.println("Compiled ProductQuery:    " + best2 / 200_000 + " µs/query (" + found2 + " rows)");
+        System.out.println("\nAll 200 queries ran the one PRICE | CATEGORY loop - plans are per query shape, not per threshold");
+        System.out.println("⚠️  With millions of rows both loops mostly wait on memory; the gap narrows");
+    }
+}
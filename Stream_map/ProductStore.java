@@ -0,0 +1,111 @@
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.*;
+
+/**
+ * ✅ PRODUCT STORE - A mutable Product collection that announces its changes
+ *
+ * Products are immutable, so "update" means replacing the product stored
+ * under an id. Every insert / update / delete is passed to the registered
+ * listeners as (id, before, after) - which is all a MaterializedView needs
+ * to stay current without re-running its query.
+ *
+ * Writes are serialized (one writer at a time, listeners see changes in
+ * order); reads of single products go straight to a ConcurrentHashMap.
+ *
+ * A change is applied to the store first, then every listener is called -
+ * even if an earlier one throws - so no view silently misses a change. The
+ * first listener exception is rethrown afterwards, the rest are suppressed.
+ */
+public class ProductStore {
+
+    /** Receives every change; before is null on insert, after is null on delete */
+    interface ChangeListener {
+        void onChange(long id, Product before, Product after);
+    }
+
+    private final Map<Long, Product> products = new ConcurrentHashMap<>();
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private long nextId = 1;
+
+    public ProductStore() {
+    }
+
+    public ProductStore(Collection<? extends Product> initial) {
+        initial.forEach(this::insert);
+    }
+
+    /** @return the id assigned to the product */
+    public synchronized long insert(Product product) {
+        long id = nextId++;
+        products.put(id, Objects.requireNonNull(product, "product"));
+        fire(id, null, product);
+        return id;
+    }
+
+    /** Replaces the product stored under id */
+    public synchronized void update(long id, Product product) {
+        Objects.requireNonNull(product, "product");
+        Product before = products.get(id);
+        if (before == null) {
+            throw new NoSuchElementException("No product with id " + id);
+        }
+        products.put(id, product);
+        fire(id, before, product);
+    }
+
+    /** @return true if a product was removed */
+    public synchronized boolean delete(long id) {
+        Product before = products.remove(id);
+        if (before == null) {
+            return false;
+        }
+        fire(id, before, null);
+        return true;
+    }
+
+    public Product get(long id) {
+        return products.get(id);
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    /**
+     * Creates a view of mapper(p) for every product matching filter, kept up to
+     * date on every later change. The initial load runs under the write lock, so
+     * no change can slip in between loading and registering.
+     */
+    public synchronized <R> MaterializedView<R> view(Predicate<? super Product> filter,
+                                                   Function<? super Product, ? extends R> mapper) {
+        MaterializedView<R> view = new MaterializedView<>(filter, mapper);
+        products.forEach((id, product) -> view.onChange(id, null, product));
+        listeners.add(view);
+        return view;
+    }
+
+    /** Stops maintaining a view; it keeps its last contents */
+    public synchronized void drop(MaterializedView<?> view) {
+        listeners.remove(view);
+    }
+
+    private void fire(long id, Product before, Product after) {
+        RuntimeException failure = null;
+        for (ChangeListener listener : listeners) {
+            try {
+                listener.onChange(id, before, after);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,615 @@
+import java.util.*;
+import java.util.function.IntConsumer;
+
+/**
+ * ✅ ROARING BITMAP - Compressed set of int row ids
+ *
+ * The 32-bit id space is cut into chunks of 65536 ids (same high 16 bits).
+ * Each non-empty chunk stores its low 16 bits in whichever container is smallest:
+ *
+ *   ArrayContainer   sorted char[]        2 bytes/id     sparse chunks (<= 4096 ids)
+ *   BitmapContainer  long[1024]           8 KB flat      dense chunks
+ *   RunContainer     (start, length) runs 4 bytes/run    consecutive ids
+ *
+ * AND / OR / ANDNOT work chunk by chunk, so a category filter combined with a
+ * price filter is decided on the bitmaps before a single Product is touched.
+ */
+public class RoaringBitmap {
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size;   // number of chunks in use
+
+    public static RoaringBitmap of(int... ids) {
+        int[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int id : sorted) {
+            bitmap.add(id);
+        }
+        return bitmap.runOptimize();
+    }
+
+    /** Ids in [from, to) - stored as one run per chunk */
+    public static RoaringBitmap range(int from, int to) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int start = from; start < to; ) {
+            int chunkEnd = Math.min(to, ((start >>> 16) + 1) << 16);
+            if (chunkEnd <= start) {
+                chunkEnd = to;   // last chunk of the int range
+            }
+            bitmap.append((char) (start >>> 16),
+                          RunContainer.of((char) start, (char) (chunkEnd - 1)));
+            start = chunkEnd;
+        }
+        return bitmap;
+    }
+
+    /** Adds a non-negative id; appending in increasing order is the fast path */
+    public void add(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Row id must be >= 0: " + id);
+        }
+        char key = (char) (id >>> 16);
+        int i = size > 0 && keys[size - 1] == key ? size - 1 : findKey(key);
+        if (i < 0) {
+            i = -i - 1;
+            insert(i, key, new ArrayContainer());
+        }
+        containers[i] = containers[i].add((char) id);
+    }
+
+    public boolean contains(int id) {
+        int i = findKey((char) (id >>> 16));
+        return i >= 0 && containers[i].contains((char) id);
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += containers[i].cardinality();
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Visits ids in increasing order */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    public int[] toArray() {
+        int[] result = new int[cardinality()];
+        int[] position = {0};
+        forEach(id -> result[position[0]++] = id);
+        return result;
+    }
+
+    /** Re-picks the smallest container for every chunk (call after bulk loading) */
+    public RoaringBitmap runOptimize() {
+        for (int i = 0; i < size; i++) {
+            containers[i] = containers[i].optimize();
+        }
+        return this;
+    }
+
+    /** Independent copy: changes to either bitmap do not affect the other */
+    public RoaringBitmap copy() {
+        RoaringBitmap copy = new RoaringBitmap();
+        copy.keys = Arrays.copyOf(keys, Math.max(4, size));
+        copy.containers = new Container[copy.keys.length];
+        for (int i = 0; i < size; i++) {
+            copy.containers[i] = containers[i].copy();
+        }
+        copy.size = size;
+        return copy;
+    }
+
+    /** Approximate heap footprint of keys and containers */
+    public long sizeInBytes() {
+        long bytes = 16 + keys.length * 2L + containers.length * 4L;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    /** Number of chunks using each container type: [array, bitmap, run] */
+    public int[] containerCounts() {
+        int[] counts = new int[3];
+        for (int i = 0; i < size; i++) {
+            Container c = containers[i];
+            counts[c instanceof ArrayContainer ? 0 : c instanceof BitmapContainer ? 1 : 2]++;
+        }
+        return counts;
+    }
+
+    // ========================================
+    // Set operations - inputs are not modified
+    // ========================================
+
+    public static RoaringBitmap and(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0, j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                Container c = a.containers[i].and(b.containers[j]);
+                if (c.cardinality() > 0) {
+                    result.append(a.keys[i], c.optimize());
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public static RoaringBitmap or(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0, j = 0;
+        while (i < a.size || j < b.size) {
+            if (j == b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                result.append(a.keys[i], a.containers[i].copy());
+                i++;
+            } else if (i == a.size || a.keys[i] > b.keys[j]) {
+                result.append(b.keys[j], b.containers[j].copy());
+                j++;
+            } else {
+                result.append(a.keys[i], a.containers[i].or(b.containers[j]).optimize());
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /** Ids in a but not in b */
+    public static RoaringBitmap andNot(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap();
+        int j = 0;
+        for (int i = 0; i < a.size; i++) {
+            while (j < b.size && b.keys[j] < a.keys[i]) {
+                j++;
+            }
+            Container c = j < b.size && b.keys[j] == a.keys[i]
+                    ? a.containers[i].andNot(b.containers[j]).optimize()
+                    : a.containers[i].copy();
+            if (c.cardinality() > 0) {
+                result.append(a.keys[i], c);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        int[] ids = toArray();
+        return ids.length <= 20
+                ? Arrays.toString(ids)
+                : "RoaringBitmap{cardinality=" + ids.length + ", bytes=" + sizeInBytes() + "}";
+    }
+
+    private int findKey(char key) {
+        int lo = 0, hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < key) lo = mid + 1;
+            else if (keys[mid] > key) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+
+    private void insert(int i, char key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        keys[i] = key;
+        containers[i] = container;
+        size++;
+    }
+
+    private void append(char key, Container container) {
+        insert(size, key, container);
+    }
+
+    // ========================================
+    // Containers - one 65536-id chunk each
+    // ========================================
+
+    abstract static class Container {
+        static final int ARRAY_MAX = 4096;
+
+        /** Returns the container holding the result - may be a converted one */
+        abstract Container add(char value);
+        abstract boolean contains(char value);
+        abstract int cardinality();
+        abstract void forEach(int high, IntConsumer action);
+        abstract long sizeInBytes();
+        abstract Container copy();
+        abstract BitmapContainer toBitmap();
+
+        Container and(Container other) {
+            if (this instanceof ArrayContainer) {
+                return ((ArrayContainer) this).filter(other, true);
+            }
+            if (other instanceof ArrayContainer) {
+                return ((ArrayContainer) other).filter(this, true);
+            }
+            return toBitmap().andBitmap(other.toBitmap());
+        }
+
+        Container or(Container other) {
+            if (this instanceof ArrayContainer && other instanceof ArrayContainer
+                    && cardinality() + other.cardinality() <= ARRAY_MAX) {
+                return ((ArrayContainer) this).union((ArrayContainer) other);
+            }
+            return toBitmap().orBitmap(other.toBitmap());
+        }
+
+        Container andNot(Container other) {
+            if (this instanceof ArrayContainer) {
+                return ((ArrayContainer) this).filter(other, false);
+            }
+            return toBitmap().andNotBitmap(other.toBitmap());
+        }
+
+        /** Smallest of array / bitmap / run for the same values */
+        Container optimize() {
+            int card = cardinality();
+            int runs = countRuns();
+            long arrayBytes = 2L * card, bitmapBytes = 8192, runBytes = 4L * runs;
+            if (runBytes < arrayBytes && runBytes < bitmapBytes) {
+                return this instanceof RunContainer ? this : RunContainer.from(this, runs);
+            }
+            if (card <= ARRAY_MAX) {
+                return this instanceof ArrayContainer ? this : ArrayContainer.from(this);
+            }
+            return this instanceof BitmapContainer ? this : toBitmap();
+        }
+
+        int countRuns() {
+            int[] state = {0, -2};   // runs, previous value
+            forEach(0, v -> {
+                if (v != state[1] + 1) state[0]++;
+                state[1] = v;
+            });
+            return state[0];
+        }
+    }
+
+    static final class ArrayContainer extends Container {
+        char[] values;
+        int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        static ArrayContainer from(Container c) {
+            char[] values = new char[c.cardinality()];
+            int[] n = {0};
+            c.forEach(0, v -> values[n[0]++] = (char) v);
+            return new ArrayContainer(values, values.length);
+        }
+
+        @Override
+        Container add(char value) {
+            int i;
+            if (cardinality == 0 || values[cardinality - 1] < value) {
+                i = cardinality;                                    // append fast path
+            } else {
+                i = Arrays.binarySearch(values, 0, cardinality, value);
+                if (i >= 0) return this;
+                i = -i - 1;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+            }
+            System.arraycopy(values, i, values, i + 1, cardinality - i);
+            values[i] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < cardinality; i++) {
+                action.accept(high | values[i]);
+            }
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + 2L * values.length;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+
+        /** keep = true: values also in other (AND); keep = false: values not in other (ANDNOT) */
+        ArrayContainer filter(Container other, boolean keep) {
+            char[] out = new char[cardinality];
+            int n = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i]) == keep) {
+                    out[n++] = values[i];
+                }
+            }
+            return new ArrayContainer(out, n);
+        }
+
+        ArrayContainer union(ArrayContainer other) {
+            char[] out = new char[cardinality + other.cardinality];
+            int i = 0, j = 0, n = 0;
+            while (i < cardinality && j < other.cardinality) {
+                char a = values[i], b = other.values[j];
+                if (a < b) { out[n++] = a; i++; }
+                else if (a > b) { out[n++] = b; j++; }
+                else { out[n++] = a; i++; j++; }
+            }
+            while (i < cardinality) out[n++] = values[i++];
+            while (j < other.cardinality) out[n++] = other.values[j++];
+            return new ArrayContainer(out, n);
+        }
+    }
+
+    static final class BitmapContainer extends Container {
+        final long[] words;
+        int cardinality;
+
+        BitmapContainer() {
+            this(new long[1024], 0);
+        }
+
+        private BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            long before = words[value >>> 6];
+            long after = before | (1L << value);
+            if (before != after) {
+                words[value >>> 6] = after;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    action.accept(high | (w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + 8L * words.length;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            return this;
+        }
+
+        BitmapContainer andBitmap(BitmapContainer other) {
+            long[] out = new long[1024];
+            int card = 0;
+            for (int i = 0; i < out.length; i++) {
+                out[i] = words[i] & other.words[i];
+                card += Long.bitCount(out[i]);
+            }
+            return new BitmapContainer(out, card);
+        }
+
+        BitmapContainer orBitmap(BitmapContainer other) {
+            long[] out = new long[1024];
+            int card = 0;
+            for (int i = 0; i < out.length; i++) {
+                out[i] = words[i] | other.words[i];
+                card += Long.bitCount(out[i]);
+            }
+            return new BitmapContainer(out, card);
+        }
+
+        BitmapContainer andNotBitmap(BitmapContainer other) {
+            long[] out = new long[1024];
+            int card = 0;
+            for (int i = 0; i < out.length; i++) {
+                out[i] = words[i] & ~other.words[i];
+                card += Long.bitCount(out[i]);
+            }
+            return new BitmapContainer(out, card);
+        }
+    }
+
+    static final class RunContainer extends Container {
+        // Pairs (start, length - 1), sorted and non-overlapping
+        char[] runs;
+        int runCount;
+
+        private RunContainer(char[] runs, int runCount) {
+            this.runs = runs;
+            this.runCount = runCount;
+        }
+
+        static RunContainer of(char first, char last) {
+            return new RunContainer(new char[] {first, (char) (last - first)}, 1);
+        }
+
+        static RunContainer from(Container c, int runCount) {
+            char[] runs = new char[2 * runCount];
+            int[] state = {-1, -2};   // current run index, previous value
+            c.forEach(0, v -> {
+                if (v != state[1] + 1) {
+                    state[0]++;
+                    runs[2 * state[0]] = (char) v;
+                }
+                runs[2 * state[0] + 1] = (char) (v - runs[2 * state[0]]);
+                state[1] = v;
+            });
+            return new RunContainer(runs, runCount);
+        }
+
+        @Override
+        Container add(char value) {
+            // Last run starting at or before value (-1 if none)
+            int lo = 0, hi = runCount - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (runs[2 * mid] <= value) lo = mid + 1;
+                else hi = mid - 1;
+            }
+            int before = hi, after = hi + 1;
+            int beforeEnd = before >= 0 ? runs[2 * before] + runs[2 * before + 1] : -2;
+            if (value <= beforeEnd) {
+                return this;                                          // already present
+            }
+            boolean joinsBefore = value == beforeEnd + 1;
+            boolean joinsAfter = after < runCount && value + 1 == runs[2 * after];
+            if (joinsBefore && joinsAfter) {                          // fills the gap: merge two runs
+                runs[2 * before + 1] = (char) (runs[2 * after] + runs[2 * after + 1] - runs[2 * before]);
+                System.arraycopy(runs, 2 * after + 2, runs, 2 * after, 2 * (runCount - after - 1));
+                runCount--;
+            } else if (joinsBefore) {
+                runs[2 * before + 1]++;
+            } else if (joinsAfter) {
+                runs[2 * after] = value;
+                runs[2 * after + 1]++;
+            } else {
+                if (2 * runCount == runs.length) {
+                    runs = Arrays.copyOf(runs, Math.max(4, 2 * runs.length));
+                }
+                System.arraycopy(runs, 2 * after, runs, 2 * after + 2, 2 * (runCount - after));
+                runs[2 * after] = value;
+                runs[2 * after + 1] = 0;
+                runCount++;
+            }
+            // Past the break-even with a flat bitmap (4 bytes/run vs 8 KB): re-pick
+            return 4L * runCount > 8192 ? optimize() : this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            int lo = 0, hi = runCount - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int start = runs[2 * mid];
+                if (value < start) hi = mid - 1;
+                else if (value > start + runs[2 * mid + 1]) lo = mid + 1;
+                else return true;
+            }
+            return false;
+        }
+
+        @Override
+        int cardinality() {
+            int card = 0;
+            for (int i = 0; i < runCount; i++) {
+                card += runs[2 * i + 1] + 1;
+            }
+            return card;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < runCount; i++) {
+                int start = runs[2 * i], end = start + runs[2 * i + 1];
+                for (int v = start; v <= end; v++) {
+                    action.accept(high | v);
+                }
+            }
+        }
+
+        @Override
+        int countRuns() {
+            return runCount;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + 2L * runs.length;
+        }
+
+        @Override
+        Container copy() {
+            return new RunContainer(Arrays.copyOf(runs, 2 * runCount), runCount);
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < runCount; i++) {
+                int start = runs[2 * i], end = start + runs[2 * i + 1];
+                for (int v = start; v <= end; v++) {
+                    bitmap.words[v >>> 6] |= 1L << v;
+                }
+                bitmap.cardinality += end - start + 1;
+            }
+            return bitmap;
+        }
+    }
+}
@@ -0,0 +1,587 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * ✅ SPILLING GROUP BY - groupingBy() and distinct() under a memory budget
+ *
+ * exercise5_2's groupingBy(...) and question5's distinct() keep EVERY key on
+ * the heap. With an unbounded key space (user ids, e-mails, URLs) that is an
+ * OutOfMemoryError waiting to happen.
+ *
+ *   SpillingGroupBy spilling = SpillingGroupBy.builder()
+ *                                             .memoryBudget(100_000)
+ *                                             .build();
+ *   Map<String, Long> perDept = spilling.groupingBy(employees.stream(), EMPLOYEE_CODEC,
+ *                                                   e -> e.department, Collectors.counting());
+ *   try (Stream<String> unique = spilling.distinct(words.stream(), Codec.strings())) { ... }
+ *
+ * 1. records are hash-partitioned into in-memory buckets
+ * 2. when more than memoryBudget records are held, the COLDEST partitions
+ *    (least recently written to) are appended to a temp file each, until
+ *    half the budget is free - hot keys keep aggregating in memory
+ * 3. at the end, partitions that never spilled are emitted straight from
+ *    memory; a spilled one is read back into a fresh, one-level-deeper
+ *    partitioning with a different hash, which spills again if it is still
+ *    too big
+ *
+ * - results equal the in-memory operators: groups keep encounter order
+ *   within a key, distinct() keeps first occurrences in encounter order
+ *   (via ExternalSort on the first-seen index)
+ * - null handling follows the JDK: distinct() accepts null elements, groupBy
+ *   rejects a null key ("element cannot be mapped to a null key")
+ * - only one partition's groups are materialized at a time while streaming
+ * - keys with equal hashCode() cannot be separated: after MAX_DEPTH levels
+ *   a partition is loaded whole, budget or not
+ * - temp files are deleted as partitions are consumed, and on close()
+ */
+public final class SpillingGroupBy {
+
+    static final int MAX_DEPTH = 4;
+
+    private final int memoryBudget;
+    private final int partitions;
+    private final Path tempDirectory;
+    private final LongAdder spilledRecords = new LongAdder();
+
+    private SpillingGroupBy(Builder builder) {
+        this.memoryBudget = builder.memoryBudget;
+        this.partitions = builder.partitions;
+        this.tempDirectory = builder.tempDirectory;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private int memoryBudget = 1_000_000;
+        private int partitions = 16;
+        private Path tempDirectory = Paths.get(System.getProperty("java.io.tmpdir"));
+
+        private Builder() {
+        }
+
+        /** Records buffered in memory at once, across all partitions */
+        public Builder memoryBudget(int records) {
+            if (records < 1) {
+                throw new IllegalArgumentException("memoryBudget must be at least 1: " + records);
+            }
+            this.memoryBudget = records;
+            return this;
+        }
+
+        /** Hash partitions per level; a power of two */
+        public Builder partitions(int count) {
+            if (count < 2 || Integer.bitCount(count) != 1) {
+                throw new IllegalArgumentException("partitions must be a power of two ≥ 2: " + count);
+            }
+            this.partitions = count;
+            return this;
+        }
+
+        public Builder tempDirectory(Path directory) {
+            this.tempDirectory = Objects.requireNonNull(directory, "directory");
+            return this;
+        }
+
+        public SpillingGroupBy build() {
+            return new SpillingGroupBy(this);
+        }
+    }
+
+    /** Records written to temp files by this instance so far */
+    public long spilledRecords() {
+        return spilledRecords.sum();
+    }
+
+    // ========================================
+    // Operators
+    // ========================================
+
+    /**
+     * groupingBy(classifier, downstream) as a lazy stream of groups, in no
+     * particular order. Consumes the input now; close the result to delete
+     * temp files early.
+     */
+    public <T, K, D> Stream<Map.Entry<K, D>> groupBy(Stream<? extends T> input, ExternalSort.Codec<T> codec,
+                                                      Function<? super T, ? extends K> classifier,
+                                                      Collector<? super T, ?, D> downstream) {
+        Objects.requireNonNull(downstream, "downstream");
+        return partition(input, codec, classifier, false)
+                .flatMap(groups -> groups.entrySet().stream()
+                                         .map(group -> new AbstractMap.SimpleImmutableEntry<K, D>(
+                                                 group.getKey(), group.getValue().stream().collect(downstream))));
+    }
+
+    /** For when the RESULT fits in memory but the raw groups do not (counting, summing, ...) */
+    public <T, K, D> Map<K, D> groupingBy(Stream<? extends T> input, ExternalSort.Codec<T> codec,
+                                          Function<? super T, ? extends K> classifier,
+                                          Collector<? super T, ?, D> downstream) {
+        try (Stream<Map.Entry<K, D>> groups = groupBy(input, codec, classifier, downstream)) {
+            Map<K, D> result = new HashMap<>();
+            groups.forEach(group -> result.put(group.getKey(), group.getValue()));
+            return result;
+        }
+    }
+
+    /** distinct(): first occurrences, in encounter order */
+    public <T> Stream<T> distinct(Stream<? extends T> input, ExternalSort.Codec<T> codec) {
+        long[] index = {0};
+        Stream<Indexed<T>> indexed = input.map(value -> new Indexed<T>(index[0]++, value));
+        Stream<Indexed<T>> firsts = partition(indexed, Indexed.codec(codec), element -> element.value, true)
+                .flatMap(groups -> groups.values().stream().map(group -> group.get(0)));
+        ExternalSort<Indexed<T>> byIndex = ExternalSort.builder(Comparator.comparingLong((Indexed<T> e) -> e.index),
+                                                                Indexed.codec(codec))
+                                                       .runSize(memoryBudget)
+                                                       .tempDirectory(tempDirectory)
+                                                       .build();
+        Stream<Indexed<T>> sorted = byIndex.sort(firsts);   // sort() closes `firsts`
+        return sorted.map(element -> element.value).onClose(sorted::close);
+    }
+
+    /** Feeds the input through a top-level Partitioner; the stream yields one map of groups per partition */
+    private <E, K> Stream<Map<K, List<E>>> partition(Stream<? extends E> input, ExternalSort.Codec<E> codec,
+                                                     Function<? super E, ? extends K> key, boolean firstOnly) {
+        Objects.requireNonNull(codec, "codec");
+        Objects.requireNonNull(key, "key");
+        TempFiles files = new TempFiles();
+        Partitioner<E, K> partitioner = new Partitioner<>(files, codec, key, firstOnly, 0);
+        try (Stream<? extends E> source = input) {
+            source.sequential().forEach(partitioner::accept);   // Partitioner is single-threaded
+            return partitioner.groups().onClose(files::deleteAll);
+        } catch (RuntimeException | Error e) {
+            partitioner.closeOutputs();
+            files.deleteAll();
+            throw e;
+        }
+    }
+
+    // ========================================
+    // Partitioning
+    // ========================================
+
+    /** Temp files of one operator call */
+    private static final class TempFiles {
+        final List<Path> files = new ArrayList<>();
+
+        void deleteAll() {
+            for (Path file : files) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ignored) {
+                    // best effort: the file is in the temp directory anyway
+                }
+            }
+            files.clear();
+        }
+    }
+
+    /** One level of hash partitioning */
+    private final class Partitioner<E, K> {
+        private final TempFiles files;
+        private final ExternalSort.Codec<E> codec;
+        private final Function<? super E, ? extends K> key;
+        private final boolean firstOnly;   // distinct: only the first record per key matters
+        private final int depth;
+        private final int budget;
+        private final int shift;
+
+        private final List<Map<K, List<E>>> memory;
+        private final int[] inMemory;       // records held per partition
+        private final long[] lastTouched;
+        private final Path[] spillFiles;
+        private final DataOutputStream[] outputs;
+        private final long[] spilled;       // records on disk per partition
+        private int held;
+        private long clock;
+
+        Partitioner(TempFiles files, ExternalSort.Codec<E> codec, Function<? super E, ? extends K> key,
+                    boolean firstOnly, int depth) {
+            this.files = files;
+            this.codec = codec;
+            this.key = key;
+            this.firstOnly = firstOnly;
+            this.depth = depth;
+            this.budget = depth < MAX_DEPTH ? memoryBudget : Integer.MAX_VALUE;
+            this.shift = 32 - Integer.numberOfTrailingZeros(partitions);
+            this.memory = new ArrayList<>(partitions);
+            for (int p = 0; p < partitions; p++) {
+                memory.add(new HashMap<>());
+            }
+            this.inMemory = new int[partitions];
+            this.lastTouched = new long[partitions];
+            this.spillFiles = new Path[partitions];
+            this.outputs = new DataOutputStream[partitions];
+            this.spilled = new long[partitions];
+        }
+
+        /** murmur3 fmix32, seeded by depth so that each level splits keys differently */
+        private int partitionOf(K k) {
+            int h = Objects.hashCode(k) + depth * 0x9E3779B9;
+            h ^= h >>> 16;
+            h *= 0x85EBCA6B;
+            h ^= h >>> 13;
+            h *= 0xC2B2AE35;
+            h ^= h >>> 16;
+            return h >>> shift;
+        }
+
+        void accept(E element) {
+            K k = key.apply(element);
+            if (k == null && !firstOnly) {
+                throw new NullPointerException("element cannot be mapped to a null key");
+            }
+            int p = partitionOf(k);
+            lastTouched[p] = ++clock;
+            Map<K, List<E>> groups = memory.get(p);
+            if (firstOnly) {
+                if (groups.putIfAbsent(k, Collections.singletonList(element)) != null) {
+                    return;   // repeats of keys that were spilled are dropped on reload
+                }
+            } else {
+                groups.computeIfAbsent(k, x -> new ArrayList<>(2)).add(element);
+            }
+            inMemory[p]++;
+            if (++held > budget) {
+                spillColdest();
+            }
+        }
+
+        private void spillColdest() {
+            while (held > budget / 2) {
+                int coldest = -1;
+                for (int p = 0; p < partitions; p++) {
+                    if (inMemory[p] > 0 && (coldest < 0 || lastTouched[p] < lastTouched[coldest])) {
+                        coldest = p;
+                    }
+                }
+                spill(coldest);
+            }
+        }
+
+        /** Appends the partition's buffered records to its file; later spills come after earlier ones */
+        private void spill(int p) {
+            try {
+                if (outputs[p] == null) {
+                    spillFiles[p] = Files.createTempFile(tempDirectory, "spilling-group-by-", ".part");
+                    files.files.add(spillFiles[p]);
+                    outputs[p] = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(spillFiles[p]), 1 << 16));
+                }
+                for (List<E> group : memory.get(p).values()) {
+                    for (E element : group) {
+                        codec.write(outputs[p], element);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            spilled[p] += inMemory[p];
+            spilledRecords.add(inMemory[p]);
+            held -= inMemory[p];
+            inMemory[p] = 0;
+            memory.set(p, new HashMap<>());   // a fresh table: clear() would keep the grown one
+        }
+
+        /**
+         * In-memory partitions first (freeing their share of the budget), then
+         * each spilled one re-partitioned from its file.
+         */
+        Stream<Map<K, List<E>>> groups() {
+            for (int p = 0; p < partitions; p++) {
+                if (outputs[p] != null) {
+                    if (inMemory[p] > 0) {
+                        spill(p);   // the newest records go last, keeping encounter order per key
+                    }
+                    try {
+                        outputs[p].close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }
+            Stream<Map<K, List<E>>> resident = IntStream.range(0, partitions)
+                                                        .filter(p -> spillFiles[p] == null && inMemory[p] > 0)
+                                                        .mapToObj(this::release);
+            Stream<Map<K, List<E>>> reloaded = IntStream.range(0, partitions)
+                                                        .filter(p -> spillFiles[p] != null)
+                                                        .boxed()
+                                                        .flatMap(this::reload);
+            return Stream.concat(resident, reloaded);
+        }
+
+        /** Failure path: closes every spill file still open for writing, quietly */
+        void closeOutputs() {
+            for (DataOutputStream output : outputs) {
+                if (output != null) {
+                    try {
+                        output.close();
+                    } catch (IOException ignored) {
+                        // the files are deleted next anyway
+                    }
+                }
+            }
+        }
+
+        private Map<K, List<E>> release(int p) {
+            Map<K, List<E>> groups = memory.get(p);
+            memory.set(p, null);
+            held -= inMemory[p];
+            inMemory[p] = 0;
+            return groups;
+        }
+
+        private Stream<Map<K, List<E>>> reload(int p) {
+            Partitioner<E, K> deeper = new Partitioner<>(files, codec, key, firstOnly, depth + 1);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(spillFiles[p]), 1 << 16))) {
+                for (long i = spilled[p]; i > 0; i--) {
+                    deeper.accept(codec.read(in));
+                }
+                Files.delete(spillFiles[p]);
+            } catch (IOException e) {
+                deeper.closeOutputs();
+                throw new UncheckedIOException(e);
+            } catch (RuntimeException | Error e) {
+                deeper.closeOutputs();
+                throw e;
+            }
+            files.files.remove(spillFiles[p]);
+            return deeper.groups();
+        }
+    }
+
+    /** distinct() record: the value and its position in the input */
+    private static final class Indexed<T> {
+        final long index;
+        final T value;
+
+        Indexed(long index, T value) {
+            this.index = index;
+            this.value = value;
+        }
+
+        static <T> ExternalSort.Codec<Indexed<T>> codec(ExternalSort.Codec<T> values) {
+            return new ExternalSort.Codec<Indexed<T>>() {
+                @Override
+                public void write(DataOutput out, Indexed<T> element) throws IOException {
+                    out.writeLong(element.index);
+                    out.writeBoolean(element.value != null);   // distinct() keeps a null, like Stream.distinct()
+                    if (element.value != null) {
+                        values.write(out, element.value);
+                    }
+                }
+
+                @Override
+                public Indexed<T> read(DataInput in) throws IOException {
+                    long index = in.readLong();
+                    return new Indexed<>(index, in.readBoolean() ? values.read(in) : null);
+                }
+            };
+        }
+    }
+
+    // ========================================
+    // Demo
+    // ========================================
+
+    /** name (UTF), department (UTF), salary (double) */
+    static final ExternalSort.Codec<MapPracticeExercises.EmployeeWithDept> EMPLOYEE_CODEC =
+            new ExternalSort.Codec<MapPracticeExercises.EmployeeWithDept>() {
+        @Override
+        public void write(DataOutput out, MapPracticeExercises.EmployeeWithDept e) throws IOException {
+            out.writeUTF(e.name);
+            out.writeUTF(e.department);
+            out.writeDouble(e.salary);
+        }
+
+        @Override
+        public MapPracticeExercises.EmployeeWithDept read(DataInput in) throws IOException {
+            return new MapPracticeExercises.EmployeeWithDept(in.readUTF(), in.readUTF(), in.readDouble());
+        }
+    };
+
+    public static void main(String[] args) throws IOException {
+        Path tempDirectory = Files.createTempDirectory("spilling-group-by-demo");
+        try {
+            System.out.println("=== Example 1: exercise5_2 with a 2-record budget ===\n");
+            List<MapPracticeExercises.EmployeeWithDept> employees = Arrays.asList(
+                new MapPracticeExercises.EmployeeWithDept("Raj", "IT", 50000),
+                new MapPracticeExercises.EmployeeWithDept("Aman", "HR", 40000),
+                new MapPracticeExercises.EmployeeWithDept("Priya", "IT", 45000),
+                new MapPracticeExercises.EmployeeWithDept("Kumar", "Sales", 35000)
+            );
+            SpillingGroupBy tiny = builder().memoryBudget(2).partitions(2).tempDirectory(tempDirectory).build();
+            Map<String, List<Integer>> salaries = tiny.groupingBy(employees.stream(), EMPLOYEE_CODEC, e -> e.department,
+                                                                  Collectors.mapping(e -> (int) e.salary, Collectors.toList()));
+            System.out.println("Result:   " + new TreeMap<>(salaries));
+            System.out.println("Expected: {HR=[40000], IT=[50000, 45000], Sales=[35000]}");
+            System.out.println("Records spilled: " + tiny.spilledRecords());
+
+            System.out.println("\n=== Example 2: question5 distinct() with a 2-record budget ===\n");
+            List<String> departments = Arrays.asList("IT", "HR", "IT", "Finance", "HR", "IT");
+            try (Stream<String> unique = tiny.distinct(departments.stream().map(String::toUpperCase), ExternalSort.Codec.strings())) {
+                System.out.println("Result:   " + unique.collect(Collectors.toList()));
+            }
+            System.out.println("Expected: " + departments.stream().map(String::toUpperCase).distinct().collect(Collectors.toList()));
+
+            System.out.println("\n=== Example 3: Same results as in memory, at tiny budgets ===\n");
+            selfCheck(tempDirectory);
+
+            System.out.println("\n=== Example 4: Performance Comparison ===\n");
+            int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+            performanceComparison(size, tempDirectory);
+        } finally {
+            try (Stream<Path> leftovers = Files.list(tempDirectory)) {
+                long count = leftovers.count();
+                if (count > 0) {
+                    throw new AssertionError(count + " temp file(s) left behind");
+                }
+            }
+            Files.delete(tempDirectory);
+        }
+    }
+
+    static List<MapPracticeExercises.EmployeeWithDept> randomEmployees(int size, int keys, long seed) {
+        Random random = new Random(seed);
+        List<MapPracticeExercises.EmployeeWithDept> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // Skewed: a few hot departments, a long tail of cold ones
+            int dept = (int) Math.min(keys - 1, Math.abs(random.nextGaussian()) * keys / 8);
+            employees.add(new MapPracticeExercises.EmployeeWithDept("E" + i, "D" + dept, 30_000 + random.nextInt(70_000)));
+        }
+        return employees;
+    }
+
+    static void selfCheck(Path tempDirectory) {
+        List<MapPracticeExercises.EmployeeWithDept> employees = randomEmployees(20_000, 3_000, 41);
+        Collector<MapPracticeExercises.EmployeeWithDept, ?, List<String>> names =
+                Collectors.mapping(e -> e.name, Collectors.toList());
+        Map<String, List<String>> expectedGroups = employees.stream().collect(Collectors.groupingBy(e -> e.department, names));
+        List<String> expectedDistinct = employees.stream().map(e -> e.department).distinct().collect(Collectors.toList());
+
+        for (int budget : new int[] {1, 7, 64, 1_000, 100_000}) {
+            SpillingGroupBy spilling = builder().memoryBudget(budget).partitions(4).tempDirectory(tempDirectory).build();
+            Map<String, List<String>> groups = spilling.groupingBy(employees.stream(), EMPLOYEE_CODEC, e -> e.department, names);
+            if (!groups.equals(expectedGroups)) {
+                throw new AssertionError("groupBy differs from groupingBy() at budget " + budget);
+            }
+            List<String> distinct;
+            try (Stream<String> unique = spilling.distinct(employees.stream().map(e -> e.department), ExternalSort.Codec.strings())) {
+                distinct = unique.collect(Collectors.toList());
+            }
+            if (!distinct.equals(expectedDistinct)) {
+                throw new AssertionError("distinct differs from distinct() at budget " + budget);
+            }
+            System.out.printf("budget %,7d: groupBy and distinct match, %,8d records spilled%n", budget, spilling.spilledRecords());
+        }
+
+        // One key larger than the budget: cannot be split, loaded whole after MAX_DEPTH levels
+        List<MapPracticeExercises.EmployeeWithDept> oneDept = employees.stream()
+                .map(e -> new MapPracticeExercises.EmployeeWithDept(e.name, "IT", e.salary))
+                .collect(Collectors.toList());
+        SpillingGroupBy small = builder().memoryBudget(100).tempDirectory(tempDirectory).build();
+        Map<String, List<String>> single = small.groupingBy(oneDept.stream(), EMPLOYEE_CODEC, e -> e.department, names);
+        if (!single.equals(oneDept.stream().collect(Collectors.groupingBy(e -> e.department, names)))) {
+            throw new AssertionError("single oversized group differs");
+        }
+        System.out.println("one group of " + oneDept.size() + " at budget 100: matches");
+
+        // An abandoned stream still cleans up on close()
+        SpillingGroupBy abandoned = builder().memoryBudget(10).tempDirectory(tempDirectory).build();
+        try (Stream<Map.Entry<String, Long>> groups = abandoned.groupBy(employees.stream(), EMPLOYEE_CODEC,
+                                                                        e -> e.department, Collectors.counting())) {
+            groups.findFirst();
+        }
+
+        // Nulls behave as in memory: distinct() keeps one, groupBy rejects a null key
+        List<String> withNulls = employees.stream().limit(2_000)
+                                          .map(e -> e.name.endsWith("7") ? null : e.department)
+                                          .collect(Collectors.toList());
+        for (int budget : new int[] {1, 64}) {
+            SpillingGroupBy spilling = builder().memoryBudget(budget).partitions(4).tempDirectory(tempDirectory).build();
+            try (Stream<String> unique = spilling.distinct(withNulls.stream(), ExternalSort.Codec.strings())) {
+                if (!unique.collect(Collectors.toList()).equals(withNulls.stream().distinct().collect(Collectors.toList()))) {
+                    throw new AssertionError("distinct with nulls differs from distinct() at budget " + budget);
+                }
+            }
+        }
+        try {
+            small.groupingBy(employees.stream(), EMPLOYEE_CODEC, e -> e.name.endsWith("7") ? null : e.department, names);
+            throw new AssertionError("a null key must be rejected, as groupingBy() does");
+        } catch (NullPointerException expected) {
+            System.out.println("null elements: distinct keeps one, groupBy rejects a null key - as in memory");
+        }
+
+        // A classifier failing while records are spilled - first pass or reload - closes every spill file
+        Path fds = Paths.get("/proc/self/fd");
+        long openBefore = Files.isDirectory(fds) ? countEntries(fds) : -1;
+        for (int failAt : new int[] {employees.size() / 2, employees.size() + 500}) {
+            int[] calls = {0};
+            try {
+                builder().memoryBudget(10).partitions(4).tempDirectory(tempDirectory).build()
+                         .groupingBy(employees.stream(), EMPLOYEE_CODEC, e -> {
+                             if (++calls[0] == failAt) {
+                                 throw new IllegalStateException("classifier failed");
+                             }
+                             return e.department;
+                         }, Collectors.counting());
+                throw new AssertionError("the classifier's exception must propagate");
+            } catch (IllegalStateException expected) {
+                // temp files are checked when main() ends
+            }
+        }
+        if (openBefore >= 0 && countEntries(fds) != openBefore) {
+            throw new AssertionError((countEntries(fds) - openBefore) + " spill file(s) left open after a failure");
+        }
+        System.out.println("failure in accept and in reload: spill files closed and deleted");
+    }
+
+    private static long countEntries(Path directory) {
+        try (Stream<Path> entries = Files.list(directory)) {
+            return entries.count();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void performanceComparison(int size, Path tempDirectory) {
+        List<MapPracticeExercises.EmployeeWithDept> employees = randomEmployees(size, size / 5, 43);
+        int budget = size / 10;
+
+        long best1 = Long.MAX_VALUE, best2 = Long.MAX_VALUE, best3 = Long.MAX_VALUE, best4 = Long.MAX_VALUE;
+        Map<String, Long> expected = null, counted = null;
+        long expectedDistinct = 0, distinct = 0, spilled = 0;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            expected = employees.stream().collect(Collectors.groupingBy(e -> e.department, Collectors.counting()));
+            best1 = Math.min(best1, System.nanoTime() - start);
+
+            SpillingGroupBy spilling = builder().memoryBudget(budget).tempDirectory(tempDirectory).build();
+            start = System.nanoTime();
+            counted = spilling.groupingBy(employees.stream(), EMPLOYEE_CODEC, e -> e.department, Collectors.counting());
+            best2 = Math.min(best2, System.nanoTime() - start);
+            spilled = spilling.spilledRecords();
+
+            start = System.nanoTime();
+            expectedDistinct = employees.stream().map(e -> e.department).distinct().count();
+            best3 = Math.min(best3, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            try (Stream<String> unique = spilling.distinct(employees.stream().map(e -> e.department), ExternalSort.Codec.strings())) {
+                distinct = unique.count();
+            }
+            best4 = Math.min(best4, System.nanoTime() - start);
+        }
+        if (!counted.equals(expected) || distinct != expectedDistinct) {
+            throw new AssertionError("spilling results differ from in-memory results");
+        }
+        System.out.println(size + " employees, " + expected.size() + " departments, budget " + budget + " records\n");
+        System.out.printf("groupingBy(counting()) in memory   %7.1f ms%n", best1 / 1e6);
+        System.out.printf("SpillingGroupBy.groupingBy         %7.1f ms   (%,d records spilled)%n", best2 / 1e6, spilled);
+        System.out.printf("distinct() in memory               %7.1f ms%n", best3 / 1e6);
+        System.out.printf("SpillingGroupBy.distinct           %7.1f ms%n", best4 / 1e6);
+    }
+}
@@ -0,0 +1,619 @@
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * ✅ STREAM JOIN - Relating Employee and User streams by a shared key
+ *
+ * Employee (with an e-mail) and PracticalCodingQuestions.User (name, e-mail)
+ * live side by side with no way to relate them. The usual stream idiom
+ *
+ *   Map<String, List<User>> byEmail = users.stream().collect(groupingBy(User::getEmail));
+ *   employees.stream().flatMap(e -> byEmail.getOrDefault(e.getEmail(), List.of()).stream().map(...))
+ *
+ * allocates a HashMap node and an ArrayList per key, and a Stream per
+ * probing row. StreamJoin offers two strategies:
+ *
+ *   Stream<String> pairs = StreamJoin.hashJoin(employees.stream(), Employee::getEmail,
+ *                                              users.stream(), User::getEmail,
+ *                                              JoinType.LEFT, (e, u) -> ...);
+ *
+ * HASH JOIN - the right (build) side is loaded into an open-addressing table:
+ *   rows live in one array, rows sharing a key are chained through an int[]
+ *   - no per-key objects. The left (probe) side is streamed lazily.
+ *   hashJoinInt() keys the table by int (ids): no boxing at all.
+ *
+ * SORT-MERGE JOIN - for inputs ALREADY sorted by the key (e.g. KWayMerge or
+ *   ExternalSort output): both sides are streamed in one pass; only the
+ *   right rows sharing the current key are buffered. Unsorted input fails
+ *   with an IllegalStateException instead of silently losing matches.
+ *
+ * - INNER: one output per matching pair; LEFT: plus (left, null) for every
+ *   left row without a match
+ * - null keys never match (as in SQL)
+ * - output follows the left input's order; within a left row, matches come
+ *   in right input order
+ */
+public final class StreamJoin {
+
+    public enum JoinType { INNER, LEFT }
+
+    private StreamJoin() {
+    }
+
+    // ========================================
+    // Hash join
+    // ========================================
+
+    public static <L, R, K, O> Stream<O> hashJoin(Stream<? extends L> left, Function<? super L, ? extends K> leftKey,
+                                                 Stream<? extends R> right, Function<? super R, ? extends K> rightKey,
+                                                 JoinType type, BiFunction<? super L, ? super R, ? extends O> combiner) {
+        Objects.requireNonNull(leftKey, "leftKey");
+        ObjectKeyTable<K, R> table = ObjectKeyTable.build(right, rightKey);
+        return probe(left, l -> {
+            K key = leftKey.apply(l);
+            return key == null ? -1 : table.find(key);
+        }, table, type, combiner);
+    }
+
+    /** Same, keyed by int: the table stores keys in an int[] */
+    public static <L, R, O> Stream<O> hashJoinInt(Stream<? extends L> left, ToIntFunction<? super L> leftKey,
+                                                  Stream<? extends R> right, ToIntFunction<? super R> rightKey,
+                                                  JoinType type, BiFunction<? super L, ? super R, ? extends O> combiner) {
+        Objects.requireNonNull(leftKey, "leftKey");
+        IntKeyTable<R> table = IntKeyTable.build(right, rightKey);
+        return probe(left, l -> table.find(leftKey.applyAsInt(l)), table, type, combiner);
+    }
+
+    private static <L, R, O> Stream<O> probe(Stream<? extends L> left, ToIntFunction<L> firstMatch, Table<R> table,
+                                             JoinType type, BiFunction<? super L, ? super R, ? extends O> combiner) {
+        Objects.requireNonNull(type, "type");
+        Objects.requireNonNull(combiner, "combiner");
+        @SuppressWarnings("unchecked")
+        Spliterator<L> source = (Spliterator<L>) left.spliterator();
+        Spliterator<O> joined = new ProbeSpliterator<>(source, firstMatch, table, type == JoinType.LEFT, combiner);
+        return StreamSupport.stream(joined, false).onClose(left::close);
+    }
+
+    /** Build-side rows; next[i] is the following row with the same key, or -1 */
+    abstract static class Table<R> {
+        final Object[] rows;
+        final int[] next;
+        final int[] heads;   // slot → first row, -1 if the slot is empty
+        final int mask;
+
+        Table(Object[] rows) {
+            this.rows = rows;
+            this.next = new int[rows.length];
+            int capacity = Integer.highestOneBit(Math.max(2, rows.length * 2 - 1)) << 1;   // load factor ≤ 0.5
+            this.heads = new int[capacity];
+            Arrays.fill(heads, -1);
+            this.mask = capacity - 1;
+        }
+
+        @SuppressWarnings("unchecked")
+        final R row(int i) {
+            return (R) rows[i];
+        }
+
+        static int spread(int h) {
+            h *= 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    static final class ObjectKeyTable<K, R> extends Table<R> {
+        private final Object[] keys;
+        private final int[] hashes;
+
+        private ObjectKeyTable(Object[] rows) {
+            super(rows);
+            keys = new Object[heads.length];
+            hashes = new int[heads.length];
+        }
+
+        static <K, R> ObjectKeyTable<K, R> build(Stream<? extends R> right, Function<? super R, ? extends K> rightKey) {
+            Objects.requireNonNull(rightKey, "rightKey");
+            List<Object> rows = new ArrayList<>();
+            List<Object> rowKeys = new ArrayList<>();
+            try (Stream<? extends R> source = right) {
+                source.forEach(r -> {
+                    K key = rightKey.apply(r);
+                    if (key != null) {   // a null key can never match
+                        rows.add(r);
+                        rowKeys.add(key);
+                    }
+                });
+            }
+            ObjectKeyTable<K, R> table = new ObjectKeyTable<>(rows.toArray());
+            // Backwards, prepending to each chain: chains end up in input order
+            for (int i = rows.size() - 1; i >= 0; i--) {
+                table.insert(rowKeys.get(i), i);
+            }
+            return table;
+        }
+
+        private void insert(Object key, int row) {
+            int hash = key.hashCode();
+            int slot = spread(hash) & mask;
+            while (heads[slot] >= 0 && !(hashes[slot] == hash && keys[slot].equals(key))) {
+                slot = (slot + 1) & mask;
+            }
+            if (heads[slot] < 0) {
+                keys[slot] = key;
+                hashes[slot] = hash;
+            }
+            next[row] = heads[slot];
+            heads[slot] = row;
+        }
+
+        /** First row with this key, or -1 */
+        int find(Object key) {
+            int hash = key.hashCode();
+            int slot = spread(hash) & mask;
+            while (heads[slot] >= 0) {
+                if (hashes[slot] == hash && keys[slot].equals(key)) {
+                    return heads[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+    }
+
+    static final class IntKeyTable<R> extends Table<R> {
+        private final int[] keys;
+
+        private IntKeyTable(Object[] rows) {
+            super(rows);
+            keys = new int[heads.length];
+        }
+
+        static <R> IntKeyTable<R> build(Stream<? extends R> right, ToIntFunction<? super R> rightKey) {
+            Objects.requireNonNull(rightKey, "rightKey");
+            Object[] rows;
+            try (Stream<? extends R> source = right) {
+                rows = source.toArray();
+            }
+            IntKeyTable<R> table = new IntKeyTable<>(rows);
+            for (int i = rows.length - 1; i >= 0; i--) {
+                table.insert(rightKey.applyAsInt(table.row(i)), i);
+            }
+            return table;
+        }
+
+        private void insert(int key, int row) {
+            int slot = spread(key) & mask;
+            while (heads[slot] >= 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            next[row] = heads[slot];
+            heads[slot] = row;
+        }
+
+        int find(int key) {
+            int slot = spread(key) & mask;
+            while (heads[slot] >= 0) {
+                if (keys[slot] == key) {
+                    return heads[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+    }
+
+    /** Streams the left side; for each row walks its chain of build rows */
+    private static final class ProbeSpliterator<L, R, O> extends Spliterators.AbstractSpliterator<O> {
+        private final Spliterator<L> left;
+        private final ToIntFunction<L> firstMatch;
+        private final Table<R> table;
+        private final boolean leftJoin;
+        private final BiFunction<? super L, ? super R, ? extends O> combiner;
+        private L current;
+        private int cursor = -1;   // next build row to pair with `current`
+
+        ProbeSpliterator(Spliterator<L> left, ToIntFunction<L> firstMatch, Table<R> table, boolean leftJoin,
+                         BiFunction<? super L, ? super R, ? extends O> combiner) {
+            super(Long.MAX_VALUE, left.characteristics() & Spliterator.ORDERED);
+            this.left = left;
+            this.firstMatch = firstMatch;
+            this.table = table;
+            this.leftJoin = leftJoin;
+            this.combiner = combiner;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super O> action) {
+            while (true) {
+                if (cursor >= 0) {
+                    R match = table.row(cursor);
+                    cursor = table.next[cursor];
+                    action.accept(combiner.apply(current, match));
+                    return true;
+                }
+                if (!left.tryAdvance(l -> current = l)) {
+                    current = null;
+                    return false;
+                }
+                cursor = firstMatch.applyAsInt(current);
+                if (cursor < 0 && leftJoin) {
+                    action.accept(combiner.apply(current, null));
+                    return true;
+                }
+            }
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super O> action) {
+            for (; cursor >= 0; cursor = table.next[cursor]) {
+                action.accept(combiner.apply(current, table.row(cursor)));
+            }
+            current = null;
+            left.forEachRemaining(l -> {
+                int i = firstMatch.applyAsInt(l);
+                if (i < 0) {
+                    if (leftJoin) {
+                        action.accept(combiner.apply(l, null));
+                    }
+                    return;
+                }
+                for (; i >= 0; i = table.next[i]) {
+                    action.accept(combiner.apply(l, table.row(i)));
+                }
+            });
+        }
+    }
+
+    // ========================================
+    // Sort-merge join
+    // ========================================
+
+    /** Both inputs must already be sorted by their key in `keyOrder` */
+    public static <L, R, K, O> Stream<O> mergeJoin(Stream<? extends L> left, Function<? super L, ? extends K> leftKey,
+                                                  Stream<? extends R> right, Function<? super R, ? extends K> rightKey,
+                                                  Comparator<? super K> keyOrder, JoinType type,
+                                                  BiFunction<? super L, ? super R, ? extends O> combiner) {
+        Objects.requireNonNull(leftKey, "leftKey");
+        Objects.requireNonNull(rightKey, "rightKey");
+        Objects.requireNonNull(keyOrder, "keyOrder");
+        Objects.requireNonNull(type, "type");
+        Objects.requireNonNull(combiner, "combiner");
+        @SuppressWarnings("unchecked")
+        Spliterator<L> l = (Spliterator<L>) left.spliterator();
+        @SuppressWarnings("unchecked")
+        Spliterator<R> r = (Spliterator<R>) right.spliterator();
+        MergeSpliterator<L, R, K, O> merge =
+                new MergeSpliterator<>(l, leftKey, r, rightKey, keyOrder, type == JoinType.LEFT, combiner);
+        return StreamSupport.stream(merge, false).onClose(() -> {
+            try {
+                left.close();
+            } finally {
+                right.close();
+            }
+        });
+    }
+
+    private static final class MergeSpliterator<L, R, K, O> extends Spliterators.AbstractSpliterator<O> {
+        private final Spliterator<L> left;
+        private final Function<? super L, ? extends K> leftKey;
+        private final Spliterator<R> right;
+        private final Function<? super R, ? extends K> rightKey;
+        private final Comparator<? super K> keyOrder;
+        private final boolean leftJoin;
+        private final BiFunction<? super L, ? super R, ? extends O> combiner;
+
+        private L current;
+        private List<R> pending = Collections.emptyList();   // matches still to pair with `current`
+        private int pendingAt;
+
+        private R rightHead;               // lookahead, valid while rightLoaded
+        private K rightHeadKey;
+        private boolean rightLoaded;
+        private K lastRightKey;
+
+        private final List<R> run = new ArrayList<>();   // right rows with key runKey
+        private K runKey;
+
+        MergeSpliterator(Spliterator<L> left, Function<? super L, ? extends K> leftKey,
+                         Spliterator<R> right, Function<? super R, ? extends K> rightKey,
+                         Comparator<? super K> keyOrder, boolean leftJoin,
+                         BiFunction<? super L, ? super R, ? extends O> combiner) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.left = left;
+            this.leftKey = leftKey;
+            this.right = right;
+            this.rightKey = rightKey;
+            this.keyOrder = keyOrder;
+            this.leftJoin = leftJoin;
+            this.combiner = combiner;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super O> action) {
+            while (true) {
+                if (pendingAt < pending.size()) {
+                    action.accept(combiner.apply(current, pending.get(pendingAt++)));
+                    return true;
+                }
+                if (!left.tryAdvance(l -> current = l)) {
+                    current = null;
+                    return false;
+                }
+                K key = leftKey.apply(current);
+                pending = key == null ? Collections.emptyList() : matches(key);
+                pendingAt = 0;
+                if (pending.isEmpty() && leftJoin) {
+                    action.accept(combiner.apply(current, null));
+                    return true;
+                }
+            }
+        }
+
+        /** Right rows equal to `key`; consecutive equal left keys reuse the buffered run */
+        private List<R> matches(K key) {
+            if (runKey != null) {   // runKey is the previous non-null left key
+                int c = keyOrder.compare(key, runKey);
+                if (c == 0) {
+                    return run;
+                }
+                if (c < 0) {
+                    throw new IllegalStateException("left input is not sorted by key: " + key + " after " + runKey);
+                }
+            }
+            run.clear();
+            runKey = key;
+            while (rightLoaded || pullRight()) {
+                int c = keyOrder.compare(rightHeadKey, key);
+                if (c > 0) {
+                    break;
+                }
+                if (c == 0) {
+                    run.add(rightHead);
+                }
+                rightLoaded = false;
+            }
+            return run;
+        }
+
+        private boolean pullRight() {
+            while (right.tryAdvance(r -> rightHead = r)) {
+                K key = rightKey.apply(rightHead);
+                if (key == null) {
+                    continue;   // never matches
+                }
+                if (lastRightKey != null && keyOrder.compare(key, lastRightKey) < 0) {
+                    throw new IllegalStateException("right input is not sorted by key: " + key + " after " + lastRightKey);
+                }
+                lastRightKey = key;
+                rightHeadKey = key;
+                rightLoaded = true;
+                return true;
+            }
+            rightHead = null;
+            return false;
+        }
+    }
+
+    // ========================================
+    // Demo
+    // ========================================
+
+    public static void main(String[] args) {
+        System.out.println("=== Example 1: Employees ⋈ Users on e-mail ===\n");
+        List<Employee> employees = ObjectTransformationExample.getEmployees();
+        List<PracticalCodingQuestions.User> users = Arrays.asList(
+            new PracticalCodingQuestions.User("raj.k", "raj@company.com"),
+            new PracticalCodingQuestions.User("neha.v", "neha@company.com"),
+            new PracticalCodingQuestions.User("neha.admin", "neha@company.com"),
+            new PracticalCodingQuestions.User("guest", "guest@company.com")
+        );
+        BiFunction<Employee, PracticalCodingQuestions.User, String> pair =
+                (e, u) -> e.getName() + " → " + (u == null ? "(no user)" : u.getName());
+
+        System.out.println("Inner (hash):  " + hashJoin(employees.stream(), Employee::getEmail,
+                                                        users.stream(), PracticalCodingQuestions.User::getEmail,
+                                                        JoinType.INNER, pair).collect(Collectors.toList()));
+        System.out.println("Left (hash):   " + hashJoin(employees.stream(), Employee::getEmail,
+                                                        users.stream(), PracticalCodingQuestions.User::getEmail,
+                                                        JoinType.LEFT, pair).collect(Collectors.toList()));
+        System.out.println("Left (merge):  " + mergeJoin(employees.stream().sorted(Comparator.comparing(Employee::getEmail)),
+                                                         Employee::getEmail,
+                                                         users.stream().sorted(Comparator.comparing(PracticalCodingQuestions.User::getEmail)),
+                                                         PracticalCodingQuestions.User::getEmail,
+                                                         Comparator.<String>naturalOrder(), JoinType.LEFT, pair)
+                                                  .collect(Collectors.toList()));
+
+        System.out.println("\n=== Example 2: Unsorted input to a merge join ===\n");
+        try {
+            mergeJoin(employees.stream(), Employee::getEmail, users.stream(), PracticalCodingQuestions.User::getEmail,
+                      Comparator.<String>naturalOrder(), JoinType.INNER, pair).count();
+        } catch (IllegalStateException expected) {
+            System.out.println("Caught: " + expected.getMessage());
+        }
+
+        System.out.println("\n=== Example 3: Same pairs from every strategy ===\n");
+        selfCheck();
+
+        System.out.println("\n=== Example 4: Performance Comparison ===\n");
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        performanceComparison(size);
+    }
+
+    /** size employees; size/2 users over 60% of their e-mails, every 10th e-mail shared by two users */
+    static List<Employee> employees(int size, Random random) {
+        List<Employee> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            employees.add(new Employee(i, "E" + i, "D" + random.nextInt(20), 30_000 + random.nextInt(70_000),
+                                       "user" + random.nextInt(size) + "@company.com"));
+        }
+        return employees;
+    }
+
+    static List<PracticalCodingQuestions.User> users(int size, Random random) {
+        List<PracticalCodingQuestions.User> users = new ArrayList<>(size / 2);
+        for (int i = 0; i < size / 2; i++) {
+            int id = random.nextInt(size);
+            users.add(new PracticalCodingQuestions.User("U" + i, "user" + id + "@company.com"));
+            if (i % 10 == 0) {
+                users.add(new PracticalCodingQuestions.User("U" + i + "-alt", "user" + id + "@company.com"));
+            }
+        }
+        return users;
+    }
+
+    static List<PracticalCodingQuestions.Employee> directory(int size, Random random) {
+        List<PracticalCodingQuestions.Employee> directory = new ArrayList<>(size / 2);
+        for (int i = 0; i < size / 2; i++) {
+            directory.add(new PracticalCodingQuestions.Employee(random.nextInt(size), "Desk" + i, "Floor" + random.nextInt(9)));
+        }
+        return directory;
+    }
+
+    static void selfCheck() {
+        Random random = new Random(47);
+        int size = 50_000;
+        List<Employee> employees = employees(size, random);
+        List<PracticalCodingQuestions.User> users = users(size, random);
+        List<PracticalCodingQuestions.Employee> directory = directory(size, random);
+        BiFunction<Employee, Object, String> label = (e, other) -> e.getId() + "|" + other;
+
+        for (JoinType type : JoinType.values()) {
+            // Reference: nested loops over a groupingBy map, in left order
+            Map<String, List<PracticalCodingQuestions.User>> byEmail =
+                    users.stream().collect(Collectors.groupingBy(PracticalCodingQuestions.User::getEmail));
+            List<String> expected = employees.stream().flatMap(e -> {
+                List<PracticalCodingQuestions.User> matches = byEmail.getOrDefault(e.getEmail(), Collections.emptyList());
+                if (matches.isEmpty()) {
+                    return type == JoinType.LEFT ? Stream.of(label.apply(e, null)) : Stream.empty();
+                }
+                return matches.stream().map(u -> label.apply(e, u));
+            }).collect(Collectors.toList());
+
+            List<String> hashed = hashJoin(employees.stream(), Employee::getEmail, users.stream(),
+                                           PracticalCodingQuestions.User::getEmail, type, label)
+                    .collect(Collectors.toList());
+            if (!hashed.equals(expected)) {
+                throw new AssertionError(type + " hash join differs from the reference");
+            }
+            // tryAdvance path (iterator) must agree with the forEachRemaining path
+            List<String> stepped = new ArrayList<>();
+            Iterator<String> it = hashJoin(employees.stream(), Employee::getEmail, users.stream(),
+                                           PracticalCodingQuestions.User::getEmail, type, label).iterator();
+            while (it.hasNext()) {
+                stepped.add(it.next());
+            }
+            if (!stepped.equals(expected)) {
+                throw new AssertionError(type + " hash join (iterator) differs from the reference");
+            }
+
+            // Merge join emits in key order; a stable sort by e-mail gives the same sequence
+            Comparator<Employee> byMail = Comparator.comparing(Employee::getEmail);
+            List<String> merged = mergeJoin(employees.stream().sorted(byMail), Employee::getEmail,
+                                            users.stream().sorted(Comparator.comparing(PracticalCodingQuestions.User::getEmail)),
+                                            PracticalCodingQuestions.User::getEmail,
+                                            Comparator.<String>naturalOrder(), type, label)
+                    .collect(Collectors.toList());
+            List<String> expectedByKey = hashJoin(employees.stream().sorted(byMail), Employee::getEmail, users.stream(),
+                                                  PracticalCodingQuestions.User::getEmail, type, label)
+                    .collect(Collectors.toList());
+            if (!merged.equals(expectedByKey)) {
+                throw new AssertionError(type + " merge join differs from the hash join");
+            }
+
+            Map<Integer, List<PracticalCodingQuestions.Employee>> byId =
+                    directory.stream().collect(Collectors.groupingBy(PracticalCodingQuestions.Employee::getId));
+            List<String> expectedIds = employees.stream().flatMap(e -> {
+                List<PracticalCodingQuestions.Employee> matches = byId.getOrDefault(e.getId(), Collections.emptyList());
+                if (matches.isEmpty()) {
+                    return type == JoinType.LEFT ? Stream.of(label.apply(e, null)) : Stream.empty();
+                }
+                return matches.stream().map(d -> label.apply(e, d.getName()));
+            }).collect(Collectors.toList());
+            List<String> ints = hashJoinInt(employees.stream(), Employee::getId, directory.stream(),
+                                            PracticalCodingQuestions.Employee::getId, type,
+                                            (e, d) -> label.apply(e, d == null ? null : d.getName()))
+                    .collect(Collectors.toList());
+            if (!ints.equals(expectedIds)) {
+                throw new AssertionError(type + " int hash join differs from the reference");
+            }
+            System.out.printf("%-5s  e-mail: %,d pairs (hash = merge = reference)   id: %,d pairs%n",
+                              type, expected.size(), expectedIds.size());
+        }
+    }
+
+    static void performanceComparison(int size) {
+        Random random = new Random(53);
+        List<Employee> employees = employees(size, random);
+        List<PracticalCodingQuestions.User> users = users(size, random);
+        List<PracticalCodingQuestions.Employee> directory = directory(size, random);
+        List<Employee> employeesByMail = new ArrayList<>(employees);
+        employeesByMail.sort(Comparator.comparing(Employee::getEmail));
+        List<PracticalCodingQuestions.User> usersByMail = new ArrayList<>(users);
+        usersByMail.sort(Comparator.comparing(PracticalCodingQuestions.User::getEmail));
+
+        System.out.println(size + " employees, " + users.size() + " users, " + directory.size() + " directory entries\n");
+        System.out.println("e-mail join                       INNER        LEFT");
+        for (String strategy : new String[] {"groupingBy + flatMap", "hashJoin", "mergeJoin (pre-sorted)"}) {
+            long[] best = {Long.MAX_VALUE, Long.MAX_VALUE};
+            long[] counts = new long[2];
+            for (int round = 0; round < 3; round++) {
+                for (JoinType type : JoinType.values()) {
+                    long start = System.nanoTime();
+                    long count;
+                    if (strategy.startsWith("groupingBy")) {
+                        Map<String, List<PracticalCodingQuestions.User>> byEmail =
+                                users.stream().collect(Collectors.groupingBy(PracticalCodingQuestions.User::getEmail));
+                        count = employees.stream().flatMap(e -> {
+                            List<PracticalCodingQuestions.User> matches = byEmail.get(e.getEmail());
+                            if (matches == null) {
+                                return type == JoinType.LEFT ? Stream.of(e.getId() + 0L) : Stream.empty();
+                            }
+                            return matches.stream().map(u -> e.getId() + (long) u.getName().length());
+                        }).count();
+                    } else if (strategy.equals("hashJoin")) {
+                        count = hashJoin(employees.stream(), Employee::getEmail, users.stream(),
+                                         PracticalCodingQuestions.User::getEmail, type,
+                                         (e, u) -> e.getId() + (u == null ? 0L : u.getName().length())).count();
+                    } else {
+                        count = mergeJoin(employeesByMail.stream(), Employee::getEmail, usersByMail.stream(),
+                                          PracticalCodingQuestions.User::getEmail, Comparator.<String>naturalOrder(), type,
+                                          (e, u) -> e.getId() + (u == null ? 0L : u.getName().length())).count();
+                    }
+                    best[type.ordinal()] = Math.min(best[type.ordinal()], System.nanoTime() - start);
+                    counts[type.ordinal()] = count;
+                }
+            }
+            System.out.printf("%-26s %8.1f ms  %8.1f ms   (%,d / %,d rows)%n",
+                              strategy, best[0] / 1e6, best[1] / 1e6, counts[0], counts[1]);
+        }
+
+        System.out.println("\nid join (INNER)");
+        long best1 = Long.MAX_VALUE, best2 = Long.MAX_VALUE, best3 = Long.MAX_VALUE;
+        long c1 = 0, c2 = 0, c3 = 0;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            Map<Integer, List<PracticalCodingQuestions.Employee>> byId =
+                    directory.stream().collect(Collectors.groupingBy(PracticalCodingQuestions.Employee::getId));
+            c1 = employees.stream().flatMap(e -> byId.getOrDefault(e.getId(), Collections.emptyList()).stream()).count();
+            best1 = Math.min(best1, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            c2 = hashJoin(employees.stream(), Employee::getId, directory.stream(),
+                          PracticalCodingQuestions.Employee::getId, JoinType.INNER, (e, d) -> d).count();
+            best2 = Math.min(best2, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            c3 = hashJoinInt(employees.stream(), Employee::getId, directory.stream(),
+                             PracticalCodingQuestions.Employee::getId, JoinType.INNER, (e, d) -> d).count();
+            best3 = Math.min(best3, System.nanoTime() - start);
+        }
+        if (c1 != c2 || c1 != c3) {
+            throw new AssertionError("id joins disagree: " + c1 + ", " + c2 + ", " + c3);
+        }
+        System.out.printf("groupingBy + flatMap       %8.1f ms%n", best1 / 1e6);
+        System.out.printf("hashJoin (Integer keys)    %8.1f ms%n", best2 / 1e6);
+        System.out.printf("hashJoinInt                %8.1f ms   (%,d rows)%n", best3 / 1e6, c3);
+    }
+}
@@ -0,0 +1,217 @@
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.*;
+
+/**
+ * ✅ STRING DICTIONARY - Dictionary encoding for low-cardinality strings
+ *
+ * Departments and categories repeat a lot: millions of rows, a few dozen
+ * distinct values. Instead of calling toUpperCase()/equals() on every row,
+ * give each distinct value a small int code ONCE and work with the codes.
+ *
+ * Demonstrates:
+ * 1. encode() - String → int code (assigned on first sight)
+ * 2. decode() / upper() - int code → first-seen original / cached upper-case form
+ * 3. normalizedCode() - codes of "it" and "IT" share one upper-case code
+ * 4. Filtering and deduping as int comparisons
+ */
+public class StringDictionary {
+
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+
+    // Grown under the lock, read without it (published through 'codes')
+    private volatile String[] values = new String[16];
+    private volatile String[] upperValues = new String[16];
+    private volatile int[] normalizedCodes = new int[16];
+
+    // upper-case form → code of the first value that produced it
+    private final Map<String, Integer> upperToCode = new HashMap<>();
+    private int size;
+
+    /**
+     * Returns the code of the value, assigning the next free code on first sight.
+     */
+    public int encode(String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        return addSlow(Objects.requireNonNull(value, "value"));
+    }
+
+    /**
+     * Returns the code of the value, or -1 if it was never encoded.
+     * Use this for predicates: an unknown value can never match a row.
+     */
+    public int lookup(String value) {
+        Integer code = codes.get(value);
+        return code == null ? -1 : code;
+    }
+
+    private synchronized int addSlow(String value) {
+        Integer existing = codes.get(value);
+        if (existing != null) {
+            return existing;
+        }
+
+        int code = size;
+        if (code == values.length) {
+            int newLength = values.length * 2;
+            upperValues = Arrays.copyOf(upperValues, newLength);
+            normalizedCodes = Arrays.copyOf(normalizedCodes, newLength);
+            values = Arrays.copyOf(values, newLength);
+        }
+
+        String upper = value.toUpperCase(Locale.ROOT);
+        Integer normalized = upperToCode.get(upper);
+        if (normalized == null) {
+            normalized = code;
+            upperToCode.put(upper, code);
+        }
+
+        values[code] = value;
+        upperValues[code] = upperValues[normalized] != null ? upperValues[normalized] : upper;
+        normalizedCodes[code] = normalized;
+        size++;
+
+        codes.put(value, code);   // publishes the array writes above
+        return code;
+    }
+
+    /** The first instance seen of the string for a code */
+    public String decode(int code) {
+        return values[checkCode(code)];
+    }
+
+    /** Cached upper-case form for a code (computed once per distinct value) */
+    public String upper(int code) {
+        return upperValues[checkCode(code)];
+    }
+
+    /** Code shared by every value with the same upper-case form */
+    public int normalizedCode(int code) {
+        return normalizedCodes[checkCode(code)];
+    }
+
+    public int size() {
+        return codes.size();
+    }
+
+    /**
+     * Encodes one string column of a list into an int[] (one code per row).
+     */
+    public <T> int[] encodeAll(List<T> rows, Function<T, String> column) {
+        int[] result = new int[rows.size()];
+        int i = 0;
+        for (T row : rows) {
+            result[i++] = encode(column.apply(row));
+        }
+        return result;
+    }
+
+    /**
+     * Distinct upper-case values of an encoded column, in first-seen order.
+     * Dedupe is a BitSet over int codes - no hashing of strings per row.
+     */
+    public List<String> distinctUpper(int[] column) {
+        BitSet seen = new BitSet(size());
+        List<String> result = new ArrayList<>();
+        for (int code : column) {
+            int normalized = normalizedCode(code);
+            if (!seen.get(normalized)) {
+                seen.set(normalized);
+                result.add(upper(normalized));
+            }
+        }
+        return result;
+    }
+
+    private int checkCode(int code) {
+        if (code < 0 || code >= size()) {
+            throw new IllegalArgumentException("Unknown dictionary code: " + code);
+        }
+        return code;
+    }
+
+    // ========================================
+    // Demo
+    // ========================================
+
+    public static void main(String[] args) {
+        System.out.println("=== Example 1: Encode departments ===\n");
+        encodeExample();
+
+        System.out.println("\n=== Example 2: Filter products by category code ===\n");
+        filterExample();
+
+        System.out.println("\n=== Example 3: Performance Comparison ===\n");
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        performanceComparison(rows);
+    }
+
+    static void encodeExample() {
+        List<String> departments = Arrays.asList("IT", "HR", "it", "Finance", "HR", "IT");
+        StringDictionary dictionary = new StringDictionary();
+
+        int[] codes = departments.stream()
+                                 .mapToInt(dictionary::encode)
+                                 .toArray();
+
+        System.out.println("Departments: " + departments);
+        System.out.println("Codes:       " + Arrays.toString(codes));
+        System.out.println("Normalized:  " + Arrays.toString(
+                IntStream.of(codes).map(dictionary::normalizedCode).toArray()));
+        System.out.println("Unique (upper-case): " + dictionary.distinctUpper(codes));
+    }
+
+    static void filterExample() {
+        List<Product> products = MapWithFilterExample.getProducts();
+        StringDictionary categories = new StringDictionary();
+        int[] categoryCodes = categories.encodeAll(products, Product::getCategory);
+
+        // Look up the constant once, then compare ints per row
+        int electronics = categories.lookup("Electronics");
+
+        List<String> result = IntStream.range(0, products.size())
+                                       .filter(i -> categoryCodes[i] == electronics)
+                                       .mapToObj(i -> categories.upper(categoryCodes[i]))
+                                       .collect(Collectors.toList());
+
+        System.out.println("Electronics categories: " + result);
+    }
+
+    static void performanceComparison(int rows) {
+        String[] departments = {"IT", "HR", "Finance", "Sales", "Legal", "Ops", "Support", "R&D"};
+        Random random = new Random(42);
+        List<String> column = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            // new String(...) so rows don't share one instance, like data parsed from a file
+            column.add(new String(departments[random.nextInt(departments.length)]));
+        }
+
+        System.out.println("Processing " + rows + " rows...\n");
+
+        // ❌ toUpperCase() + HashSet per row
+        long start1 = System.nanoTime();
+        Set<String> unique1 = column.stream()
+                                    .map(s -> s.toUpperCase(Locale.ROOT))
+                                    .collect(Collectors.toSet());
+        long end1 = System.nanoTime();
+
+        System.out.println("toUpperCase() + toSet(): " + unique1.size() + " departments");
+        System.out.println("Time: " + (end1 - start1) / 1_000_000 + " ms");
+
+        // ✅ Encode once, then dedupe ints
+        StringDictionary dictionary = new StringDictionary();
+        int[] codes = column.stream().mapToInt(dictionary::encode).toArray();
+
+        long start2 = System.nanoTime();
+        List<String> unique2 = dictionary.distinctUpper(codes);
+        long end2 = System.nanoTime();
+
+        System.out.println("\nDictionary codes:        " + unique2.size() + " departments");
+        System.out.println("Time: " + (end2 - start2) / 1_000_000 + " ms (encoding is done once at load)");
+        System.out.println("\n✅ After encoding, each row costs one int read and one BitSet check");
+    }
+}
@@ -0,0 +1,321 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * ✅ STRIPED GROUP BY - Concurrent groupingBy into primitive lists
+ *
+ * exercise5_2 groups salaries by department:
+ *   groupingBy(e -> e.department, mapping(e -> (int) e.salary, toList()))
+ * - every salary becomes an Integer (16 bytes + a 4-8 byte reference)
+ * - in parallel, each thread builds its OWN map and the maps are merged
+ *   pairwise at the end; groupingByConcurrent shares one map but makes all
+ *   threads take the same lock per key
+ *
+ * StripedGroupBy is a CONCURRENT collector: one shared ConcurrentHashMap, and
+ * per key a few stripes of primitive buffers (IntList / DoubleList). A thread
+ * always appends to "its" stripe (picked by thread id), so threads adding to
+ * the same department rarely touch the same lock. The finisher joins each
+ * key's stripes once.
+ *
+ *   Map<String, IntList> salaries = employees.parallelStream()
+ *           .collect(StripedGroupBy.toIntLists(e -> e.department, e -> (int) e.salary));
+ *
+ * Values keep input order in sequential streams (one thread = one stripe).
+ * In parallel streams the order within a key is unspecified, as with
+ * groupingByConcurrent.
+ */
+public final class StripedGroupBy {
+
+    static final int STRIPES = stripeCount();
+
+    private StripedGroupBy() {
+    }
+
+    /** Power of two ≥ 2 × cores, so two busy threads seldom share a stripe */
+    private static int stripeCount() {
+        int wanted = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+        return Integer.highestOneBit(wanted - 1) << 1;
+    }
+
+    private static int stripeIndex() {
+        long id = Thread.currentThread().getId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 40) & (STRIPES - 1);
+    }
+
+    // ========================================
+    // Collectors
+    // ========================================
+
+    public static <T, K> Collector<T, ?, Map<K, IntList>> toIntLists(Function<? super T, ? extends K> classifier,
+                                                                    ToIntFunction<? super T> value) {
+        Objects.requireNonNull(classifier, "classifier");
+        Objects.requireNonNull(value, "value");
+        return Collector.<T, ConcurrentHashMap<K, IntList[]>, Map<K, IntList>>of(
+                ConcurrentHashMap::new,
+                (groups, element) -> {
+                    IntList stripe = stripes(groups, classifier.apply(element), IntList[]::new, IntList::new)[stripeIndex()];
+                    int v = value.applyAsInt(element);
+                    synchronized (stripe) {
+                        stripe.addInt(v);
+                    }
+                },
+                (left, right) -> {
+                    right.forEach((key, stripes) -> left.merge(key, stripes, StripedGroupBy::appendStripes));
+                    return left;
+                },
+                groups -> {
+                    Map<K, IntList> result = new HashMap<>(groups.size() * 2);
+                    groups.forEach((key, stripes) -> result.put(key, IntList.concat(stripes)));
+                    return result;
+                },
+                Collector.Characteristics.CONCURRENT, Collector.Characteristics.UNORDERED);
+    }
+
+    public static <T, K> Collector<T, ?, Map<K, DoubleList>> toDoubleLists(Function<? super T, ? extends K> classifier,
+                                                                          ToDoubleFunction<? super T> value) {
+        Objects.requireNonNull(classifier, "classifier");
+        Objects.requireNonNull(value, "value");
+        return Collector.<T, ConcurrentHashMap<K, DoubleList[]>, Map<K, DoubleList>>of(
+                ConcurrentHashMap::new,
+                (groups, element) -> {
+                    DoubleList stripe = stripes(groups, classifier.apply(element), DoubleList[]::new, DoubleList::new)[stripeIndex()];
+                    double v = value.applyAsDouble(element);
+                    synchronized (stripe) {
+                        stripe.addDouble(v);
+                    }
+                },
+                (left, right) -> {
+                    right.forEach((key, stripes) -> left.merge(key, stripes, StripedGroupBy::appendStripes));
+                    return left;
+                },
+                groups -> {
+                    Map<K, DoubleList> result = new HashMap<>(groups.size() * 2);
+                    groups.forEach((key, stripes) -> result.put(key, DoubleList.concat(stripes)));
+                    return result;
+                },
+                Collector.Characteristics.CONCURRENT, Collector.Characteristics.UNORDERED);
+    }
+
+    private static <K, L> L[] stripes(ConcurrentHashMap<K, L[]> groups, K key,
+                                      IntFunction<L[]> newArray, Supplier<L> newList) {
+        L[] stripes = groups.get(key);   // fast path: no lock once the key exists
+        if (stripes == null) {
+            stripes = groups.computeIfAbsent(key, k -> {
+                L[] created = newArray.apply(STRIPES);
+                for (int i = 0; i < created.length; i++) {
+                    created[i] = newList.get();
+                }
+                return created;
+            });
+        }
+        return stripes;
+    }
+
+    /** Only used if a stream ignores CONCURRENT (e.g. ordered parallel sources) */
+    private static <L extends AbstractList<?>> L[] appendStripes(L[] left, L[] right) {
+        L[] merged = Arrays.copyOf(left, left.length + right.length);
+        System.arraycopy(right, 0, merged, left.length, right.length);
+        return merged;
+    }
+
+    // ========================================
+    // Primitive lists
+    // ========================================
+
+    /** Growable int[]; the List<Integer> view boxes only what is read through it */
+    public static final class IntList extends AbstractList<Integer> implements RandomAccess {
+        private int[] values;
+        private int size;
+
+        public IntList() {
+            this(8);
+        }
+
+        public IntList(int capacity) {
+            values = new int[Math.max(1, capacity)];
+        }
+
+        public void addInt(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size++] = value;
+        }
+
+        public int getInt(int index) {
+            Objects.checkIndex(index, size);
+            return values[index];
+        }
+
+        @Override
+        public Integer get(int index) {
+            return getInt(index);
+        }
+
+        @Override
+        public boolean add(Integer value) {
+            addInt(value);
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        public int[] toIntArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+        public IntStream intStream() {
+            return Arrays.stream(values, 0, size);
+        }
+
+        static IntList concat(IntList[] parts) {
+            int total = 0;
+            for (IntList part : parts) {
+                total += part.size;
+            }
+            IntList result = new IntList(total);
+            for (IntList part : parts) {
+                System.arraycopy(part.values, 0, result.values, result.size, part.size);
+                result.size += part.size;
+            }
+            return result;
+        }
+    }
+
+    public static final class DoubleList extends AbstractList<Double> implements RandomAccess {
+        private double[] values;
+        private int size;
+
+        public DoubleList() {
+            this(8);
+        }
+
+        public DoubleList(int capacity) {
+            values = new double[Math.max(1, capacity)];
+        }
+
+        public void addDouble(double value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size++] = value;
+        }
+
+        public double getDouble(int index) {
+            Objects.checkIndex(index, size);
+            return values[index];
+        }
+
+        @Override
+        public Double get(int index) {
+            return getDouble(index);
+        }
+
+        @Override
+        public boolean add(Double value) {
+            addDouble(value);
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        public double[] toDoubleArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+        public DoubleStream doubleStream() {
+            return Arrays.stream(values, 0, size);
+        }
+
+        static DoubleList concat(DoubleList[] parts) {
+            int total = 0;
+            for (DoubleList part : parts) {
+                total += part.size;
+            }
+            DoubleList result = new DoubleList(total);
+            for (DoubleList part : parts) {
+                System.arraycopy(part.values, 0, result.values, result.size, part.size);
+                result.size += part.size;
+            }
+            return result;
+        }
+    }
+
+    // ========================================
+    // Demo
+    // ========================================
+
+    public static void main(String[] args) {
+        System.out.println("=== Example 1: exercise5_2 - salaries per department ===\n");
+        List<MapPracticeExercises.EmployeeWithDept> employees = Arrays.asList(
+            new MapPracticeExercises.EmployeeWithDept("Raj", "IT", 50000),
+            new MapPracticeExercises.EmployeeWithDept("Aman", "HR", 40000),
+            new MapPracticeExercises.EmployeeWithDept("Priya", "IT", 45000),
+            new MapPracticeExercises.EmployeeWithDept("Kumar", "Sales", 35000)
+        );
+        Map<String, IntList> salaries = employees.stream()
+                                                 .collect(toIntLists(e -> e.department, e -> (int) e.salary));
+        System.out.println("Result: " + salaries);
+        System.out.println("IT total (no boxing): " + salaries.get("IT").intStream().sum());
+
+        System.out.println("\n=== Example 2: Scaling, 1 → 32 threads ===\n");
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        scalingComparison(size);
+    }
+
+    static void scalingComparison(int size) {
+        String[] departments = {"IT", "HR", "Sales", "Finance", "Ops", "Legal", "Support", "R&D"};
+        Random random = new Random(23);
+        List<MapPracticeExercises.EmployeeWithDept> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String dept = departments[Math.min(departments.length - 1, (int) Math.abs(random.nextGaussian() * 2))];   // skewed
+            employees.add(new MapPracticeExercises.EmployeeWithDept("E" + i, dept, 30_000 + random.nextInt(70_000)));
+        }
+        Collector<MapPracticeExercises.EmployeeWithDept, ?, Map<String, List<Integer>>> grouping =
+                Collectors.groupingBy(e -> e.department, Collectors.mapping(e -> (int) e.salary, Collectors.toList()));
+        Collector<MapPracticeExercises.EmployeeWithDept, ?, ConcurrentMap<String, List<Integer>>> concurrent =
+                Collectors.groupingByConcurrent(e -> e.department, Collectors.mapping(e -> (int) e.salary, Collectors.toList()));
+        Collector<MapPracticeExercises.EmployeeWithDept, ?, Map<String, IntList>> striped =
+                toIntLists(e -> e.department, e -> (int) e.salary);
+
+        System.out.println(size + " employees, " + departments.length + " departments (skewed), "
+                           + Runtime.getRuntime().availableProcessors() + " core(s), " + STRIPES + " stripes per key\n");
+        System.out.println("threads   groupingBy   groupingByConcurrent   StripedGroupBy");
+        for (int threads : new int[] {1, 2, 4, 8, 16, 32}) {
+            try (PipelineExecutor executor = new PipelineExecutor("group-by-" + threads, threads)) {
+                long best1 = Long.MAX_VALUE, best2 = Long.MAX_VALUE, best3 = Long.MAX_VALUE;
+                Map<String, List<Integer>> r1 = null;
+                Map<String, IntList> r3 = null;
+                for (int round = 0; round < 3; round++) {
+                    long start = System.nanoTime();
+                    r1 = executor.run(() -> employees.parallelStream().collect(grouping));
+                    best1 = Math.min(best1, System.nanoTime() - start);
+
+                    start = System.nanoTime();
+                    executor.run(() -> employees.parallelStream().collect(concurrent));
+                    best2 = Math.min(best2, System.nanoTime() - start);
+
+                    start = System.nanoTime();
+                    r3 = executor.run(() -> employees.parallelStream().collect(striped));
+                    best3 = Math.min(best3, System.nanoTime() - start);
+                }
+                for (String dept : r1.keySet()) {
+                    long expected = r1.get(dept).stream().mapToLong(Integer::longValue).sum();
+                    if (r3.get(dept).size() != r1.get(dept).size() || r3.get(dept).intStream().asLongStream().sum() != expected) {
+                        throw new AssertionError("striped result differs for " + dept);
+                    }
+                }
+                System.out.printf("%7d   %7.1f ms   %15.1f ms   %11.1f ms%n",
+                                  threads, best1 / 1e6, best2 / 1e6, best3 / 1e6);
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * ✅ TOP N - The first n of sorted(comparator) without sorting everything
+ *
+ * exercise5_1 ranks employees with .sorted(Comparator...reversed()), which
+ * buffers and sorts ALL of them - O(m log m) - when a dashboard shows ten.
+ *
+ *   List<Employee> top10 = employees.stream()
+ *                                   .collect(TopN.collector(bySalaryDesc, 10));
+ *
+ * - sequential: one bounded heap of n entries - O(m log n), n extra slots
+ * - parallel: one heap per chunk, merged pairwise by the combiner
+ * - SAME result as .sorted(comparator).limit(n), ties included: every element
+ *   carries its encounter index, and equal elements keep encounter order
+ *   (sorted() is stable). In parallel, the combiner shifts the right chunk's
+ *   indexes by the number of elements the left chunk saw, so the indexes
+ *   stay global.
+ */
+public final class TopN {
+
+    private TopN() {
+    }
+
+    public static <T> Collector<T, ?, List<T>> collector(Comparator<? super T> comparator, int n) {
+        Objects.requireNonNull(comparator, "comparator");
+        if (n < 0) {
+            throw new IllegalArgumentException("n must not be negative: " + n);
+        }
+        return Collector.of(() -> new BoundedHeap<T>(comparator, n),
+                            BoundedHeap::accept,
+                            BoundedHeap::mergeFollowing,
+                            BoundedHeap::toSortedList);
+    }
+
+    /** stream.sorted(comparator).limit(n).collect(toList()), in O(m log n) */
+    public static <T> List<T> of(Stream<T> stream, Comparator<? super T> comparator, int n) {
+        return stream.collect(collector(comparator, n));
+    }
+
+    // ========================================
+    // Bounded heap
+    // ========================================
+
+    /**
+     * Max-heap of the n best elements seen so far; the root is the WORST kept
+     * one, so a newcomer only needs one comparison against it to be rejected.
+     */
+    static final class BoundedHeap<T> {
+        private final Comparator<? super T> comparator;
+        private final int limit;
+        private Object[] elements;    // grown up to `limit` - parallel leaves often keep few
+        private long[] order;         // encounter index of each kept element
+        private int size;
+        private long seen;            // elements accepted so far, kept or not
+
+        BoundedHeap(Comparator<? super T> comparator, int limit) {
+            this.comparator = comparator;
+            this.limit = limit;
+            this.elements = new Object[Math.min(limit, 16)];
+            this.order = new long[elements.length];
+        }
+
+        void accept(T element) {
+            offer(element, seen++);
+        }
+
+        private void offer(T element, long index) {
+            if (size < limit) {
+                if (size == elements.length) {
+                    int capacity = (int) Math.min(limit, 2L * size);
+                    elements = Arrays.copyOf(elements, capacity);
+                    order = Arrays.copyOf(order, capacity);
+                }
+                elements[size] = element;
+                order[size] = index;
+                siftUp(size++);
+            } else if (limit > 0 && compare(element, index, 0) < 0) {
+                elements[0] = element;
+                order[0] = index;
+                siftDown(0);
+            }
+        }
+
+        /** Combiner: `right` saw the elements that come after ours */
+        @SuppressWarnings("unchecked")
+        BoundedHeap<T> mergeFollowing(BoundedHeap<T> right) {
+            long shift = seen;
+            for (int i = 0; i < right.size; i++) {
+                offer((T) right.elements[i], right.order[i] + shift);
+            }
+            seen += right.seen;
+            return this;
+        }
+
+        /** Drains in sorted order: best first */
+        @SuppressWarnings("unchecked")
+        List<T> toSortedList() {
+            Object[] out = new Object[size];
+            for (int i = size - 1; i >= 0; i--) {
+                out[i] = elements[0];
+                swap(0, size - 1);
+                size--;
+                siftDown(0);
+            }
+            return (List<T>) Arrays.asList(out);
+        }
+
+        /** Positive when (element, index) ranks after slot j */
+        @SuppressWarnings("unchecked")
+        private int compare(T element, long index, int j) {
+            int c = comparator.compare(element, (T) elements[j]);
+            return c != 0 ? c : Long.compare(index, order[j]);
+        }
+
+        @SuppressWarnings("unchecked")
+        private int compareSlots(int i, int j) {
+            return compare((T) elements[i], order[i], j);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (compareSlots(i, parent) <= 0) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int worst = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && compareSlots(left, worst) > 0) {
+                    worst = left;
+                }
+                if (right < size && compareSlots(right, worst) > 0) {
+                    worst = right;
+                }
+                if (worst == i) {
+                    return;
+                }
+                swap(i, worst);
+                i = worst;
+            }
+        }
+
+        private void swap(int i, int j) {
+            Object e = elements[i];
+            elements[i] = elements[j];
+            elements[j] = e;
+            long o = order[i];
+            order[i] = order[j];
+            order[j] = o;
+        }
+    }
+
+    // ========================================
+    // Demo
+    // ========================================
+
+    public static void main(String[] args) {
+        System.out.println("=== Example 1: exercise5_1, top 2 by salary ===\n");
+        List<MapPracticeExercises.Employee> employees = Arrays.asList(
+            new MapPracticeExercises.Employee("Raj", 30, 50000),
+            new MapPracticeExercises.Employee("Aman", 25, 40000),
+            new MapPracticeExercises.Employee("Priya", 28, 45000),
+            new MapPracticeExercises.Employee("Kumar", 22, 35000)
+        );
+        Comparator<MapPracticeExercises.Employee> bySalaryDesc =
+                Comparator.comparingDouble((MapPracticeExercises.Employee e) -> e.salary).reversed();
+
+        List<String> top2 = employees.stream()
+                                     .filter(e -> e.salary > 40000)
+                                     .map(e -> new MapPracticeExercises.Employee(e.name, e.age, e.salary + e.salary * 15 / 100))
+                                     .collect(TopN.collector(bySalaryDesc, 2))
+                                     .stream()
+                                     .map(e -> e.name.toUpperCase() + ": Rs. " + e.salary)
+                                     .collect(Collectors.toList());
+        System.out.println("Result:   " + top2);
+        System.out.println("Expected: [RAJ: Rs. 57500.0, PRIYA: Rs. 51750.0]");
+
+        System.out.println("\n=== Example 2: Performance Comparison ===\n");
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        performanceComparison(size, bySalaryDesc);
+    }
+
+    static void performanceComparison(int size, Comparator<MapPracticeExercises.Employee> bySalaryDesc) {
+        Random random = new Random(29);
+        List<MapPracticeExercises.Employee> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // Salaries in steps of 100: plenty of ties to check the tie-breaking
+            employees.add(new MapPracticeExercises.Employee("E" + i, 22 + random.nextInt(40), 100.0 * random.nextInt(1000)));
+        }
+
+        System.out.println(size + " employees, many equal salaries\n");
+        System.out.println("   n   sorted().limit(n)   TopN sequential   TopN parallel");
+        for (int n : new int[] {10, 100, 1000}) {
+            long best1 = Long.MAX_VALUE, best2 = Long.MAX_VALUE, best3 = Long.MAX_VALUE;
+            List<MapPracticeExercises.Employee> expected = null, sequential = null, parallel = null;
+            for (int round = 0; round < 5; round++) {
+                long start = System.nanoTime();
+                expected = employees.stream().sorted(bySalaryDesc).limit(n).collect(Collectors.toList());
+                best1 = Math.min(best1, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                sequential = employees.stream().collect(collector(bySalaryDesc, n));
+                best2 = Math.min(best2, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                parallel = employees.parallelStream().collect(collector(bySalaryDesc, n));
+                best3 = Math.min(best3, System.nanoTime() - start);
+            }
+            // Same objects in the same order - not just equal salaries
+            if (sequential.size() != expected.size() || parallel.size() != expected.size()) {
+                throw new AssertionError("top-" + n + " has the wrong size");
+            }
+            for (int i = 0; i < expected.size(); i++) {
+                if (expected.get(i) != sequential.get(i) || expected.get(i) != parallel.get(i)) {
+                    throw new AssertionError("top-" + n + " differs from sorted().limit() at position " + i);
+                }
+            }
+            System.out.printf("%4d   %14.2f ms   %12.2f ms   %10.2f ms%n", n, best1 / 1e6, best2 / 1e6, best3 / 1e6);
+        }
+        System.out.println("\nAll results identical to sorted().limit(n), ties in encounter order");
+    }
+}
@@ -0,0 +1,304 @@
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * ✅ USER DIRECTORY - Indexed lookups instead of scanning the User list
+ *
+ * PracticalCodingQuestions.question3 maps users → emails. Real workloads ask:
+ * - "does this email exist?"            → hash index on the full email
+ * - "all users on domain gmail.com"     → trie over the REVERSED domain labels
+ * - most lookups are misses             → optional Bloom filter in front
+ *
+ * Reversed domains (com → gmail) put every subdomain of a domain under one
+ * trie node, so "all users on example.com" also finds "mail.example.com".
+ */
+public class UserDirectory {
+
+    private final Map<String, PracticalCodingQuestions.User> byEmail;
+    private final DomainNode domains = new DomainNode();
+    private final BloomFilter bloom;   // null when disabled
+
+    /**
+     * @param expectedUsers sizing hint for the hash index and Bloom filter
+     * @param bloomFalsePositiveRate e.g. 0.01, or 0 to disable the Bloom filter
+     */
+    public UserDirectory(int expectedUsers, double bloomFalsePositiveRate) {
+        this.byEmail = new HashMap<>(Math.max(16, (int) (expectedUsers / 0.75f) + 1));
+        this.bloom = bloomFalsePositiveRate > 0
+                ? new BloomFilter(expectedUsers, bloomFalsePositiveRate)
+                : null;
+    }
+
+    public static UserDirectory of(Collection<PracticalCodingQuestions.User> users) {
+        UserDirectory directory = new UserDirectory(users.size(), 0.01);
+        users.forEach(directory::add);
+        return directory;
+    }
+
+    /**
+     * Adds a user. Emails are matched case-insensitively; a later user with
+     * the same email replaces the earlier one.
+     */
+    public void add(PracticalCodingQuestions.User user) {
+        String email = normalize(user.getEmail());
+        int at = email.lastIndexOf('@');
+        if (at <= 0 || at == email.length() - 1) {
+            throw new IllegalArgumentException("Invalid email: " + user.getEmail());
+        }
+
+        byEmail.put(email, user);
+        // Same email, same domain node: a replaced user is removed by key in O(1)
+        // and the new one appended, as if the old one had never been added
+        Map<String, PracticalCodingQuestions.User> onDomain = domainNode(email.substring(at + 1), true).users;
+        onDomain.remove(email);
+        onDomain.put(email, user);
+        if (bloom != null) {
+            bloom.add(email);
+        }
+    }
+
+    public boolean contains(String email) {
+        return find(email) != null;
+    }
+
+    public PracticalCodingQuestions.User find(String email) {
+        String key = normalize(email);
+        if (bloom != null && !bloom.mightContain(key)) {
+            return null;   // definite miss - main index not touched
+        }
+        return byEmail.get(key);
+    }
+
+    /**
+     * Users whose email domain is exactly {@code domain}, or any subdomain
+     * of it when {@code includeSubdomains} is set.
+     */
+    public List<PracticalCodingQuestions.User> usersOnDomain(String domain, boolean includeSubdomains) {
+        DomainNode node = domainNode(normalize(domain), false);
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        if (!includeSubdomains) {
+            return new ArrayList<>(node.users.values());
+        }
+        List<PracticalCodingQuestions.User> result = new ArrayList<>();
+        node.collect(result);
+        return result;
+    }
+
+    public int size() {
+        return byEmail.size();
+    }
+
+    private DomainNode domainNode(String domain, boolean create) {
+        String[] labels = domain.split("\\.");
+        DomainNode node = domains;
+        for (int i = labels.length - 1; i >= 0 && node != null; i--) {
+            node = create
+                    ? node.children.computeIfAbsent(labels[i], label -> new DomainNode())
+                    : node.children.get(labels[i]);
+        }
+        return node;
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** One domain label in the reversed-domain trie */
+    static class DomainNode {
+        final Map<String, DomainNode> children = new HashMap<>(4);
+        final Map<String, PracticalCodingQuestions.User> users = new LinkedHashMap<>(2);   // email -> user, insertion order
+
+        void collect(List<PracticalCodingQuestions.User> out) {
+            out.addAll(users.values());
+            for (DomainNode child : children.values()) {
+                child.collect(out);
+            }
+        }
+    }
+
+    /**
+     * Bloom filter over strings: k bit positions per key from two 32-bit
+     * halves of one 64-bit hash (Kirsch–Mitzenmacher double hashing).
+     * No false negatives; false-positive rate close to the configured one.
+     */
+    static class BloomFilter {
+        private final long[] bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(int expectedInsertions, double falsePositiveRate) {
+            long m = (long) Math.ceil(-Math.max(1, expectedInsertions) * Math.log(falsePositiveRate)
+                                      / (Math.log(2) * Math.log(2)));
+            this.bits = new long[(int) Math.max(1, (m + 63) >>> 6)];
+            this.bitCount = (long) bits.length << 6;
+            this.hashCount = Math.max(1, (int) Math.round((double) m / Math.max(1, expectedInsertions) * Math.log(2)));
+        }
+
+        void add(String key) {
+            long hash = hash64(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+                bits[(int) (bit >>> 6)] |= 1L << bit;
+            }
+        }
+
+        boolean mightContain(String key) {
+            long hash = hash64(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+                if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long sizeInBytes() {
+            return (long) bits.length * Long.BYTES;
+        }
+
+        // FNV-1a over the chars, finished with the MurmurHash3 fmix64 mixer
+        static long hash64(CharSequence s) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < s.length(); i++) {
+                h ^= s.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+
+    // ========================================
+    // Demo
+    // ========================================
+
+    public static void main(String[] args) {
+        System.out.println("=== Example 1: Lookups on the question3 users ===\n");
+        lookupExample();
+
+        // 10M users needs a large heap: java -Xmx8g UserDirectory 10000000
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        System.out.println("\n=== Example 2: Memory and Lookup Latency (" + users + " users) ===\n");
+        benchmark(users);
+    }
+
+    static void lookupExample() {
+        UserDirectory directory = UserDirectory.of(Arrays.asList(
+            new PracticalCodingQuestions.User("Raj Kumar", "raj@gmail.com"),
+            new PracticalCodingQuestions.User("Priya Sharma", "priya@yahoo.com"),
+            new PracticalCodingQuestions.User("Aman Singh", "aman@outlook.com"),
+            new PracticalCodingQuestions.User("Neha Verma", "neha@gmail.com"),
+            new PracticalCodingQuestions.User("Arjun Rao", "arjun@mail.gmail.com")
+        ));
+
+        System.out.println("contains(\"Priya@Yahoo.com\"): " + directory.contains("Priya@Yahoo.com"));
+        System.out.println("contains(\"nobody@gmail.com\"): " + directory.contains("nobody@gmail.com"));
+
+        System.out.println("\nOn gmail.com: " + names(directory.usersOnDomain("gmail.com", false)));
+        System.out.println("On gmail.com + subdomains: " + names(directory.usersOnDomain("gmail.com", true)));
+
+        directory.add(new PracticalCodingQuestions.User("Raj K.", "RAJ@gmail.com"));
+        List<String> replaced = names(directory.usersOnDomain("gmail.com", false));
+        if (!replaced.equals(Arrays.asList("Neha Verma", "Raj K.")) || directory.size() != 5) {
+            throw new AssertionError("re-adding an email must replace the old user: " + replaced);
+        }
+        System.out.println("After re-adding raj@gmail.com: " + replaced);
+    }
+
+    private static List<String> names(List<PracticalCodingQuestions.User> users) {
+        return users.stream()
+                    .map(PracticalCodingQuestions.User::getName)
+                    .collect(Collectors.toList());
+    }
+
+    static void benchmark(int count) {
+        String[] domains = {"gmail.com", "yahoo.com", "outlook.com", "corp.example.com", "example.org"};
+        List<PracticalCodingQuestions.User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new PracticalCodingQuestions.User("user" + i, "user" + i + "@" + domains[i % domains.length]));
+        }
+
+        long before = usedMemory();
+        UserDirectory plain = new UserDirectory(count, 0);
+        users.forEach(plain::add);
+        long plainBytes = usedMemory() - before;
+
+        UserDirectory withBloom = new UserDirectory(count, 0.01);
+        users.forEach(withBloom::add);
+
+        System.out.println("Index + trie memory:  ~" + plainBytes / (1024 * 1024) + " MB");
+        System.out.println("Bloom filter memory:   " + withBloom.bloom.sizeInBytes() / 1024 + " KB (1% FPP)");
+
+        int probes = Math.min(count, 1_000_000);
+        String[] hits = new String[probes];
+        String[] misses = new String[probes];
+        Random random = new Random(7);
+        for (int i = 0; i < probes; i++) {
+            int id = random.nextInt(count);
+            hits[i] = "user" + id + "@" + domains[id % domains.length];
+            misses[i] = "missing" + id + "@" + domains[id % domains.length];
+        }
+
+        // ❌ Scanning the list (what question3's map() would need) - sampled, it is O(n)
+        long start = System.nanoTime();
+        int scanned = 0;
+        for (int i = 0; i < 20; i++) {
+            String email = misses[i];
+            scanned += users.stream().anyMatch(u -> u.getEmail().equals(email)) ? 1 : 0;
+        }
+        long scanNs = (System.nanoTime() - start) / 20;
+        System.out.println("\nLinear scan, miss:     " + scanNs / 1000 + " µs/lookup (found " + scanned + ")");
+
+        for (int round = 0; round < 2; round++) {   // round 0 is warm-up
+            long hitNs = timeLookups(plain, hits);
+            long missNs = timeLookups(plain, misses);
+            long bloomHitNs = timeLookups(withBloom, hits);
+            long bloomMissNs = timeLookups(withBloom, misses);
+            if (round == 1) {
+                System.out.println("Hash index, hit:       " + hitNs + " ns/lookup");
+                System.out.println("Hash index, miss:      " + missNs + " ns/lookup");
+                System.out.println("Bloom + index, hit:    " + bloomHitNs + " ns/lookup");
+                System.out.println("Bloom + index, miss:   " + bloomMissNs + " ns/lookup");
+            }
+        }
+
+        start = System.nanoTime();
+        int onDomain = plain.usersOnDomain("example.com", true).size();
+        System.out.println("\nexample.com + subdomains: " + onDomain + " users in "
+                           + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    private static long timeLookups(UserDirectory directory, String[] emails) {
+        int found = 0;
+        long start = System.nanoTime();
+        for (String email : emails) {
+            if (directory.contains(email)) {
+                found++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (found < 0) {
+            System.out.println(found);   // keeps the loop from being optimised away
+        }
+        return elapsed / emails.length;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,491 @@
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * ✅ WINDOWED AGGREGATION - Per-category avg / min / max over a live price feed
+ *
+ * MapWithFilterExample works on the static getProducts() list. A live feed
+ * never ends, so "average price per category" only makes sense per time
+ * window: the last second (tumbling), or the last minute, every second
+ * (sliding).
+ *
+ *   WindowedAggregation windows = WindowedAggregation.sliding(Duration.ofMinutes(1), Duration.ofSeconds(1))
+ *                                                    .allowedLateness(Duration.ofMillis(500))
+ *                                                    .onWindow(result -> dashboard.update(result))
+ *                                                    .build();
+ *   windows.accept(product, eventTimeMillis);   // per update
+ *
+ * - EVENT time: windows follow the timestamps in the updates, not the clock
+ * - PANES: time is cut into panes of gcd(size, slide). An update touches ONE
+ *   pane - count, sum, min, max in primitive arrays indexed by category
+ *   code - however many sliding windows it belongs to. A window's result
+ *   combines its panes once, when it closes: no re-scan of updates.
+ * - WATERMARK = newest event time - allowed lateness. Windows ending at or
+ *   before it are emitted; panes no open window needs are reused (evicted)
+ *   in a ring. Updates older than every open window are dropped and counted.
+ * - categories are dictionary-encoded (StringDictionary): one lookup per
+ *   update, or none with accept(int code, ...)
+ *
+ * Not thread-safe: one instance per ingesting thread.
+ */
+public final class WindowedAggregation {
+
+    /** Aggregate of one category over [start, end) */
+    public static final class WindowResult {
+        private final long start;
+        private final long end;
+        private final String category;
+        private final long count;
+        private final double sum;
+        private final double min;
+        private final double max;
+
+        WindowResult(long start, long end, String category, long count, double sum, double min, double max) {
+            this.start = start;
+            this.end = end;
+            this.category = category;
+            this.count = count;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+        }
+
+        public long getStart() { return start; }
+        public long getEnd() { return end; }
+        public String getCategory() { return category; }
+        public long getCount() { return count; }
+        public double getSum() { return sum; }
+        public double getMin() { return min; }
+        public double getMax() { return max; }
+        public double getAverage() { return sum / count; }
+
+        @Override
+        public String toString() {
+            return String.format("[%d, %d) %s: n=%d avg=%.2f min=%.2f max=%.2f",
+                                 start, end, category, count, getAverage(), min, max);
+        }
+    }
+
+    private final long size;
+    private final long slide;
+    private final long pane;
+    private final long lateness;
+    private final Consumer<? super WindowResult> sink;
+    private final StringDictionary categories = new StringDictionary();
+
+    private final Pane[] ring;
+    private final int mask;
+
+    private long watermark = Long.MIN_VALUE;
+    private long nextWindowEnd = Long.MIN_VALUE;   // set by the first update
+    private long maxEventTime = Long.MIN_VALUE;
+
+    // scratch for fire(): one slot per category code
+    private long[] windowCount = new long[16];
+    private double[] windowSum = new double[16];
+    private double[] windowMin = new double[16];
+    private double[] windowMax = new double[16];
+
+    private long updates;
+    private long lateDropped;
+    private long windowsEmitted;
+
+    private WindowedAggregation(Builder builder) {
+        this.size = builder.size;
+        this.slide = builder.slide;
+        this.pane = gcd(size, slide);
+        this.lateness = builder.lateness;
+        this.sink = builder.sink;
+        // Open windows span at most size + lateness of event time
+        long needed = (size + lateness) / pane + 2;
+        if (needed > 1 << 20) {
+            throw new IllegalArgumentException("window needs " + needed + " panes; use a slide that divides the size");
+        }
+        int capacity = Integer.highestOneBit((int) needed - 1) << 1;
+        this.ring = new Pane[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new Pane();
+        }
+        this.mask = capacity - 1;
+    }
+
+    public static Builder tumbling(Duration size) {
+        return new Builder(size, size);
+    }
+
+    public static Builder sliding(Duration size, Duration slide) {
+        return new Builder(size, slide);
+    }
+
+    public static final class Builder {
+        private final long size;
+        private final long slide;
+        private long lateness;
+        private Consumer<? super WindowResult> sink = result -> { };
+
+        private Builder(Duration size, Duration slide) {
+            this.size = size.toMillis();
+            this.slide = slide.toMillis();
+            if (this.size < 1 || this.slide < 1 || this.slide > this.size) {
+                throw new IllegalArgumentException("need 1 ms ≤ slide ≤ size, got size=" + size + " slide=" + slide);
+            }
+        }
+
+        /** How far behind the newest update an update may arrive and still count */
+        public Builder allowedLateness(Duration lateness) {
+            if (lateness.isNegative()) {
+                throw new IllegalArgumentException("allowedLateness must not be negative: " + lateness);
+            }
+            this.lateness = lateness.toMillis();
+            return this;
+        }
+
+        /** Receives one result per category with updates, per window, in window order */
+        public Builder onWindow(Consumer<? super WindowResult> sink) {
+            this.sink = Objects.requireNonNull(sink, "sink");
+            return this;
+        }
+
+        public WindowedAggregation build() {
+            return new WindowedAggregation(this);
+        }
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    // ========================================
+    // Ingest
+    // ========================================
+
+    /** Dictionary code of a category, for accept(int, ...) on hot paths */
+    public int categoryCode(String category) {
+        return categories.encode(category);
+    }
+
+    public void accept(Product product, long eventTime) {
+        accept(categories.encode(product.getCategory()), product.getPrice(), eventTime);
+    }
+
+    public void accept(String category, double value, long eventTime) {
+        accept(categories.encode(category), value, eventTime);
+    }
+
+    /** @param category a code returned by categoryCode() */
+    public void accept(int category, double value, long eventTime) {
+        if (category < 0 || category >= categories.size()) {
+            throw new IllegalArgumentException("Unknown category code " + category + " - get codes from categoryCode()");
+        }
+        updates++;
+        if (nextWindowEnd == Long.MIN_VALUE) {
+            // the first window that can still receive updates within the lateness
+            nextWindowEnd = Math.floorDiv(eventTime - lateness, slide) * slide + slide;
+        }
+        if (eventTime > maxEventTime) {
+            // Watermark first: while it moves, maxEventTime is still the newest update
+            // IN the panes, which is what lets advanceWatermark() skip an idle gap
+            advanceWatermark(eventTime - lateness);
+            maxEventTime = eventTime;
+        }
+        if (eventTime < nextWindowEnd - size) {
+            lateDropped++;   // every window containing it has been emitted
+            return;
+        }
+        long index = Math.floorDiv(eventTime, pane);
+        Pane target = ring[(int) index & mask];
+        if (target.index != index) {
+            target.reset(index);   // evicts a pane no open window needs
+        }
+        target.add(category, value);
+    }
+
+    /** Moves event time forward without an update, e.g. from an idle-source timer */
+    public void advanceTo(long eventTime) {
+        if (nextWindowEnd != Long.MIN_VALUE) {
+            advanceWatermark(eventTime - lateness);
+        }
+    }
+
+    /** Emits every window that holds updates, as if the feed had ended */
+    public void flush() {
+        if (nextWindowEnd != Long.MIN_VALUE) {
+            advanceWatermark(maxEventTime + size);
+        }
+    }
+
+    private void advanceWatermark(long time) {
+        if (time <= watermark) {
+            return;
+        }
+        watermark = time;
+        while (nextWindowEnd <= watermark) {
+            if (nextWindowEnd - size > maxEventTime) {
+                // Idle gap: no window from here to the watermark has updates
+                nextWindowEnd = Math.floorDiv(watermark, slide) * slide + slide;
+                return;
+            }
+            fire(nextWindowEnd);
+            nextWindowEnd += slide;
+        }
+    }
+
+    /** Combines the window's panes: panes × categories work, independent of the update count */
+    private void fire(long end) {
+        long start = end - size;
+        int codes = categories.size();
+        if (windowCount.length < codes) {
+            int length = Math.max(codes, windowCount.length * 2);
+            windowCount = new long[length];
+            windowSum = new double[length];
+            windowMin = new double[length];
+            windowMax = new double[length];
+        }
+        Arrays.fill(windowCount, 0, codes, 0L);
+        for (long index = start / pane; index < end / pane; index++) {
+            Pane p = ring[(int) index & mask];
+            if (p.index != index) {
+                continue;   // no update fell into this pane
+            }
+            int limit = Math.min(codes, p.count.length);
+            for (int c = 0; c < limit; c++) {
+                long n = p.count[c];
+                if (n == 0) {
+                    continue;
+                }
+                if (windowCount[c] == 0) {
+                    windowSum[c] = p.sum[c];
+                    windowMin[c] = p.min[c];
+                    windowMax[c] = p.max[c];
+                } else {
+                    windowSum[c] += p.sum[c];
+                    windowMin[c] = Math.min(windowMin[c], p.min[c]);
+                    windowMax[c] = Math.max(windowMax[c], p.max[c]);
+                }
+                windowCount[c] += n;
+            }
+        }
+        for (int c = 0; c < codes; c++) {
+            if (windowCount[c] > 0) {
+                windowsEmitted++;
+                sink.accept(new WindowResult(start, end, categories.decode(c), windowCount[c],
+                                             windowSum[c], windowMin[c], windowMax[c]));
+            }
+        }
+    }
+
+    public long updates() {
+        return updates;
+    }
+
+    public long lateDropped() {
+        return lateDropped;
+    }
+
+    /** (window, category) results emitted so far */
+    public long windowsEmitted() {
+        return windowsEmitted;
+    }
+
+    /** Per-category accumulators of one pane; reused from the ring when evicted */
+    private static final class Pane {
+        long index = Long.MIN_VALUE;
+        long[] count = new long[8];
+        double[] sum = new double[8];
+        double[] min = new double[8];
+        double[] max = new double[8];
+
+        void reset(long index) {
+            this.index = index;
+            Arrays.fill(count, 0L);
+        }
+
+        void add(int category, double value) {
+            if (category >= count.length) {
+                int length = Math.max(category + 1, count.length * 2);
+                count = Arrays.copyOf(count, length);
+                sum = Arrays.copyOf(sum, length);
+                min = Arrays.copyOf(min, length);
+                max = Arrays.copyOf(max, length);
+            }
+            if (count[category]++ == 0) {
+                sum[category] = value;
+                min[category] = value;
+                max[category] = value;
+            } else {
+                sum[category] += value;
+                if (value < min[category]) min[category] = value;
+                if (value > max[category]) max[category] = value;
+            }
+        }
+    }
+
+    // ========================================
+    // Demo
+    // ========================================
+
+    public static void main(String[] args) {
+        System.out.println("=== Example 1: getProducts() as a live feed, 1 s tumbling windows ===\n");
+        List<Product> products = MapWithFilterExample.getProducts();
+        WindowedAggregation perSecond = tumbling(Duration.ofSeconds(1))
+                .onWindow(result -> System.out.println("  " + result))
+                .build();
+        Random random = new Random(59);
+        for (int i = 0; i < 20; i++) {
+            Product p = products.get(i % products.size());
+            double price = Math.round(p.getPrice() * (0.9 + 0.2 * random.nextDouble()));   // ±10% updates
+            perSecond.accept(new Product(p.getName(), price, p.getCategory()), i * 150L);
+        }
+        perSecond.flush();
+
+        System.out.println("\n=== Example 2: Same results as a full re-scan ===\n");
+        selfCheck();
+
+        System.out.println("\n=== Example 3: Throughput ===\n");
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        throughput(size);
+    }
+
+    static void selfCheck() {
+        String[] names = {"Electronics", "Furniture", "Books", "Toys", "Garden"};
+        Random random = new Random(61);
+        int n = 20_000;
+        long[] times = new long[n];
+        int[] cats = new int[n];
+        double[] prices = new double[n];
+        for (int i = 0; i < n; i++) {
+            times[i] = i * 10L + random.nextInt(400);   // up to 400 ms out of order
+            cats[i] = random.nextInt(names.length);
+            prices[i] = 10 + random.nextInt(100_000) / 100.0;
+        }
+
+        long[][] shapes = {{1_000, 1_000}, {60_000, 1_000}, {10_000, 3_000}};
+        for (long[] shape : shapes) {
+            List<WindowResult> results = new ArrayList<>();
+            WindowedAggregation windows = sliding(Duration.ofMillis(shape[0]), Duration.ofMillis(shape[1]))
+                    .allowedLateness(Duration.ofMillis(500))
+                    .onWindow(results::add)
+                    .build();
+            for (int i = 0; i < n; i++) {
+                windows.accept(names[cats[i]], prices[i], times[i]);
+            }
+            windows.flush();
+            if (windows.lateDropped() != 0) {
+                throw new AssertionError("updates within the lateness were dropped");
+            }
+
+            long nonEmpty = 0;
+            long firstEnd = Math.floorDiv(0 - 500, shape[1]) * shape[1] + shape[1];
+            long lastTime = Arrays.stream(times).max().getAsLong();
+            for (long end = firstEnd; end - shape[0] <= lastTime; end += shape[1]) {
+                for (String name : names) {
+                    final long e = end;
+                    long count = 0;
+                    double sum = 0, min = Double.MAX_VALUE, max = -Double.MAX_VALUE;
+                    for (int i = 0; i < n; i++) {
+                        if (names[cats[i]].equals(name) && times[i] >= e - shape[0] && times[i] < e) {
+                            count++;
+                            sum += prices[i];
+                            min = Math.min(min, prices[i]);
+                            max = Math.max(max, prices[i]);
+                        }
+                    }
+                    if (count == 0) {
+                        continue;
+                    }
+                    nonEmpty++;
+                    WindowResult r = results.stream()
+                                            .filter(x -> x.getEnd() == e && x.getCategory().equals(name))
+                                            .findFirst()
+                                            .orElseThrow(() -> new AssertionError("missing window ending " + e + " for " + name));
+                    if (r.getCount() != count || r.getMin() != min || r.getMax() != max
+                            || Math.abs(r.getSum() - sum) > 1e-6 * Math.abs(sum)) {
+                        throw new AssertionError("window " + r + " differs from re-scan: n=" + count + " sum=" + sum);
+                    }
+                }
+            }
+            if (nonEmpty != results.size()) {
+                throw new AssertionError("emitted " + results.size() + " results, expected " + nonEmpty);
+            }
+            System.out.printf("size %,6d ms, slide %,5d ms: %,5d results match the re-scan%n", shape[0], shape[1], nonEmpty);
+        }
+
+        // Later than the lateness: dropped and counted, not silently mixed into an emitted window
+        WindowedAggregation strict = tumbling(Duration.ofSeconds(1)).allowedLateness(Duration.ofMillis(100)).build();
+        strict.accept("Books", 10, 5_000);
+        strict.accept("Books", 20, 3_500);
+        if (strict.lateDropped() != 1) {
+            throw new AssertionError("late update was not dropped");
+        }
+        System.out.println("update 1.5 s behind with 100 ms lateness: dropped and counted");
+
+        // Idle gaps: from t = 0 straight to epoch milliseconds, with 1 ms windows
+        List<WindowResult> sparse = new ArrayList<>();
+        WindowedAggregation gaps = tumbling(Duration.ofMillis(1)).onWindow(sparse::add).build();
+        long start = System.nanoTime();
+        gaps.accept("Books", 10, 0);
+        gaps.accept("Books", 20, 1_000_000_000L);
+        gaps.accept("Books", 30, 1_760_000_000_000L);
+        gaps.flush();
+        long gapMillis = (System.nanoTime() - start) / 1_000_000;
+        if (sparse.size() != 3 || sparse.get(2).getStart() != 1_760_000_000_000L) {
+            throw new AssertionError("idle gaps must be skipped, not filled with empty windows: " + sparse);
+        }
+        System.out.println("1 ms windows across a 55-year gap: 3 results in " + gapMillis + " ms");
+
+        try {
+            gaps.accept(42, 1.0, 1_760_000_000_001L);
+            throw new AssertionError("a code categoryCode() never issued must be rejected");
+        } catch (IllegalArgumentException expected) {
+            System.out.println("accept(42, ...) with 1 known category: " + expected.getMessage());
+        }
+    }
+
+    static void throughput(int size) {
+        String[] names = {"Electronics", "Furniture", "Books", "Toys", "Garden", "Grocery", "Sports", "Beauty"};
+        Random random = new Random(67);
+        int[] cats = new int[size];
+        double[] prices = new double[size];
+        long[] times = new long[size];
+        for (int i = 0; i < size; i++) {
+            cats[i] = random.nextInt(names.length);
+            prices[i] = 10 + random.nextInt(100_000) / 100.0;
+            times[i] = i / 200 + random.nextInt(200);   // 200k updates per event-second, 200 ms jitter
+        }
+
+        System.out.println(size + " updates, " + names.length + " categories, 200 ms lateness\n");
+        for (String shape : new String[] {"tumbling 1 s", "sliding 1 min / 1 s"}) {
+            long bestNames = Long.MAX_VALUE, bestCodes = Long.MAX_VALUE;
+            long emitted = 0;
+            for (int round = 0; round < 3; round++) {
+                Builder builder = shape.startsWith("tumbling")
+                        ? tumbling(Duration.ofSeconds(1))
+                        : sliding(Duration.ofMinutes(1), Duration.ofSeconds(1));
+                WindowedAggregation windows = builder.allowedLateness(Duration.ofMillis(200)).build();
+                long start = System.nanoTime();
+                for (int i = 0; i < size; i++) {
+                    windows.accept(names[cats[i]], prices[i], times[i]);
+                }
+                windows.flush();
+                bestNames = Math.min(bestNames, System.nanoTime() - start);
+                emitted = windows.windowsEmitted();
+
+                windows = builder.build();
+                int[] codes = new int[names.length];
+                for (int c = 0; c < names.length; c++) {
+                    codes[c] = windows.categoryCode(names[c]);
+                }
+                start = System.nanoTime();
+                for (int i = 0; i < size; i++) {
+                    windows.accept(codes[cats[i]], prices[i], times[i]);
+                }
+                windows.flush();
+                bestCodes = Math.min(bestCodes, System.nanoTime() - start);
+            }
+            System.out.printf("%-20s  by name %6.1f M updates/s   by code %6.1f M updates/s   (%,d results)%n",
+                              shape, size / (bestNames / 1e3), size / (bestCodes / 1e3), emitted);
+        }
+        System.out.println("\nTarget: ≥ 1 M updates/s on one node");
+    }
+}
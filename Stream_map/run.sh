@@ -26,8 +26,8 @@ run_example() {
     echo -e "${BLUE}━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━${NC}"
     echo ""
     
-    # Compile
-    if javac "$file.java" 2>/dev/null; then
+    # Compile (all sources - newer examples share the Product/Employee models)
+    if javac -encoding UTF-8 *.java 2>/dev/null; then
         echo -e "${GREEN}✓ Compiled successfully${NC}"
         echo ""
         
@@ -158,6 +158,75 @@ else
         workflow)
             run_example "CompleteMapWorkflow" "Complete Workflow"
             ;;
+        dictionary)
+            run_example "StringDictionary" "Dictionary-Encoded Strings"
+            ;;
+        users)
+            run_example "UserDirectory" "User Directory (email index)"
+            ;;
+        distinct)
+            run_example "DistinctCounter" "Approximate Distinct Counting"
+            ;;
+        query)
+            run_example "ProductQuery" "Fused Product Queries"
+            ;;
+        priceindex)
+            run_example "PriceIndex" "Sorted Price Index"
+            ;;
+        bitmap)
+            run_example "CategoryBitmapIndex" "Category Bitmap Index"
+            ;;
+        views)
+            run_example "MaterializedView" "Materialized Views"
+            ;;
+        multi)
+            run_example "MultiCollector" "Multi-Sink Collector"
+            ;;
+        profile)
+            run_example "InstrumentedStream" "Per-Stage Pipeline Profile"
+            ;;
+        fusion)
+            run_example "FusedPipeline" "Map/Filter Stage Fusion"
+            ;;
+        mapmulti)
+            run_example "MapMulti" "Push-Style One-to-Many"
+            ;;
+        executor)
+            run_example "PipelineExecutor" "Dedicated ForkJoinPool Execution"
+            ;;
+        adaptive)
+            run_example "AdaptiveExecution" "Adaptive Sequential/Parallel Execution"
+            ;;
+        async)
+            run_example "AsyncMap" "Async map() for Blocking Calls"
+            ;;
+        flow)
+            run_example "FlowOperators" "Backpressured Flow Operators"
+            ;;
+        custommap)
+            run_example "CustomMap" "Fused map + filter Utility"
+            ;;
+        groupby)
+            run_example "StripedGroupBy" "Striped Concurrent Group-By"
+            ;;
+        topn)
+            run_example "TopN" "Top-N Partial Sort"
+            ;;
+        extsort)
+            run_example "ExternalSort" "External Merge Sort"
+            ;;
+        kmerge)
+            run_example "KWayMerge" "K-Way Merge of Sorted Shards"
+            ;;
+        spill)
+            run_example "SpillingGroupBy" "Spill-to-Disk groupBy and distinct"
+            ;;
+        join)
+            run_example "StreamJoin" "Hash Join and Sort-Merge Join"
+            ;;
+        window)
+            run_example "WindowedAggregation" "Tumbling and Sliding Windows"
+            ;;
         *)
             echo "Usage: ./run.sh [option]"
             echo ""
@@ -170,6 +239,29 @@ else
             echo "  primitive  - Primitive variants"
             echo "  questions  - Practical questions"
             echo "  workflow   - Complete workflow"
+            echo "  dictionary - Dictionary-encoded strings"
+            echo "  users      - Email index, domain trie, Bloom filter"
+            echo "  distinct   - HyperLogLog distinct counting"
+            echo "  query      - Compiled filter→map product queries"
+            echo "  priceindex - Sorted price index for range queries"
+            echo "  bitmap     - Compressed per-category bitmap indexes"
+            echo "  views      - Incrementally maintained filter→map views"
+            echo "  multi      - N collectors in one traversal"
+            echo "  profile    - Per-stage counters for stream pipelines"
+            echo "  fusion     - Fused map/filter chains"
+            echo "  mapmulti   - Push-style flatMap without child streams"
+            echo "  executor   - Parallel streams on named, bounded pools"
+            echo "  adaptive   - Per-call-site sequential/parallel choice"
+            echo "  async      - Bounded-concurrency map() for blocking lookups"
+            echo "  flow       - map/filter/flatMap/batch with request(n) backpressure"
+            echo "  custommap  - Fused, presized map+filter with primitive overloads"
+            echo "  groupby    - Concurrent group-by into striped int/double lists"
+            echo "  topn       - Bounded-heap top N instead of a full sort"
+            echo "  extsort    - Sort larger-than-heap data via spilled runs"
+            echo "  kmerge     - Merge pre-sorted shards with a tournament tree"
+            echo "  spill      - groupBy/distinct that spill to disk over a memory budget"
+            echo "  join       - Join employees to users (hash join, sort-merge join)"
+            echo "  window     - Per-category price stats over event-time windows"
             echo "  clean      - Remove .class files"
             echo ""
             echo "Or run without arguments for interactive menu"
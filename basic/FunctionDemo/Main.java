@@ -0,0 +1,256 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.stream.*;
+
+/**
+ * FUNCTION DEMO - Function<T, R>: apply, andThen, compose, identity,
+ * and memoizing an expensive Function
+ *
+ * Run: javac *.java && java Main [trace length]
+ */
+public class Main {
+
+    public static void main(String[] args) throws Exception {
+        basics();
+        memoization();
+        selfCheck();
+
+        System.out.println("\n=== 4. Zipf benchmark ===\n");
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        zipfBenchmark(length);
+    }
+
+    // ========================================
+    // 1. Basics
+    // ========================================
+
+    static void basics() {
+        System.out.println("=== 1. Function basics ===\n");
+
+        Function<String, Integer> length = String::length;
+        Function<Integer, Integer> square = n -> n * n;
+
+        System.out.println("apply:    length(\"lambda\")            = " + length.apply("lambda"));
+        System.out.println("andThen:  square(length(\"lambda\"))    = " + length.andThen(square).apply("lambda"));
+        System.out.println("compose:  square(length(\"java\"))      = " + square.compose(length).apply("java"));
+        System.out.println("identity: identity().apply(\"same\")    = " + Function.<String>identity().apply("same"));
+
+        List<String> words = Arrays.asList("map", "filter", "reduce", "collect");
+        System.out.println("in map(): " + words.stream().map(length.andThen(square)).collect(Collectors.toList()));
+    }
+
+    // ========================================
+    // 2. Memoization
+    // ========================================
+
+    /** Stand-in for a slow lookup or parse: a few microseconds of work */
+    static String expensive(Integer key) {
+        long x = key;
+        for (int i = 0; i < 1_500; i++) {
+            x = x * 6364136223846793005L + 1442695040888963407L;
+        }
+        return "v" + key + ":" + (x >>> 48);
+    }
+
+    static void memoization() {
+        System.out.println("\n=== 2. Memoizing an expensive Function ===\n");
+        MemoizedFunction<Integer, String> cached = MemoizedFunction.of(Main::expensive)
+                                                                   .maximumSize(100)
+                                                                   .policy(MemoizedFunction.Policy.TINY_LFU)
+                                                                   .build();
+        // Highly repetitive input: 10,000 calls over 50 distinct keys
+        List<String> results = new Random(71).ints(10_000, 0, 50)
+                                             .boxed()
+                                             .map(cached)
+                                             .collect(Collectors.toList());
+        System.out.println("first results: " + results.subList(0, 3));
+        System.out.println("stats:         " + cached.stats());
+    }
+
+    static void selfCheck() throws Exception {
+        System.out.println("\n=== 3. Same results as the plain Function ===\n");
+        for (MemoizedFunction.Policy policy : MemoizedFunction.Policy.values()) {
+            MemoizedFunction<Integer, String> cached = MemoizedFunction.of(Main::expensive)
+                                                                       .maximumSize(500)
+                                                                       .policy(policy)
+                                                                       .build();
+            int threads = 4;
+            int[] trace = zipfTrace(200_000, 5_000, 0.99, 73);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> done = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int from = t * trace.length / threads, to = (t + 1) * trace.length / threads;
+                    done.add(pool.submit(() -> {
+                        for (int i = from; i < to; i++) {
+                            if (!cached.apply(trace[i]).equals(expensive(trace[i]))) {
+                                throw new AssertionError(policy + ": wrong value for " + trace[i]);
+                            }
+                        }
+                    }));
+                }
+                for (Future<?> f : done) {
+                    f.get();   // rethrows an AssertionError from the workers
+                }
+            } finally {
+                pool.shutdown();
+            }
+            MemoizedFunction.Stats stats = cached.stats();
+            if (stats.hits() + stats.misses() != trace.length) {
+                throw new AssertionError(policy + ": requests not all counted: " + stats);
+            }
+            if (stats.size() > 500) {
+                throw new AssertionError(policy + ": cache grew past its bound: " + stats);
+            }
+            System.out.printf("%-8s 4 threads, %,d calls: all values correct, %s%n", policy, trace.length, stats);
+        }
+
+        MemoizedFunction<String, String> nullable = MemoizedFunction.of((String s) -> s.isEmpty() ? null : s)
+                                                                    .maximumSize(10)
+                                                                    .build();
+        nullable.apply("");
+        if (nullable.apply("") != null || nullable.stats().hits() != 1) {
+            throw new AssertionError("null results must be cached too");
+        }
+        System.out.println("null results are cached like any other value");
+
+        // maximumSize is a hard bound and no segment is smaller than 16 entries, for any core count
+        for (int size : new int[] {1, 15, 16, 31, 272, 1_000, 1_023}) {
+            int segments = MemoizedFunction.segmentCount(size);
+            if (Integer.bitCount(segments) != 1 || (segments > 1 && size / segments < 16)) {
+                throw new AssertionError("maximumSize " + size + " split into " + segments + " segments");
+            }
+            MemoizedFunction<Integer, Integer> bounded = MemoizedFunction.of((Integer n) -> n).maximumSize(size).build();
+            for (int key = 0; key < 10 * size; key++) {
+                bounded.apply(key);
+            }
+            if (bounded.stats().size() > size) {
+                throw new AssertionError("maximumSize " + size + " exceeded: " + bounded.stats());
+            }
+        }
+        System.out.println("maximumSize is never exceeded; segments keep >= 16 entries");
+    }
+
+    // ========================================
+    // 4. Zipf benchmark
+    // ========================================
+
+    /** Keys 0..n-1 with P(k) proportional to 1 / (k + 1)^s: a few hot keys, a long tail */
+    static int[] zipfTrace(int length, int n, double s, long seed) {
+        double[] cdf = new double[n];
+        double total = 0;
+        for (int k = 0; k < n; k++) {
+            total += 1 / Math.pow(k + 1, s);
+            cdf[k] = total;
+        }
+        Random random = new Random(seed);
+        int[] trace = new int[length];
+        for (int i = 0; i < length; i++) {
+            int k = Arrays.binarySearch(cdf, random.nextDouble() * total);
+            trace[i] = k >= 0 ? k : Math.min(n - 1, -k - 1);
+        }
+        // Shuffle the key ids so hot keys are not also the small numbers
+        int[] permutation = IntStream.range(0, n).toArray();
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = tmp;
+        }
+        for (int i = 0; i < length; i++) {
+            trace[i] = permutation[trace[i]];
+        }
+        return trace;
+    }
+
+    /** The same trace with every 4th request replaced by a one-off key (a "scan") */
+    static int[] withScans(int[] trace, int n) {
+        int[] scanned = trace.clone();
+        for (int i = 3; i < scanned.length; i += 4) {
+            scanned[i] = n + i;
+        }
+        return scanned;
+    }
+
+    static void zipfBenchmark(int length) throws Exception {
+        int keys = 100_000;
+        int cacheSize = 1_000;
+        int[] zipf = zipfTrace(length, keys, 0.99, 79);
+        int[] scans = withScans(zipf, keys);
+
+        System.out.println(length + " calls over " + keys + " keys, cache of " + cacheSize + " entries, "
+                           + Runtime.getRuntime().availableProcessors() + " core(s)\n");
+        for (int[] trace : new int[][] {zipf, scans}) {
+            System.out.println(trace == zipf ? "Zipf (s = 0.99)" : "Zipf + 25% one-off scan keys");
+            System.out.println("  strategy                      threads   hit rate   M calls/s");
+            for (int threads : new int[] {1, 4}) {
+                run("no cache", trace, threads, Main::expensive, null);
+                Map<Integer, String> unbounded = new ConcurrentHashMap<>();
+                run("ConcurrentHashMap (unbounded)", trace, threads,
+                    key -> unbounded.computeIfAbsent(key, Main::expensive),
+                    () -> String.format("%8.1f%%", 100.0 - 100.0 * unbounded.size() / (ROUNDS * (double) trace.length)));
+                Map<Integer, String> lru = Collections.synchronizedMap(new LinkedHashMap<Integer, String>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+                        return size() > cacheSize;
+                    }
+                });
+                long[] lruMisses = new long[1];
+                run("synchronized LRU map", trace, threads, key -> {
+                    String value = lru.get(key);
+                    if (value == null) {
+                        synchronized (lruMisses) {
+                            lruMisses[0]++;
+                        }
+                        value = expensive(key);
+                        lru.put(key, value);
+                    }
+                    return value;
+                }, () -> String.format("%8.1f%%", 100.0 - 100.0 * lruMisses[0] / (ROUNDS * (double) trace.length)));
+                for (MemoizedFunction.Policy policy : MemoizedFunction.Policy.values()) {
+                    MemoizedFunction<Integer, String> memo = MemoizedFunction.of(Main::expensive)
+                                                                             .maximumSize(cacheSize)
+                                                                             .policy(policy)
+                                                                             .build();
+                    run("MemoizedFunction " + policy, trace, threads, memo,
+                        () -> String.format("%8.1f%%", 100 * memo.stats().hitRate()));
+                }
+            }
+            System.out.println();
+        }
+    }
+
+    static final int ROUNDS = 3;
+
+    /** Best of ROUNDS; `note` reports the hit rate over all rounds (the cache stays warm between them) */
+    static void run(String name, int[] trace, int threads, Function<Integer, String> function,
+                    Callable<String> note) throws Exception {
+        long best = Long.MAX_VALUE;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                List<Future<Long>> parts = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int from = t * trace.length / threads, to = (t + 1) * trace.length / threads;
+                    parts.add(pool.submit(() -> {
+                        long checksum = 0;
+                        for (int i = from; i < to; i++) {
+                            checksum += function.apply(trace[i]).length();
+                        }
+                        return checksum;
+                    }));
+                }
+                for (Future<Long> part : parts) {
+                    part.get();
+                }
+                best = Math.min(best, System.nanoTime() - start);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        String detail = note == null ? "       -" : note.call();
+        System.out.printf("  %-30s %5d   %s   %8.2f%n", name, threads, detail, trace.length / (best / 1e3));
+    }
+}
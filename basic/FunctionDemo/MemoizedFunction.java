@@ -0,0 +1,366 @@
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * MEMOIZED FUNCTION - a bounded cache in front of an expensive Function
+ *
+ * Many map(Function) calls see the same inputs over and over. Wrapping the
+ * function remembers recent results:
+ *
+ *   Function<String, Price> lookup = MemoizedFunction.of(this::fetchPrice)
+ *                                                    .maximumSize(10_000)
+ *                                                    .policy(MemoizedFunction.Policy.TINY_LFU)
+ *                                                    .build();
+ *   products.stream().map(lookup)...
+ *
+ * Policies (what to throw away when full):
+ * - LRU: the least recently used entry. Simple, but one scan over many
+ *   one-off keys flushes the whole cache.
+ * - TINY_LFU (W-TinyLFU style): new entries enter a small LRU "window"
+ *   (1%). An entry leaving the window only gets into the main cache if a
+ *   frequency sketch says it is used MORE often than the main cache's next
+ *   victim. The main cache is a segmented LRU: entries hit twice move to a
+ *   protected area (80%). Frequencies are 4-bit counters in a count-min
+ *   sketch, halved periodically so old popularity fades.
+ *
+ * Concurrency: keys are spread over independent segments, each with its own
+ * lock - no global lock. The function runs OUTSIDE the lock, so two threads
+ * missing the same key at once may both compute it (the function must be
+ * pure); the first result stored wins.
+ *
+ * Statistics (hits, misses, evictions) are LongAdders: cheap to update from
+ * many threads.
+ */
+public final class MemoizedFunction<T, R> implements Function<T, R> {
+
+    public enum Policy { LRU, TINY_LFU }
+
+    private static final Object NULL = new Object();   // stands in for a cached null result
+
+    private final Function<? super T, ? extends R> function;
+    private final Segment<T>[] segments;
+    private final int segmentMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})   // generic array from a raw Segment[]
+    private MemoizedFunction(Builder<T, R> builder) {
+        this.function = builder.function;
+        int count = segmentCount(builder.maximumSize);
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            // Split maximumSize exactly: the first (maximumSize % count) segments hold one more
+            int capacity = builder.maximumSize / count + (i < builder.maximumSize % count ? 1 : 0);
+            segments[i] = builder.policy == Policy.LRU ? new LruSegment<>(capacity) : new TinyLfuSegment<>(capacity);
+        }
+        this.segmentMask = count - 1;
+    }
+
+    /** Power of two <= 2 x cores, rounded down so that no segment holds fewer than 16 entries */
+    static int segmentCount(int maximumSize) {
+        int wanted = Math.min(2 * Runtime.getRuntime().availableProcessors(), maximumSize / 16);
+        return wanted <= 1 ? 1 : Integer.highestOneBit(wanted);
+    }
+
+    public static <T, R> Builder<T, R> of(Function<? super T, ? extends R> function) {
+        return new Builder<>(function);
+    }
+
+    public static final class Builder<T, R> {
+        private final Function<? super T, ? extends R> function;
+        private int maximumSize = 1_000;
+        private Policy policy = Policy.TINY_LFU;
+
+        private Builder(Function<? super T, ? extends R> function) {
+            this.function = Objects.requireNonNull(function, "function");
+        }
+
+        public Builder<T, R> maximumSize(int entries) {
+            if (entries < 1) {
+                throw new IllegalArgumentException("maximumSize must be at least 1: " + entries);
+            }
+            this.maximumSize = entries;
+            return this;
+        }
+
+        public Builder<T, R> policy(Policy policy) {
+            this.policy = Objects.requireNonNull(policy, "policy");
+            return this;
+        }
+
+        public MemoizedFunction<T, R> build() {
+            return new MemoizedFunction<>(this);
+        }
+    }
+
+    // ========================================
+    // Function
+    // ========================================
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public R apply(T key) {
+        int hash = spread(Objects.hashCode(key));
+        Segment<T> segment = segments[(hash >>> 16) & segmentMask];
+        Object cached;
+        synchronized (segment) {
+            cached = segment.get(key, hash);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached == NULL ? null : (R) cached;
+        }
+        misses.increment();
+        R value = function.apply(key);   // outside the lock: other keys of this segment are not blocked
+        synchronized (segment) {
+            Object raced = segment.peek(key);
+            if (raced != null) {
+                return raced == NULL ? null : (R) raced;   // another thread stored it first
+            }
+            evictions.add(segment.put(key, hash, value == null ? NULL : value));
+        }
+        return value;
+    }
+
+    public Stats stats() {
+        int size = 0;
+        for (Segment<T> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int size;
+
+        Stats(long hits, long misses, long evictions, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.size = size;
+        }
+
+        public long hits() { return hits; }
+        public long misses() { return misses; }
+        public long evictions() { return evictions; }
+        public int size() { return size; }
+
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d misses=%d evictions=%d size=%d hitRate=%.1f%%",
+                                 hits, misses, evictions, size, 100 * hitRate());
+        }
+    }
+
+    static int spread(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 15);
+    }
+
+    // ========================================
+    // Segments (always used under their own monitor)
+    // ========================================
+
+    private abstract static class Segment<T> {
+        /** Cached value (NULL for null), or null on a miss */
+        abstract Object get(T key, int hash);
+
+        /** Like get(), without counting as a use */
+        abstract Object peek(T key);
+
+        /** Stores a computed value; returns how many entries were evicted */
+        abstract int put(T key, int hash, Object value);
+
+        abstract int size();
+    }
+
+    private static final class LruSegment<T> extends Segment<T> {
+        private final int capacity;
+        private final LinkedHashMap<T, Object> entries;
+
+        LruSegment(int capacity) {
+            this.capacity = capacity;
+            this.entries = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true);   // access order
+        }
+
+        @Override
+        Object get(T key, int hash) {
+            return entries.get(key);
+        }
+
+        @Override
+        Object peek(T key) {
+            return entries.get(key);
+        }
+
+        @Override
+        int put(T key, int hash, Object value) {
+            entries.put(key, value);
+            if (entries.size() > capacity) {
+                Iterator<T> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                return 1;
+            }
+            return 0;
+        }
+
+        @Override
+        int size() {
+            return entries.size();
+        }
+    }
+
+    /**
+     * window (1%, LRU) -> admission filter -> probation (20% of main) -> protected (80% of main)
+     */
+    private static final class TinyLfuSegment<T> extends Segment<T> {
+        private final int windowCapacity;
+        private final int mainCapacity;
+        private final int protectedCapacity;
+        private final LinkedHashMap<T, Object> window;
+        private final LinkedHashMap<T, Object> probation;
+        private final LinkedHashMap<T, Object> protectedArea;
+        private final FrequencySketch sketch;
+
+        TinyLfuSegment(int capacity) {
+            this.windowCapacity = Math.max(1, capacity / 100);
+            this.mainCapacity = capacity - windowCapacity;   // 0 for a 1-entry cache: window only
+            this.protectedCapacity = mainCapacity * 8 / 10;
+            this.window = new LinkedHashMap<>(16, 0.75f, true);
+            this.probation = new LinkedHashMap<>(16, 0.75f, true);
+            this.protectedArea = new LinkedHashMap<>(16, 0.75f, true);
+            this.sketch = new FrequencySketch(capacity);
+        }
+
+        @Override
+        Object get(T key, int hash) {
+            sketch.increment(hash);   // hits and misses both count as "used"
+            Object value = window.get(key);
+            if (value != null) {
+                return value;
+            }
+            value = protectedArea.get(key);
+            if (value != null) {
+                return value;
+            }
+            value = probation.remove(key);
+            if (value != null) {
+                // Second hit: promote; the protected area's LRU entry goes back on probation
+                protectedArea.put(key, value);
+                if (protectedArea.size() > protectedCapacity) {
+                    Map.Entry<T, Object> demoted = eldest(protectedArea);
+                    protectedArea.remove(demoted.getKey());
+                    probation.put(demoted.getKey(), demoted.getValue());
+                }
+            }
+            return value;
+        }
+
+        @Override
+        Object peek(T key) {
+            Object value = window.get(key);
+            if (value == null) {
+                value = protectedArea.get(key);
+            }
+            return value != null ? value : probation.get(key);
+        }
+
+        @Override
+        int put(T key, int hash, Object value) {
+            window.put(key, value);
+            if (window.size() <= windowCapacity) {
+                return 0;
+            }
+            Map.Entry<T, Object> candidate = eldest(window);
+            window.remove(candidate.getKey());
+            if (mainCapacity == 0) {
+                return 1;
+            }
+            if (probation.size() + protectedArea.size() < mainCapacity) {
+                probation.put(candidate.getKey(), candidate.getValue());
+                return 0;
+            }
+            LinkedHashMap<T, Object> victims = probation.isEmpty() ? protectedArea : probation;
+            Map.Entry<T, Object> victim = eldest(victims);
+            if (sketch.frequency(spread(Objects.hashCode(candidate.getKey())))
+                    > sketch.frequency(spread(Objects.hashCode(victim.getKey())))) {
+                victims.remove(victim.getKey());
+                probation.put(candidate.getKey(), candidate.getValue());
+            }
+            return 1;   // either the victim or the rejected candidate is gone
+        }
+
+        private static <T> Map.Entry<T, Object> eldest(LinkedHashMap<T, Object> map) {
+            return map.entrySet().iterator().next();
+        }
+
+        @Override
+        int size() {
+            return window.size() + probation.size() + protectedArea.size();
+        }
+    }
+
+    /**
+     * Count-min sketch: 4 rows of 4-bit counters (saturating at 15). After
+     * 10 x capacity increments every counter is halved - the "aging" that
+     * lets yesterday's favourites fall out.
+     */
+    static final class FrequencySketch {
+        private static final int[] SEEDS = {0x97CB3127, 0xB5AD4ECE, 0x8B8E5F2F, 0xC2B2AE35};
+
+        private final byte[][] rows;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            int width = Integer.highestOneBit(Math.max(16, capacity) - 1) << 1;
+            this.rows = new byte[SEEDS.length][width];
+            this.mask = width - 1;
+            this.sampleSize = 10 * Math.max(16, capacity);
+        }
+
+        private int index(int hash, int row) {
+            int h = (hash ^ SEEDS[row]) * 0x9E3779B9;
+            return (h ^ (h >>> 17)) & mask;
+        }
+
+        void increment(int hash) {
+            for (int row = 0; row < rows.length; row++) {
+                int i = index(hash, row);
+                if (rows[row][i] < 15) {
+                    rows[row][i]++;
+                }
+            }
+            if (++additions == sampleSize) {
+                for (byte[] counters : rows) {
+                    for (int i = 0; i < counters.length; i++) {
+                        counters[i] >>= 1;
+                    }
+                }
+                additions /= 2;
+            }
+        }
+
+        int frequency(int hash) {
+            int min = 15;
+            for (int row = 0; row < rows.length; row++) {
+                min = Math.min(min, rows[row][index(hash, row)]);
+            }
+            return min;
+        }
+    }
+}
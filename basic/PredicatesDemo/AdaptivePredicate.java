@@ -0,0 +1,234 @@
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * ADAPTIVE PREDICATE - an AND / OR of many clauses that reorders itself
+ *
+ *   p1.and(p2).and(p3)...   always tests the clauses in the order written.
+ *
+ * With ten or more clauses of very different cost (a regex vs an int
+ * comparison) and selectivity, the written order is rarely the cheapest.
+ * For AND, the best order puts first the clauses with the lowest
+ *
+ *     cost / (1 - passRate)       (expected cost to REJECT an element)
+ *
+ * and for OR the lowest cost / passRate (expected cost to ACCEPT one).
+ *
+ *   Predicate<Person> filter = AdaptivePredicate.<Person>allOf()
+ *           .guard(p -> p.getEmail() != null)          // never moved, always first
+ *           .clause("valid email", p -> EMAIL.matcher(p.getEmail()).matches())
+ *           .clause("adult", p -> p.getAge() >= 18)
+ *           ...
+ *           .build();
+ *
+ * - about 1 test in SAMPLE_EVERY evaluates EVERY clause and times each one,
+ *   so cost and pass rate are measured for all clauses, not just the ones
+ *   that happen to run first
+ * - every SAMPLES_PER_REORDER samples the estimates are blended into moving
+ *   averages and the order is recomputed - it follows the data as it drifts
+ * - the result is always identical to the written chain: AND / OR do not
+ *   depend on order. That needs clauses without side effects that do not
+ *   rely on each other; preconditions (null checks) go in guard(), which
+ *   runs first and is never reordered
+ * - thread-safe: the order is swapped atomically, statistics are LongAdders
+ */
+public final class AdaptivePredicate<T> implements Predicate<T> {
+
+    public enum Mode { ALL, ANY }
+
+    static final int SAMPLE_EVERY = 64;
+    static final int SAMPLES_PER_REORDER = 32;
+    static final double NEW_WEIGHT = 0.3;   // weight of the latest interval in the moving averages
+
+    private final Mode mode;
+    private final List<Predicate<? super T>> guards;
+    private final Predicate<? super T>[] clauses;
+    private final String[] names;
+
+    private volatile int[] order;
+
+    private final LongAdder[] nanos;
+    private final LongAdder[] passes;
+    private final AtomicLong samples = new AtomicLong();
+    private final double[] cost;        // moving averages, updated under `this`
+    private final double[] passRate;
+    private long sampledSinceReorder;
+    private int reorders;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})   // generic array from a raw Predicate[]
+    private AdaptivePredicate(Builder<T> builder) {
+        this.mode = builder.mode;
+        this.guards = new ArrayList<>(builder.guards);
+        this.clauses = builder.clauses.toArray(new Predicate[0]);
+        this.names = builder.names.toArray(new String[0]);
+        int n = clauses.length;
+        int[] declared = new int[n];
+        for (int i = 0; i < n; i++) {
+            declared[i] = i;
+        }
+        this.order = declared;
+        this.nanos = new LongAdder[n];
+        this.passes = new LongAdder[n];
+        for (int i = 0; i < n; i++) {
+            nanos[i] = new LongAdder();
+            passes[i] = new LongAdder();
+        }
+        this.cost = new double[n];
+        this.passRate = new double[n];
+        Arrays.fill(cost, Double.NaN);   // NaN = not measured yet
+    }
+
+    /** AND of the clauses */
+    public static <T> Builder<T> allOf() {
+        return new Builder<>(Mode.ALL);
+    }
+
+    /** OR of the clauses */
+    public static <T> Builder<T> anyOf() {
+        return new Builder<>(Mode.ANY);
+    }
+
+    public static final class Builder<T> {
+        private final Mode mode;
+        private final List<Predicate<? super T>> guards = new ArrayList<>();
+        private final List<Predicate<? super T>> clauses = new ArrayList<>();
+        private final List<String> names = new ArrayList<>();
+
+        private Builder(Mode mode) {
+            this.mode = mode;
+        }
+
+        /** Precondition for every clause: tested first, in the order added; if it fails the result is false */
+        public Builder<T> guard(Predicate<? super T> guard) {
+            guards.add(Objects.requireNonNull(guard, "guard"));
+            return this;
+        }
+
+        public Builder<T> clause(String name, Predicate<? super T> clause) {
+            names.add(Objects.requireNonNull(name, "name"));
+            clauses.add(Objects.requireNonNull(clause, "clause"));
+            return this;
+        }
+
+        public AdaptivePredicate<T> build() {
+            if (clauses.isEmpty()) {
+                throw new IllegalStateException("an adaptive predicate needs at least one clause");
+            }
+            return new AdaptivePredicate<>(this);
+        }
+    }
+
+    // ========================================
+    // Predicate
+    // ========================================
+
+    @Override
+    public boolean test(T t) {
+        for (Predicate<? super T> guard : guards) {
+            if (!guard.test(t)) {
+                return false;
+            }
+        }
+        if (ThreadLocalRandom.current().nextInt(SAMPLE_EVERY) == 0) {
+            return sample(t);
+        }
+        int[] current = order;
+        if (mode == Mode.ALL) {
+            for (int i : current) {
+                if (!clauses[i].test(t)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        for (int i : current) {
+            if (clauses[i].test(t)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Tests every clause, timing each; same result as the short-circuit path */
+    private boolean sample(T t) {
+        boolean all = true;
+        boolean any = false;
+        for (int i = 0; i < clauses.length; i++) {
+            long start = System.nanoTime();
+            boolean passed = clauses[i].test(t);
+            nanos[i].add(System.nanoTime() - start);
+            if (passed) {
+                passes[i].increment();
+                any = true;
+            } else {
+                all = false;
+            }
+        }
+        if (samples.incrementAndGet() % SAMPLES_PER_REORDER == 0) {
+            reorder();
+        }
+        return mode == Mode.ALL ? all : any;
+    }
+
+    private synchronized void reorder() {
+        long total = samples.get();
+        long interval = total - sampledSinceReorder;
+        sampledSinceReorder = total;
+        if (interval <= 0) {
+            return;
+        }
+        int n = clauses.length;
+        double[] rank = new double[n];
+        for (int i = 0; i < n; i++) {
+            // sumThenReset() can miss a concurrent add: it lands in the next interval
+            double c = (double) nanos[i].sumThenReset() / interval;
+            double p = Math.min(1.0, (double) passes[i].sumThenReset() / interval);
+            if (Double.isNaN(cost[i])) {
+                cost[i] = c;
+                passRate[i] = p;
+            } else {
+                cost[i] += NEW_WEIGHT * (c - cost[i]);
+                passRate[i] += NEW_WEIGHT * (p - passRate[i]);
+            }
+            double decisive = mode == Mode.ALL ? 1 - passRate[i] : passRate[i];
+            rank[i] = cost[i] / Math.max(decisive, 1e-6);
+        }
+        Integer[] sorted = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = i;
+        }
+        Arrays.sort(sorted, Comparator.comparingDouble(i -> rank[i]));   // stable: ties keep the written order
+        int[] next = new int[n];
+        for (int i = 0; i < n; i++) {
+            next[i] = sorted[i];
+        }
+        if (!Arrays.equals(next, order)) {
+            order = next;
+            reorders++;
+        }
+    }
+
+    /** Clauses in their current order with the measured cost and pass rate */
+    public synchronized String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(mode == Mode.ALL ? "ALL of" : "ANY of")
+          .append(" (").append(samples.get()).append(" samples, ").append(reorders).append(" reorders):\n");
+        for (int i : order) {
+            sb.append(String.format("  %-22s %8.1f ns  %6.1f%% pass%n",
+                                    names[i], Double.isNaN(cost[i]) ? 0 : cost[i], 100 * passRate[i]));
+        }
+        return sb.toString();
+    }
+
+    /** Clause names in the order they are tested now */
+    public List<String> currentOrder() {
+        List<String> result = new ArrayList<>();
+        for (int i : order) {
+            result.add(names[i]);
+        }
+        return result;
+    }
+}
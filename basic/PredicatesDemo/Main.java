@@ -0,0 +1,207 @@
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.*;
+
+/**
+ * PREDICATES DEMO - Predicate<T>: test, and, or, negate, isEqual,
+ * and an AND of many clauses that reorders itself (AdaptivePredicate)
+ *
+ * Run: javac *.java && java Main [people]
+ */
+public class Main {
+
+    public static void main(String[] args) {
+        basics();
+        adaptiveExample();
+
+        System.out.println("\n=== 3. Performance Comparison ===\n");
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        performanceComparison(size);
+    }
+
+    // ========================================
+    // 1. Basics
+    // ========================================
+
+    static List<Person> people() {
+        return Arrays.asList(
+            new Person("Raj", 30, "raj.kumar@example.com", "Delhi", 75000),
+            new Person("Priya", 17, "priya.sharma@example.com", "Mumbai", 0),
+            new Person("Aman", 45, "aman.singh@corp.org", "Pune", 52000),
+            new Person("Neha", 65, "neha.verma@mail.com", "Delhi", 91000),
+            new Person("Kumar", 22, "not-an-email", "Chennai", 35000)
+        );
+    }
+
+    static void basics() {
+        System.out.println("=== 1. Predicate basics ===\n");
+        List<Person> people = people();
+
+        Predicate<Person> adult = p -> p.getAge() >= 18;
+        Predicate<Person> wellPaid = p -> p.getSalary() > 50000;
+        Predicate<Person> inDelhi = p -> p.getCity().equals("Delhi");
+
+        System.out.println("test:     adult(Priya)           = " + adult.test(people.get(1)));
+        System.out.println("and:      adult and well paid    = " + names(people, adult.and(wellPaid)));
+        System.out.println("or:       in Delhi or well paid  = " + names(people, inDelhi.or(wellPaid)));
+        System.out.println("negate:   not adult              = " + names(people, adult.negate()));
+        System.out.println("negate:   not in Delhi           = " + names(people, inDelhi.negate()));
+        System.out.println("isEqual:  city is Pune           = "
+                           + people.stream().map(Person::getCity).filter(Predicate.isEqual("Pune")).count() + " person(s)");
+    }
+
+    static List<String> names(List<Person> people, Predicate<Person> filter) {
+        return people.stream().filter(filter).map(Person::getName).collect(Collectors.toList());
+    }
+
+    // ========================================
+    // 2. Adaptive reordering
+    // ========================================
+
+    static final Pattern EMAIL = Pattern.compile("^[a-z]+\\.[a-z]+[0-9]*@(example|corp|mail)\\.(com|org)$");
+    static final Set<String> BLOCKED_DOMAINS = new HashSet<>(Arrays.asList("spam.com", "junk.org"));
+    static final Set<String> SERVED_CITIES = new HashSet<>(Arrays.asList("Delhi", "Mumbai", "Pune", "Bengaluru", "Kolkata"));
+
+    /** Deliberately slow: stands in for a costly check (scoring, lookup) */
+    static int checksum(String s) {
+        int h = 0;
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < s.length(); i++) {
+                h = 31 * h + s.charAt(i) + round;
+            }
+        }
+        return h;
+    }
+
+    /** Eleven clauses, written expensive-and-unselective first - the order a filter grows in practice */
+    static String[] clauseNames = {
+        "valid email", "name checksum", "domain allowed", "name has A", "city served", "adult",
+        "under 60", "short name", "salary > 50k", "salary band", "email length"
+    };
+
+    static List<Predicate<Person>> clauses() {
+        return Arrays.<Predicate<Person>>asList(
+            p -> EMAIL.matcher(p.getEmail()).matches(),
+            p -> checksum(p.getName()) % 97 != 0,
+            p -> !BLOCKED_DOMAINS.contains(p.getEmail().substring(p.getEmail().indexOf('@') + 1)),
+            p -> p.getName().toUpperCase().indexOf('A') >= 0,
+            p -> SERVED_CITIES.contains(p.getCity()),
+            p -> p.getAge() >= 18,
+            p -> p.getAge() < 60,
+            p -> p.getName().length() <= 12,
+            p -> p.getSalary() > 50000,
+            p -> ((long) p.getSalary()) % 7 == 0,
+            p -> p.getEmail().length() < 40
+        );
+    }
+
+    /** p1.and(p2).and(p3)... in the written order */
+    static Predicate<Person> chain(List<Predicate<Person>> clauses, int... order) {
+        Predicate<Person> result = clauses.get(order[0]);
+        for (int i = 1; i < order.length; i++) {
+            result = result.and(clauses.get(order[i]));
+        }
+        return result;
+    }
+
+    static AdaptivePredicate<Person> adaptive(List<Predicate<Person>> clauses) {
+        AdaptivePredicate.Builder<Person> builder = AdaptivePredicate.<Person>allOf()
+                .guard(p -> p.getEmail() != null && p.getEmail().indexOf('@') >= 0);
+        for (int i = 0; i < clauses.size(); i++) {
+            builder.clause(clauseNames[i], clauses.get(i));
+        }
+        return builder.build();
+    }
+
+    static void adaptiveExample() {
+        System.out.println("\n=== 2. AdaptivePredicate ===\n");
+        Predicate<Person> vip = AdaptivePredicate.<Person>anyOf()
+                .clause("valid email", p -> EMAIL.matcher(p.getEmail()).matches())
+                .clause("earns > 90k", p -> p.getSalary() > 90000)
+                .clause("in Mumbai", p -> p.getCity().equals("Mumbai"))
+                .build();
+        System.out.println("ANY (valid email, earns > 90k, in Mumbai): " + names(people(), vip));
+
+        List<Predicate<Person>> clauses = clauses();
+        AdaptivePredicate<Person> filter = adaptive(clauses);
+        List<Person> generated = generate(200_000, 83, false);
+        long matches = generated.stream().filter(filter).count();
+        System.out.println("ALL of 11 clauses over 200,000 people: " + matches + " match\n");
+        System.out.print(filter.report());
+    }
+
+    // ========================================
+    // 3. Performance
+    // ========================================
+
+    static final String[] SYLLABLES = {"ra", "ja", "pri", "ya", "ne", "ha", "ku", "mar", "a", "man", "vi", "no", "de", "shi"};
+    static final String[] CITIES = {"Delhi", "Mumbai", "Pune", "Bengaluru", "Kolkata", "Chennai", "Jaipur", "Surat"};
+    static final String[] DOMAINS = {"example.com", "corp.org", "mail.com", "spam.com"};
+
+    /** `drifted`: later data where the salary band almost always passes and few cities are served */
+    static List<Person> generate(int size, long seed, boolean drifted) {
+        Random random = new Random(seed);
+        List<Person> people = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            StringBuilder name = new StringBuilder();
+            for (int s = 1 + random.nextInt(4); s > 0; s--) {
+                name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            String first = name.toString();
+            String email = random.nextInt(20) == 0
+                    ? first + "@@broken"
+                    : first + "." + SYLLABLES[random.nextInt(SYLLABLES.length)] + random.nextInt(100)
+                      + "@" + DOMAINS[random.nextInt(20) == 0 ? 3 : random.nextInt(3)];
+            String city = drifted && random.nextInt(10) > 0 ? "Surat" : CITIES[random.nextInt(CITIES.length)];
+            long salary = 20_000 + random.nextInt(100_000);
+            if (drifted) {
+                salary -= salary % 7;   // every salary in the band
+            }
+            people.add(new Person(first, 10 + random.nextInt(70), email, city, salary));
+        }
+        return people;
+    }
+
+    static void performanceComparison(int size) {
+        List<Predicate<Person>> clauses = clauses();
+        Predicate<Person> guard = p -> p.getEmail() != null && p.getEmail().indexOf('@') >= 0;
+        Predicate<Person> written = guard.and(chain(clauses, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10));
+        // What a careful developer would write after profiling the FIRST data set
+        Predicate<Person> handTuned = guard.and(chain(clauses, 9, 8, 6, 4, 5, 3, 7, 10, 2, 0, 1));
+        AdaptivePredicate<Person> adaptive = adaptive(clauses);
+
+        for (boolean drifted : new boolean[] {false, true}) {
+            List<Person> people = generate(size, drifted ? 89 : 87, drifted);
+            System.out.println(size + " people, " + (drifted ? "DRIFTED data (salary band passes, few cities served)" : "initial data"));
+
+            // Identical results, element for element, sequential and parallel
+            List<Person> expected = people.stream().filter(written).collect(Collectors.toList());
+            if (!people.stream().filter(adaptive).collect(Collectors.toList()).equals(expected)
+                    || !people.parallelStream().filter(adaptive).collect(Collectors.toList()).equals(expected)
+                    || !people.stream().filter(handTuned).collect(Collectors.toList()).equals(expected)) {
+                throw new AssertionError("reordered filters must select exactly the same people");
+            }
+
+            long best1 = Long.MAX_VALUE, best2 = Long.MAX_VALUE, best3 = Long.MAX_VALUE;
+            for (int round = 0; round < 5; round++) {
+                long start = System.nanoTime();
+                people.stream().filter(written).count();
+                best1 = Math.min(best1, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                people.stream().filter(handTuned).count();
+                best2 = Math.min(best2, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                people.stream().filter(adaptive).count();
+                best3 = Math.min(best3, System.nanoTime() - start);
+            }
+            System.out.printf("  p1.and(p2)... as written   %7.1f ms%n", best1 / 1e6);
+            System.out.printf("  hand-tuned order           %7.1f ms%n", best2 / 1e6);
+            System.out.printf("  AdaptivePredicate          %7.1f ms   (%d matches, same as the others)%n",
+                              best3 / 1e6, expected.size());
+            System.out.println("  learned order: " + adaptive.currentOrder() + "\n");
+        }
+    }
+}
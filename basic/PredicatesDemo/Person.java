@@ -0,0 +1,29 @@
+/**
+ * Person - the record the predicate demos filter
+ */
+public class Person {
+    private final String name;
+    private final int age;
+    private final String email;
+    private final String city;
+    private final double salary;
+
+    public Person(String name, int age, String email, String city, double salary) {
+        this.name = name;
+        this.age = age;
+        this.email = email;
+        this.city = city;
+        this.salary = salary;
+    }
+
+    public String getName() { return name; }
+    public int getAge() { return age; }
+    public String getEmail() { return email; }
+    public String getCity() { return city; }
+    public double getSalary() { return salary; }
+
+    @Override
+    public String toString() {
+        return String.format("Person{name='%s', age=%d, city='%s', salary=%.0f}", name, age, city, salary);
+    }
+}